@@ -1,5 +1,7 @@
 package com.ercanbeyen.movieapplication.advice;
 
+import com.ercanbeyen.movieapplication.exception.InvalidCursorException;
+import com.ercanbeyen.movieapplication.exception.InvalidImportException;
 import com.ercanbeyen.movieapplication.exception.ResourceConflictException;
 import com.ercanbeyen.movieapplication.exception.ResourceForbiddenException;
 import com.ercanbeyen.movieapplication.util.ResponseHandler;
@@ -48,6 +50,16 @@ public class GlobalExceptionHandler {
         return ResponseHandler.generateResponse(HttpStatus.CONFLICT, exception.getMessage(), null);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> handleInvalidCursorException(Exception exception) {
+        return ResponseHandler.generateResponse(HttpStatus.BAD_REQUEST, exception.getMessage(), null);
+    }
+
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<?> handleInvalidImportException(Exception exception) {
+        return ResponseHandler.generateResponse(HttpStatus.BAD_REQUEST, exception.getMessage(), null);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneralException(Exception exception) {
         return ResponseHandler.generateResponse(HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage(), null);
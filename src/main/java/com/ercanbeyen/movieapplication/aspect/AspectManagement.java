@@ -1,7 +1,6 @@
 package com.ercanbeyen.movieapplication.aspect;
 
 import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
-import com.ercanbeyen.movieapplication.entity.Audience;
 import com.ercanbeyen.movieapplication.exception.ResourceConflictException;
 import com.ercanbeyen.movieapplication.exception.ResourceForbiddenException;
 import com.ercanbeyen.movieapplication.service.AudienceService;
@@ -36,10 +35,10 @@ public class AspectManagement {
 
         Integer id = (Integer) args[1];
         UserDetails userDetails = (UserDetails) args[0];
-        Audience audience = audienceService.findAudience(id);
+        String username = audienceService.findUsername(id);
         StringBuilder message = new StringBuilder("User in database and logged in user are ");
 
-        if (!audience.getUsername().equals(userDetails.getUsername())) {
+        if (!username.equals(userDetails.getUsername())) {
             message.append("different");
             log.error(message.toString());
             throw new ResourceForbiddenException(ResponseMessages.FORBIDDEN);
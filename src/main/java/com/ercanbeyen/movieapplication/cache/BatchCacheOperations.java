@@ -0,0 +1,118 @@
+package com.ercanbeyen.movieapplication.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.*;
+
+/*
+ * Reads and writes many entries of a cache managed by the cache abstraction in a single Redis round trip.
+ * Keys and values are encoded with the cache's own configuration, so entries stay interchangeable with
+ * the ones written by @Cacheable and @CachePut.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BatchCacheOperations {
+    private final CacheManager cacheManager;
+    private final RedisConnectionFactory redisConnectionFactory;
+
+    public <K, V> Map<K, V> getAll(String cacheName, Collection<K> keys, Class<V> type) {
+        Map<K, V> values = new HashMap<>();
+        Cache cache = cacheManager.getCache(cacheName);
+
+        if (cache == null || keys.isEmpty()) {
+            return values;
+        }
+
+        List<K> keyList = List.copyOf(new LinkedHashSet<>(keys));
+
+        try {
+            if (cache instanceof RedisCache redisCache) {
+                RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+                byte[][] cacheKeys = keyList.stream()
+                        .map(key -> createCacheKey(cacheName, configuration, key))
+                        .toArray(byte[][]::new);
+
+                List<byte[]> cachedValues;
+
+                try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+                    cachedValues = connection.stringCommands().mGet(cacheKeys);
+                }
+
+                for (int i = 0; cachedValues != null && i < keyList.size(); i++) {
+                    byte[] cachedValue = cachedValues.get(i);
+
+                    if (cachedValue != null) {
+                        Object value = configuration.getValueSerializationPair().read(ByteBuffer.wrap(cachedValue));
+
+                        if (type.isInstance(value)) {
+                            values.put(keyList.get(i), type.cast(value));
+                        }
+                    }
+                }
+            } else {
+                keyList.forEach(key -> {
+                    V value = cache.get(key, type);
+
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                });
+            }
+        } catch (RuntimeException exception) {
+            log.error("Cache {} could not be read. Exception: {}", cacheName, exception.getMessage());
+        }
+
+        return values;
+    }
+
+    public <K, V> void putAll(String cacheName, Map<K, V> entries) {
+        Cache cache = cacheManager.getCache(cacheName);
+
+        if (cache == null || entries.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (cache instanceof RedisCache redisCache) {
+                RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+                Duration ttl = configuration.getTtl();
+                Expiration expiration = (ttl.isZero() || ttl.isNegative()) ? Expiration.persistent() : Expiration.from(ttl);
+
+                try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+                    connection.openPipeline();
+                    entries.forEach((key, value) -> connection.stringCommands().set(
+                            createCacheKey(cacheName, configuration, key),
+                            ByteUtils.getBytes(configuration.getValueSerializationPair().write(value)),
+                            expiration,
+                            RedisStringCommands.SetOption.upsert()));
+                    connection.closePipeline();
+                }
+            } else {
+                entries.forEach(cache::put);
+            }
+        } catch (RuntimeException exception) {
+            log.error("Cache {} could not be written. Exception: {}", cacheName, exception.getMessage());
+        }
+    }
+
+    private static byte[] createCacheKey(String cacheName, RedisCacheConfiguration configuration, Object key) {
+        String convertedKey = configuration.getConversionService().convert(key, String.class);
+        String cacheKey = configuration.usePrefix() ? configuration.getKeyPrefixFor(cacheName) + convertedKey : convertedKey;
+
+        return ByteUtils.getBytes(configuration.getKeySerializationPair().write(cacheKey));
+    }
+}
@@ -3,4 +3,8 @@ package com.ercanbeyen.movieapplication.constant.defaults;
 public class DefaultValues {
     public static final String DEFAULT_LIMIT_VALUE = "10";
     public static final Integer MINIMUM_NUMBER_OF_MOVIES_TO_BECOME_POPULAR = 2;
+    public static final int MINIMUM_RELEASE_YEAR_TO_BE_CACHED = 2020;
+    public static final int MAXIMUM_NUMBER_OF_IDS = 100;
+    public static final int MINIMUM_RATE = 1;
+    public static final int MAXIMUM_RATE = 5;
 }
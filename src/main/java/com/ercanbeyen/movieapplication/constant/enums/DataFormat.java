@@ -0,0 +1,23 @@
+package com.ercanbeyen.movieapplication.constant.enums;
+
+import org.springframework.http.MediaType;
+
+public enum DataFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(MediaType.parseMediaType("text/csv"));
+
+    private final MediaType mediaType;
+
+    DataFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static DataFormat of(String contentType) {
+        MediaType requestedType = MediaType.parseMediaType(contentType);
+        return CSV.mediaType.isCompatibleWith(requestedType) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ercanbeyen.movieapplication.constant.enums;
+
+public enum ImportStatus {
+    IMPORTED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
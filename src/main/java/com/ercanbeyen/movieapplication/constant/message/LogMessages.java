@@ -22,4 +22,5 @@ public class LogMessages {
     public static final String RESOURCE_NOT_FOUND = "{} {} is not found";
     public static final String SEARCH_SKIPPED = "{} id is null. So findById method is skipped";
     public static final String CALCULATE_STATISTICS = "calculateStatistics";
+    public static final String SYNCHRONIZATION_FAILED = "{} {} could not be synchronized. Exception: {}";
 }
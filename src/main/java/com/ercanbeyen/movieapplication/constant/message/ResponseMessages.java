@@ -5,4 +5,10 @@ public class ResponseMessages {
     public static final String NOT_FOUND = "%s is not found";
     public static final String ALREADY_EXISTS = "%s already exists";
     public static final String FORBIDDEN = "You are not authorized";
+    public static final String INVALID_CURSOR = "Cursor is invalid";
+    public static final String CURSOR_SORT_MISMATCH = "Cursor does not belong to the requested sort";
+    public static final String CURSOR_ORDER_BY_UNSUPPORTED = "Cursor cannot be combined with ordering by movie count";
+    public static final String CSV_HEADER_MISSING = "CSV header is missing";
+    public static final String CSV_HEADER_INCOMPLETE = "CSV header should contain %s";
+    public static final String ACCEPTED = "Request is accepted and will be processed asynchronously";
 }
@@ -8,4 +8,5 @@ public class ResourceNames {
     public static final String AUDIENCE = "Audience";
     public static final String ROLE = "Role";
     public static final String RATING = "Rating";
+    public static final String MOVIE_DOCUMENT = "MovieDocument";
 }
@@ -39,8 +39,8 @@ public class ActorController {
 
     @LogExecutionTime
     @GetMapping({"", "/filter"})
-    public ResponseEntity<?> getActors(ActorFilteringOptions actorFilteringOptions, @RequestParam(required = false) OrderBy orderBy, @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) String limit, Pageable pageable) {
-        PageDto<Actor, ActorDto> actorDtoPage = actorService.getActors(actorFilteringOptions, orderBy, limit, pageable);
+    public ResponseEntity<?> getActors(ActorFilteringOptions actorFilteringOptions, @RequestParam(required = false) OrderBy orderBy, @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) String limit, Pageable pageable, @RequestParam(required = false) String after) {
+        PageDto<Actor, ActorDto> actorDtoPage = actorService.getActors(actorFilteringOptions, orderBy, limit, pageable, after);
         List<?> partialData = ResponseHandler.getFilteredPartialDataFromList(actorDtoPage.getContent(), FieldNames.MOVIES_PLAYED, FieldNames.BIOGRAPHY);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, partialData);
     }
@@ -81,8 +81,8 @@ public class ActorController {
     }
 
     @GetMapping("/statistics")
-    public ResponseEntity<?> calculateStatistics() {
-        Statistics<String, String> statistics = actorService.calculateStatistics();
+    public ResponseEntity<?> calculateStatistics(@RequestParam(required = false, defaultValue = "false") boolean approximate) {
+        Statistics<String, String> statistics = approximate ? actorService.calculateApproximateStatistics() : actorService.calculateStatistics();
         return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
     }
 
@@ -1,32 +1,43 @@
 package com.ercanbeyen.movieapplication.controller;
 
 import com.ercanbeyen.movieapplication.annotation.SelfAuthentication;
+import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
 import com.ercanbeyen.movieapplication.dto.AudienceDto;
+import com.ercanbeyen.movieapplication.dto.MovieDto;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.RatingDto;
+import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateAudienceRequest;
 import com.ercanbeyen.movieapplication.entity.Audience;
+import com.ercanbeyen.movieapplication.entity.Rating;
 import com.ercanbeyen.movieapplication.service.AudienceService;
+import com.ercanbeyen.movieapplication.service.MovieService;
 import com.ercanbeyen.movieapplication.util.ResponseHandler;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.validator.constraints.Range;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/audiences")
 @RequiredArgsConstructor
+@Validated
 public class AudienceController {
     private final AudienceService audienceService;
+    private final MovieService movieService;
 
     @GetMapping
-    public ResponseEntity<?> getAudiences(Pageable pageable) {
-        PageDto<Audience, AudienceDto> audienceDtoPage = audienceService.getAudiences(pageable);
+    public ResponseEntity<?> getAudiences(Pageable pageable, @RequestParam(required = false) String after) {
+        PageDto<Audience, AudienceDto> audienceDtoPage = audienceService.getAudiences(pageable, after);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, audienceDtoPage);
     }
 
@@ -36,6 +47,31 @@ public class AudienceController {
         return ResponseHandler.generateResponse(HttpStatus.OK, null, audienceDto);
     }
 
+    @GetMapping("/{id}/ratings")
+    public ResponseEntity<?> getRatingsOfAudience(@PathVariable Integer id, Pageable pageable, @RequestParam(required = false) String after) {
+        PageDto<Rating, RatingDto> ratingPageDto = audienceService.getRatingsOfAudience(id, pageable, after);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, ratingPageDto);
+    }
+
+    @SelfAuthentication
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<?> getRecommendedMovies(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Integer id,
+            @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) @Range(
+                    min = 1,
+                    max = DefaultValues.MAXIMUM_NUMBER_OF_IDS,
+                    message = "Limit should be between {min} and {max}") Integer limit) {
+        List<MovieDto> movieDtoList = movieService.getRecommendedMovies(id, limit);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
+    }
+
+    @GetMapping("/recommendations/statistics")
+    public ResponseEntity<?> getRecommendationStatistics() {
+        Statistics<String, String> statistics = movieService.getRecommendationStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
     @GetMapping("/find")
     public ResponseEntity<?> getAudience(@RequestParam(name = "user") String username) {
         AudienceDto audienceDto = audienceService.getAudience(username);
@@ -86,8 +86,8 @@ public class CinemaController {
     }
 
     @GetMapping("/statistics")
-    public ResponseEntity<?> getStatistics() {
-        Statistics<String, String> statistics = cinemaService.calculateStatistics();
+    public ResponseEntity<?> getStatistics(@RequestParam(required = false, defaultValue = "false") boolean approximate) {
+        Statistics<String, String> statistics = approximate ? cinemaService.calculateApproximateStatistics() : cinemaService.calculateStatistics();
         return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
     }
 
@@ -35,8 +35,8 @@ public class DirectorController {
 
     @LogExecutionTime
     @GetMapping({"", "/filter"})
-    public ResponseEntity<?> getDirectors(DirectorFilteringOptions filteringOptions, @RequestParam(required = false) OrderBy orderBy, @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) String limit, Pageable pageable) {
-        PageDto<Director, DirectorDto> directorDtoPage = directorService.getDirectors(filteringOptions, orderBy, limit, pageable);
+    public ResponseEntity<?> getDirectors(DirectorFilteringOptions filteringOptions, @RequestParam(required = false) OrderBy orderBy, @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) String limit, Pageable pageable, @RequestParam(required = false) String after) {
+        PageDto<Director, DirectorDto> directorDtoPage = directorService.getDirectors(filteringOptions, orderBy, limit, pageable, after);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, directorDtoPage);
     }
 
@@ -71,8 +71,8 @@ public class DirectorController {
     }
 
     @GetMapping("/statistics")
-    public ResponseEntity<?> calculateStatistics() {
-        Statistics<String, String> statistics = directorService.calculateStatistics();
+    public ResponseEntity<?> calculateStatistics(@RequestParam(required = false, defaultValue = "false") boolean approximate) {
+        Statistics<String, String> statistics = approximate ? directorService.calculateApproximateStatistics() : directorService.calculateStatistics();
         return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
     }
 
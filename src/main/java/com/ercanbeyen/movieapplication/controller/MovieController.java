@@ -3,26 +3,44 @@ package com.ercanbeyen.movieapplication.controller;
 import com.ercanbeyen.movieapplication.annotation.DMLAllowed;
 import com.ercanbeyen.movieapplication.annotation.LogExecutionTime;
 import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
+import com.ercanbeyen.movieapplication.constant.enums.DataFormat;
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.document.MovieDocument;
 import com.ercanbeyen.movieapplication.dto.MovieDto;
+import com.ercanbeyen.movieapplication.dto.MovieImportReport;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.RatingHistogramDto;
+import com.ercanbeyen.movieapplication.dto.SearchHitDto;
 import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.dto.request.create.CreateMovieRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateMovieRequest;
 import com.ercanbeyen.movieapplication.entity.Movie;
 import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
+import com.ercanbeyen.movieapplication.service.MovieExportService;
+import com.ercanbeyen.movieapplication.service.MovieImportService;
+import com.ercanbeyen.movieapplication.service.MovieSearchService;
 import com.ercanbeyen.movieapplication.service.MovieService;
+import com.ercanbeyen.movieapplication.service.RatingIngestionService;
+import com.ercanbeyen.movieapplication.service.RatingUpdateService;
 import com.ercanbeyen.movieapplication.util.ResponseHandler;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.validator.constraints.Range;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -31,6 +49,11 @@ import java.util.List;
 @Validated
 public class MovieController {
     private final MovieService movieService;
+    private final MovieSearchService movieSearchService;
+    private final MovieImportService movieImportService;
+    private final MovieExportService movieExportService;
+    private final RatingIngestionService ratingIngestionService;
+    private final RatingUpdateService ratingUpdateService;
 
     @DMLAllowed
     @PostMapping
@@ -41,14 +64,38 @@ public class MovieController {
 
     @LogExecutionTime
     @GetMapping({"", "/filter"})
-    public ResponseEntity<?> getMovies(MovieFilteringOptions movieFilteringOptions, @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) String limit, Pageable pageable) {
-        PageDto<Movie, MovieDto> movieDtoPage = movieService.getMovies(movieFilteringOptions, limit, pageable);
+    public ResponseEntity<?> getMovies(MovieFilteringOptions movieFilteringOptions, @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) String limit, Pageable pageable, @RequestParam(required = false) String after) {
+        PageDto<Movie, MovieDto> movieDtoPage = movieService.getMovies(movieFilteringOptions, limit, pageable, after);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoPage);
     }
 
+    @DMLAllowed
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<?> importMovies(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream inputStream) throws IOException {
+        MovieImportReport report = movieImportService.importMovies(inputStream, DataFormat.of(contentType));
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, report);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMovies(@RequestParam(required = false, defaultValue = "NDJSON") DataFormat format) {
+        StreamingResponseBody responseBody = outputStream -> movieExportService.exportMovies(outputStream, format);
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=movies." + format.name().toLowerCase())
+                .body(responseBody);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<?> getMovies(@RequestParam @Size(max = DefaultValues.MAXIMUM_NUMBER_OF_IDS, message = "At most {max} ids can be requested") List<Integer> ids) {
+        List<MovieDto> movieDtoList = movieService.getMovies(ids);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getMovie(@PathVariable Integer id) {
         MovieDto movieDto = movieService.getMovie(id);
+        movieService.recordView(movieDto);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDto);
     }
 
@@ -67,18 +114,89 @@ public class MovieController {
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<?> getLatestMovies() {
-        List<MovieDto> movieDtoList = movieService.getLatestMovies();
+    public ResponseEntity<?> getLatestMovies(Pageable pageable) {
+        List<MovieDto> movieDtoList = movieService.getLatestMovies(pageable);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
 
     }
 
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopMovies(
+            @RequestParam(required = false) Genre genre,
+            @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) @Range(
+                    min = 1,
+                    max = DefaultValues.MAXIMUM_NUMBER_OF_IDS,
+                    message = "Limit should be between {min} and {max}") Integer limit) {
+        List<MovieDto> movieDtoList = movieService.getTopMovies(genre, limit);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
+    }
+
+    @DMLAllowed
+    @PostMapping("/top/rebuild")
+    public ResponseEntity<?> rebuildTopMovies() {
+        String message = movieService.rebuildTopMovies();
+        return ResponseHandler.generateResponse(HttpStatus.OK, message, null);
+    }
+
+    @GetMapping("/top/statistics")
+    public ResponseEntity<?> getLeaderboardStatistics() {
+        Statistics<String, String> statistics = movieService.getLeaderboardStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarMovies(
+            @PathVariable Integer id,
+            @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) @Range(
+                    min = 1,
+                    max = DefaultValues.MAXIMUM_NUMBER_OF_IDS,
+                    message = "Limit should be between {min} and {max}") Integer limit) {
+        List<MovieDto> movieDtoList = movieService.getSimilarMovies(id, limit);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
+    }
+
+    @GetMapping("/similar/statistics")
+    public ResponseEntity<?> getSimilarityIndexStatistics() {
+        Statistics<String, String> statistics = movieService.getSimilarityIndexStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingMovies(
+            @RequestParam(required = false) Genre genre,
+            @RequestParam(required = false, defaultValue = DefaultValues.DEFAULT_LIMIT_VALUE) @Range(
+                    min = 1,
+                    max = DefaultValues.MAXIMUM_NUMBER_OF_IDS,
+                    message = "Limit should be between {min} and {max}") Integer limit) {
+        List<MovieDto> movieDtoList = movieService.getTrendingMovies(genre, limit);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
+    }
+
+    @GetMapping("/trending/statistics")
+    public ResponseEntity<?> getTrendingStatistics() {
+        Statistics<String, String> statistics = movieService.getTrendingStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<?> searchMovies(@RequestParam String title) {
         List<MovieDto> movieDtoList = movieService.searchMovies(title);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDtoList);
     }
 
+    @GetMapping("/full-text")
+    public ResponseEntity<?> searchMoviesByText(@RequestParam("query") String text, Pageable pageable) {
+        List<SearchHitDto<MovieDocument, MovieDocument>> searchHits = movieSearchService.searchMovies(text, pageable);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, searchHits);
+    }
+
+    @DMLAllowed
+    @PostMapping("/full-text/reindex")
+    public ResponseEntity<?> reindexMovies() {
+        String message = movieSearchService.reindexMovies();
+        return ResponseHandler.generateResponse(HttpStatus.OK, message, null);
+    }
+
     @GetMapping("/find")
     public ResponseEntity<?> getMovie(@RequestParam(name = "imdb") String imdbId) {
         MovieDto movieDto = movieService.getMovie(imdbId);
@@ -89,14 +207,31 @@ public class MovieController {
     public ResponseEntity<?> rateMovie(
             @PathVariable Integer id,
             @RequestParam @Range(
-                    min = 1,
-                    max = 5,
+                    min = DefaultValues.MINIMUM_RATE,
+                    max = DefaultValues.MAXIMUM_RATE,
                     message = "Rate should be between {min} and {max}") Double rate,
+            @RequestParam(required = false, defaultValue = "false") boolean async,
             @AuthenticationPrincipal UserDetails userDetails) {
+        if (async && ratingIngestionService.isEnabled()) {
+            String message = ratingIngestionService.submitRating(id, rate, userDetails);
+            return ResponseHandler.generateResponse(HttpStatus.ACCEPTED, message, null);
+        }
+
         MovieDto movieDto = movieService.rateMovie(id, rate, userDetails);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, movieDto);
     }
 
+    @GetMapping(value = "/ratings/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getRatingUpdates(@RequestParam @Size(max = DefaultValues.MAXIMUM_NUMBER_OF_IDS, message = "At most {max} ids can be subscribed") List<Integer> ids) {
+        return ratingUpdateService.subscribe(ids);
+    }
+
+    @GetMapping("/{id}/ratings/histogram")
+    public ResponseEntity<?> getRatingHistogram(@PathVariable Integer id) {
+        RatingHistogramDto ratingHistogramDto = movieService.getRatingHistogram(id);
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, ratingHistogramDto);
+    }
+
     @DeleteMapping("/{id}/ratings")
     public ResponseEntity<?> deleteRatingOfMovie(@PathVariable Integer id, @RequestParam(name = "audience") Integer audienceId) {
         MovieDto movieDto = movieService.deleteRatingOfMovie(id, audienceId);
@@ -104,8 +239,20 @@ public class MovieController {
     }
 
     @GetMapping("/statistics")
-    public ResponseEntity<?> getStatistics() {
-        Statistics<String, String> statistics = movieService.calculateStatistics();
+    public ResponseEntity<?> getStatistics(@RequestParam(required = false, defaultValue = "false") boolean approximate) {
+        Statistics<String, String> statistics = approximate ? movieService.calculateApproximateStatistics() : movieService.calculateStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
+    @GetMapping("/index/statistics")
+    public ResponseEntity<?> getCatalogIndexStatistics() {
+        Statistics<String, String> statistics = movieService.getCatalogIndexStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
+    @GetMapping("/imdb-filter/statistics")
+    public ResponseEntity<?> getImdbIdFilterStatistics() {
+        Statistics<String, String> statistics = movieService.getImdbIdFilterStatistics();
         return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
     }
 
@@ -2,8 +2,11 @@ package com.ercanbeyen.movieapplication.controller;
 
 import com.ercanbeyen.movieapplication.dto.PageDto;
 import com.ercanbeyen.movieapplication.dto.RatingDto;
+import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.entity.Rating;
+import com.ercanbeyen.movieapplication.service.RatingIngestionService;
 import com.ercanbeyen.movieapplication.service.RatingService;
+import com.ercanbeyen.movieapplication.service.RatingUpdateService;
 import com.ercanbeyen.movieapplication.util.ResponseHandler;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -16,13 +19,27 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class RatingController {
     private final RatingService ratingService;
+    private final RatingIngestionService ratingIngestionService;
+    private final RatingUpdateService ratingUpdateService;
 
     @GetMapping
-    public ResponseEntity<?> getRatings(Pageable pageable) {
-        PageDto<Rating, RatingDto> ratingPageDto = ratingService.getRatings(pageable);
+    public ResponseEntity<?> getRatings(Pageable pageable, @RequestParam(required = false) String after) {
+        PageDto<Rating, RatingDto> ratingPageDto = ratingService.getRatings(pageable, after);
         return ResponseHandler.generateResponse(HttpStatus.OK, null, ratingPageDto);
     }
 
+    @GetMapping("/ingestion/statistics")
+    public ResponseEntity<?> getIngestionStatistics() {
+        Statistics<String, String> statistics = ratingIngestionService.getStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
+    @GetMapping("/live/statistics")
+    public ResponseEntity<?> getLiveUpdateStatistics() {
+        Statistics<String, String> statistics = ratingUpdateService.getStatistics();
+        return ResponseHandler.generateResponse(HttpStatus.OK, null, statistics);
+    }
+
     @GetMapping("/find")
     public ResponseEntity<?> getRating(@RequestParam(name = "movie") Integer movieId, @RequestParam(name = "audience") Integer audienceId) {
         RatingDto ratingDto = ratingService.getRating(movieId, audienceId);
@@ -0,0 +1,34 @@
+package com.ercanbeyen.movieapplication.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "movie")
+public class MovieDocument {
+    @Id
+    private Integer id;
+    @Field(type = FieldType.Text)
+    private String title;
+    @Field(type = FieldType.Text)
+    private String summary;
+    @Field(type = FieldType.Keyword)
+    private String language;
+    @Field(type = FieldType.Keyword)
+    private String genre;
+    @Field(type = FieldType.Text)
+    private String directorName;
+    @Field(type = FieldType.Text)
+    private List<String> actorNames;
+}
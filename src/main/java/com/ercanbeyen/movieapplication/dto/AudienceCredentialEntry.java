@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record AudienceCredentialEntry(String username, String password, String roleName) {
+
+}
@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record MovieActorEntry(Integer movieId, Integer actorId) {
+
+}
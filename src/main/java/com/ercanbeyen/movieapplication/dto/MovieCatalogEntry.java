@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+
+public record MovieCatalogEntry(Integer id, Genre genre, String language, Integer releaseYear) {
+
+}
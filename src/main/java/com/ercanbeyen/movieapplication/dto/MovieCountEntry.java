@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record MovieCountEntry(Integer id, Long movieCount) {
+
+}
@@ -0,0 +1,9 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+
+public record MovieExportEntry(
+        Integer id, String imdbId, String title, String language, Integer releaseYear,
+        Double averageRating, Genre genre, String summary, Integer directorId) {
+
+}
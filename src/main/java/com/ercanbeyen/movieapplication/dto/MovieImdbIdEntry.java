@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record MovieImdbIdEntry(Integer id, String imdbId) {
+
+}
@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import java.util.List;
+
+public record MovieImportReport(long total, long imported, long skipped, List<MovieImportResult> results) {
+
+}
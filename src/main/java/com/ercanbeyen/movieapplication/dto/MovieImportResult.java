@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import com.ercanbeyen.movieapplication.constant.enums.ImportStatus;
+
+public record MovieImportResult(long row, String imdbId, ImportStatus status, String message) {
+
+}
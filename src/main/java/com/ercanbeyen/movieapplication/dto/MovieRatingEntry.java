@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+
+public record MovieRatingEntry(Integer id, Genre genre, Double ratingSum, Long ratingCount) {
+
+}
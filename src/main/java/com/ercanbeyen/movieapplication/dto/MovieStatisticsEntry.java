@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record MovieStatisticsEntry(Integer id, String title, Double averageRating, long ratingCount, String language) {
+
+}
@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record MovieTitleEntry(Integer id, String title, Double averageRating) {
+
+}
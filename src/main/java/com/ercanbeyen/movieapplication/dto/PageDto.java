@@ -1,10 +1,13 @@
 package com.ercanbeyen.movieapplication.dto;
 
+import com.ercanbeyen.movieapplication.util.CursorUtil;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.util.List;
 
@@ -13,11 +16,12 @@ import java.util.List;
 @AllArgsConstructor
 public class PageDto<T, V> {
     private List<V> content;
-    private int pageNumber;
+    private Integer pageNumber;
     private int pageSize;
     private Sort sort;
-    private int totalPage;
+    private Integer totalPage;
     private Long totalElements;
+    private String next;
 
     public PageDto(Page<T> page, List<V> content) {
         this.content = content;
@@ -28,5 +32,12 @@ public class PageDto<T, V> {
         this.totalElements = page.getTotalElements();
     }
 
+    public PageDto(Window<T> window, Pageable pageable, List<V> content) {
+        this.content = content;
+        this.pageSize = pageable.getPageSize();
+        this.sort = pageable.getSort();
+        this.next = CursorUtil.encode(window, pageable.getSort());
+    }
+
 
 }
@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record RatingAggregate(Double ratingSum, Long ratingCount, Double averageRating) {
+
+}
@@ -1,5 +1,7 @@
 package com.ercanbeyen.movieapplication.dto;
 
-public record RatingDto(Integer id, Double rate, Integer movieId, Integer audienceId) {
+import java.time.Instant;
+
+public record RatingDto(Integer id, Double rate, Instant ratedAt, Integer movieId, Integer audienceId) {
 
 }
@@ -0,0 +1,5 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record RatingEntry(Integer id, Integer movieId, Integer audienceId, Double rate) {
+
+}
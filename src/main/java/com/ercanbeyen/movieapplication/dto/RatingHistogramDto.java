@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import java.util.Map;
+
+public record RatingHistogramDto(Integer movieId, Map<Integer, Long> buckets, Long total) {
+
+}
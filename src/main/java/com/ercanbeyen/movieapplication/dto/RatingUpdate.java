@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import java.time.Instant;
+
+public record RatingUpdate(Integer movieId, Double averageRating, Long ratingCount, Instant updatedAt) {
+
+}
@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+public record RatingUpsertResult(Integer ratingId, Double previousRate) {
+    public boolean isCreated() {
+        return previousRate == null;
+    }
+}
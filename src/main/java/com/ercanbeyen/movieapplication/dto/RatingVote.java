@@ -0,0 +1,7 @@
+package com.ercanbeyen.movieapplication.dto;
+
+import java.time.Instant;
+
+public record RatingVote(Long pendingId, Integer movieId, Integer audienceId, Double rate, Instant acceptedAt) {
+
+}
@@ -0,0 +1,31 @@
+package com.ercanbeyen.movieapplication.dto.converter;
+
+import com.ercanbeyen.movieapplication.document.MovieDocument;
+import com.ercanbeyen.movieapplication.entity.Base;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import org.springframework.stereotype.Component;
+
+@Component
+public class MovieDocumentConverter {
+    public MovieDocument convert(Movie movie) {
+        String directorName = (movie.getDirector() == null) ? null : getFullName(movie.getDirector());
+        String genre = (movie.getGenre() == null) ? null : movie.getGenre().name();
+
+        return MovieDocument.builder()
+                .id(movie.getId())
+                .title(movie.getTitle())
+                .summary(movie.getSummary())
+                .language(movie.getLanguage())
+                .genre(genre)
+                .directorName(directorName)
+                .actorNames(movie.getActors()
+                        .stream()
+                        .map(this::getFullName)
+                        .toList())
+                .build();
+    }
+
+    private String getFullName(Base person) {
+        return person.getName() + " " + person.getSurname();
+    }
+}
@@ -13,6 +13,7 @@ public class RatingDtoConverter {
         return new RatingDto(
                 rating.getId(),
                 rating.getRate(),
+                rating.getRatedAt(),
                 rating.getMovie().getId(),
                 audienceId
         );
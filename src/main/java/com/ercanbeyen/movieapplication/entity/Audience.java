@@ -35,10 +35,6 @@ public non-sealed class Audience extends Base implements UserDetails {
             inverseJoinColumns = {@JoinColumn(name = "role_id")}
     )
     private Set<Role> roles;
-    @Setter
-    @Getter
-    @OneToMany(mappedBy = "audience", fetch = FetchType.EAGER, cascade = CascadeType.MERGE)
-    private List<Rating> ratings = new ArrayList<>();
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -77,10 +73,6 @@ public non-sealed class Audience extends Base implements UserDetails {
 
     @Override
     public String toString() {
-        List<Integer> ratingIdList = ratings.stream()
-                .map(Rating::getId)
-                .toList();
-
         List<String> roleNameList = roles.stream()
                 .map(Role::getRoleName)
                 .toList();
@@ -91,7 +83,6 @@ public non-sealed class Audience extends Base implements UserDetails {
                 ", name='" + getName() + '\'' +
                 ", surname='" + getSurname() + '\'' +
                 ", roles=" + roleNameList +
-                ", ratings=" + ratingIdList +
                 '}';
     }
 }
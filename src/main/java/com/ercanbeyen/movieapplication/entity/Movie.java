@@ -17,7 +17,15 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "movies")
+@Table(
+        name = "movies",
+        uniqueConstraints = @UniqueConstraint(name = "uk_movies_imdb_id", columnNames = "imdbId"),
+        indexes = {
+                @Index(name = "idx_movies_genre", columnList = "genre"),
+                @Index(name = "idx_movies_language", columnList = "language"),
+                @Index(name = "idx_movies_release_year", columnList = "releaseYear")
+        }
+)
 public class Movie implements Serializable {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,7 +34,13 @@ public class Movie implements Serializable {
     private String title;
     private String language;
     private Integer releaseYear;
+    /* Rating aggregates are only changed by atomic increments in MovieRepository, never by saving the entity */
+    @Column(updatable = false)
     private Double averageRating;
+    @Column(updatable = false)
+    private double ratingSum;
+    @Column(updatable = false)
+    private long ratingCount;
     @Enumerated(EnumType.STRING)
     private Genre genre;
     private String summary;
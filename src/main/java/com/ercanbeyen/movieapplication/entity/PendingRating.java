@@ -0,0 +1,23 @@
+package com.ercanbeyen.movieapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "pending_ratings")
+public class PendingRating {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private Integer movieId;
+    private Integer audienceId;
+    private Double rate;
+    private Instant acceptedAt;
+}
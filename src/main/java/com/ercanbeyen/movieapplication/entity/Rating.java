@@ -3,8 +3,13 @@ package com.ercanbeyen.movieapplication.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
+
 @Entity
-@Table(name = "ratings")
+@Table(
+        name = "ratings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ratings_movie_audience", columnNames = {"movie_id", "audience_id"}),
+        indexes = @Index(name = "idx_ratings_audience_id", columnList = "audience_id, id"))
 @Getter
 @Setter
 @RequiredArgsConstructor
@@ -14,6 +19,7 @@ public class Rating {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer id;
     private Double rate;
+    private Instant ratedAt;
     @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.REFRESH)
     private Movie movie;
     @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.REFRESH)
@@ -24,6 +30,7 @@ public class Rating {
         return "Rating{" +
                 "id=" + id +
                 ", rate=" + rate +
+                ", ratedAt=" + ratedAt +
                 ", movie=" + movie.getId() +
                 ", audience=" + audience.getId() +
                 '}';
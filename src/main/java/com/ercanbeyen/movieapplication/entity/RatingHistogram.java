@@ -0,0 +1,25 @@
+package com.ercanbeyen.movieapplication.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "rating_histograms",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rating_histograms_movie_bucket", columnNames = {"movie_id", "bucket"})
+)
+public class RatingHistogram {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "movie_id", nullable = false)
+    private Integer movieId;
+    @Column(name = "bucket", nullable = false)
+    private Integer bucket;
+    @Column(name = "rating_count", nullable = false)
+    private Long ratingCount;
+}
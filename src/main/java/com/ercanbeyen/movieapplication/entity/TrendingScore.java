@@ -0,0 +1,22 @@
+package com.ercanbeyen.movieapplication.entity;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+    @Id
+    private Integer movieId;
+    @Enumerated(EnumType.STRING)
+    private Genre genre;
+    private Double score;
+    private Instant checkpointedAt;
+}
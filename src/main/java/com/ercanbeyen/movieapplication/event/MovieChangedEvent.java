@@ -0,0 +1,67 @@
+package com.ercanbeyen.movieapplication.event;
+
+import com.ercanbeyen.movieapplication.constant.enums.MovieChangeType;
+import com.ercanbeyen.movieapplication.entity.Actor;
+import com.ercanbeyen.movieapplication.entity.Movie;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/*
+ * Published by every movie write and delivered to the indexes and trackers after the transaction commits. Features are
+ * captured while the transaction is open, so listeners neither load the cast lazily nor keep a copy of the previous
+ * state: an update carries the features before and after the change, a delete the features of the deleted movie.
+ */
+public record MovieChangedEvent(MovieChangeType type, List<Change> changes) {
+    public static MovieChangedEvent created(Collection<Movie> movies) {
+        /* Created and imported movies have no cast yet */
+        return new MovieChangedEvent(MovieChangeType.CREATED, movies.stream()
+                .map(movie -> new Change(movie, null, new Features(movie.getLanguage(), null, Set.of()), 0, 0))
+                .toList());
+    }
+
+    public static MovieChangedEvent updated(Movie movie, Features previousFeatures) {
+        return new MovieChangedEvent(MovieChangeType.UPDATED, List.of(new Change(movie, previousFeatures, Features.of(movie), 0, 0)));
+    }
+
+    public static MovieChangedEvent deleted(Movie movie) {
+        return new MovieChangedEvent(MovieChangeType.DELETED, List.of(new Change(movie, Features.of(movie), null, 0, 0)));
+    }
+
+    public static MovieChangedEvent rated(Movie movie, long votes, long ratingCountDifference) {
+        return rated(List.of(Change.rated(movie, votes, ratingCountDifference)));
+    }
+
+    public static MovieChangedEvent rated(List<Change> changes) {
+        return new MovieChangedEvent(MovieChangeType.RATED, changes);
+    }
+
+    /* Votes are the ratings recorded for trending, the rating count difference tells whether the movie was rated before */
+    public record Change(Movie movie, Features previousFeatures, Features features, long votes, long ratingCountDifference) {
+        public static Change rated(Movie movie, long votes, long ratingCountDifference) {
+            return new Change(movie, null, null, votes, ratingCountDifference);
+        }
+
+        public boolean wasRated() {
+            return movie.getRatingCount() - ratingCountDifference > 0;
+        }
+
+        public boolean isRated() {
+            return movie.getRatingCount() > 0 && movie.getAverageRating() != null;
+        }
+    }
+
+    public record Features(String language, Integer directorId, Set<Integer> actorIds) {
+        public static Features of(Movie movie) {
+            Integer directorId = (movie.getDirector() == null) ? null : movie.getDirector().getId();
+            Set<Integer> actorIds = (movie.getActors() == null) ? Set.of() : movie.getActors()
+                    .stream()
+                    .map(Actor::getId)
+                    .collect(Collectors.toSet());
+
+            return new Features(movie.getLanguage(), directorId, actorIds);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.MovieImdbIdEntry;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/*
+ * Bloom filter over every stored imdbId, used to skip the database lookup of ids that were never stored.
+ * Since the filter lives in one process, a write that skips the lookup still relies on the unique constraint.
+ * Ids written by this node are added before commit, since a rolled back write only costs a false positive.
+ * Ids written by other nodes are picked up by a periodic refresh of the newest movies, and deleted or
+ * reassigned ids are dropped by the periodic rebuild.
+ */
+@Component
+@Slf4j
+public class ImdbIdFilter {
+    private static final String FILTER = "ImdbIdFilter";
+    private static final int REFRESH_BATCH_SIZE = 1_000;
+    /* Ids are assigned before commit, so the refresh looks behind the newest id for transactions that committed late */
+    private static final int REFRESH_OVERLAP = 1_000;
+
+    private final MovieRepository movieRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+
+    private volatile BitArray bits;
+    private volatile BitArray pendingBits;
+    private volatile boolean ready;
+    private volatile int refreshedMovieId;
+    private final Object lock = new Object();
+    private final AtomicLong definiteNegatives = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    public ImdbIdFilter(MovieRepository movieRepository,
+                        @Value("${movie.imdb-id-filter.enabled:false}") boolean enabled,
+                        @Value("${movie.imdb-id-filter.expected-insertions:1000000}") long expectedInsertions,
+                        @Value("${movie.imdb-id-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        this.movieRepository = movieRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${movie.imdb-id-filter.rebuild-interval:3600000}", initialDelayString = "${movie.imdb-id-filter.rebuild-interval:3600000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("{} is disabled", FILTER);
+            return;
+        }
+
+        log.info(LogMessages.STARTED, "rebuild");
+        BitArray newBits = new BitArray(expectedInsertions, falsePositiveProbability);
+        int maximumMovieId = movieRepository.findMaximumId();
+
+        synchronized (lock) {
+            pendingBits = newBits;
+        }
+
+        try (Stream<String> imdbIds = movieRepository.streamImdbIds()) {
+            imdbIds.forEach(newBits::put);
+
+            synchronized (lock) {
+                bits = newBits;
+            }
+        } finally {
+            synchronized (lock) {
+                pendingBits = null;
+            }
+        }
+
+        refreshedMovieId = Math.max(refreshedMovieId, maximumMovieId);
+        ready = true;
+        definiteNegatives.set(0);
+        falsePositives.set(0);
+
+        log.info("{} is rebuilt with {} ids, memory footprint is {} bytes", FILTER, newBits.count.get(), newBits.getMemoryFootprint());
+    }
+
+    @Scheduled(fixedDelayString = "${movie.imdb-id-filter.refresh-interval:5000}", initialDelayString = "${movie.imdb-id-filter.refresh-interval:5000}")
+    public void refresh() {
+        if (!isReady()) {
+            return;
+        }
+
+        int movieId = Math.max(0, refreshedMovieId - REFRESH_OVERLAP);
+        List<MovieImdbIdEntry> entries;
+
+        do {
+            entries = movieRepository.findImdbIdEntriesAfter(movieId, PageRequest.of(0, REFRESH_BATCH_SIZE));
+            entries.forEach(entry -> put(entry.imdbId()));
+
+            if (!entries.isEmpty()) {
+                movieId = entries.get(entries.size() - 1).id();
+            }
+        } while (entries.size() == REFRESH_BATCH_SIZE);
+
+        refreshedMovieId = Math.max(refreshedMovieId, movieId);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /*
+     * Puts are serialized with the swap of a rebuild, so an id is never written only to the bits being replaced
+     */
+    public void put(String imdbId) {
+        if (!enabled || imdbId == null) {
+            return;
+        }
+
+        synchronized (lock) {
+            if (bits != null) {
+                bits.put(imdbId);
+            }
+
+            if (pendingBits != null) {
+                pendingBits.put(imdbId);
+            }
+        }
+    }
+
+    public boolean isDefinitelyAbsent(String imdbId) {
+        if (!isReady() || imdbId == null) {
+            return false;
+        }
+
+        boolean absent = !bits.mightContain(imdbId);
+
+        if (absent) {
+            definiteNegatives.incrementAndGet();
+        }
+
+        return absent;
+    }
+
+    public void recordFalsePositive() {
+        if (isReady()) {
+            falsePositives.incrementAndGet();
+        }
+    }
+
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+        BitArray currentBits = bits;
+
+        statisticsMap.put("enabled", String.valueOf(enabled));
+        statisticsMap.put("ready", String.valueOf(isReady()));
+
+        if (currentBits != null) {
+            long negatives = definiteNegatives.get();
+            long positives = falsePositives.get();
+            double observedRate = (negatives + positives == 0) ? 0 : (double) positives / (negatives + positives);
+
+            statisticsMap.put("approximateInsertions", String.valueOf(currentBits.count.get()));
+            statisticsMap.put("bitSize", String.valueOf(currentBits.bitSize));
+            statisticsMap.put("hashFunctions", String.valueOf(currentBits.hashFunctions));
+            statisticsMap.put("memoryFootprint", String.valueOf(currentBits.getMemoryFootprint()));
+            statisticsMap.put("expectedFalsePositiveRate", String.valueOf(currentBits.getExpectedFalsePositiveRate()));
+            statisticsMap.put("definiteNegatives", String.valueOf(negatives));
+            statisticsMap.put("falsePositives", String.valueOf(positives));
+            statisticsMap.put("observedFalsePositiveRate", String.valueOf(observedRate));
+        }
+
+        return new Statistics<>(FILTER, statisticsMap);
+    }
+
+    private static final class BitArray {
+        private final AtomicLongArray words;
+        private final long bitSize;
+        private final int hashFunctions;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong bitCount = new AtomicLong();
+
+        private BitArray(long expectedInsertions, double falsePositiveProbability) {
+            long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+            int words = (int) Math.max(1, (size + Long.SIZE - 1) / Long.SIZE);
+
+            this.words = new AtomicLongArray(words);
+            this.bitSize = (long) words * Long.SIZE;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        }
+
+        private void put(String imdbId) {
+            long hash = hash(imdbId);
+            int firstHash = (int) hash;
+            int secondHash = (int) (hash >>> 32);
+            boolean changed = false;
+
+            for (int i = 1; i <= hashFunctions; i++) {
+                changed |= set(index(firstHash + i * secondHash));
+            }
+
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+
+        private boolean mightContain(String imdbId) {
+            long hash = hash(imdbId);
+            int firstHash = (int) hash;
+            int secondHash = (int) (hash >>> 32);
+
+            for (int i = 1; i <= hashFunctions; i++) {
+                long index = index(firstHash + i * secondHash);
+
+                if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private boolean set(long index) {
+            int wordIndex = (int) (index >>> 6);
+            long mask = 1L << index;
+            long word;
+
+            do {
+                word = words.get(wordIndex);
+
+                if ((word & mask) != 0) {
+                    return false;
+                }
+            } while (!words.compareAndSet(wordIndex, word, word | mask));
+
+            bitCount.incrementAndGet();
+            return true;
+        }
+
+        private long index(int combinedHash) {
+            return (combinedHash & Integer.MAX_VALUE) % bitSize;
+        }
+
+        private double getExpectedFalsePositiveRate() {
+            return Math.pow((double) bitCount.get() / bitSize, hashFunctions);
+        }
+
+        private long getMemoryFootprint() {
+            return (long) words.length() * Long.BYTES;
+        }
+
+        private static long hash(String imdbId) {
+            byte[] bytes = imdbId.getBytes(StandardCharsets.UTF_8);
+            long hash = 0xcbf29ce484222325L;
+
+            for (byte value : bytes) {
+                hash ^= value;
+                hash *= 0x100000001b3L;
+            }
+
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb9fe1a85ec53L;
+            hash ^= hash >>> 33;
+
+            return hash;
+        }
+    }
+}
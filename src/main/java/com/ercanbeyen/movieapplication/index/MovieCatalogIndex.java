@@ -0,0 +1,414 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.MovieCatalogEntry;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Read side index of the movie catalog. Each movie occupies a slot and every filterable column is kept as bitmaps
+ * over slots, so MovieFilteringOptions are answered by bitmap intersection instead of a database query.
+ * Movies created by other nodes are picked up by a periodic refresh of the newest movies, and their updates and
+ * deletions by the periodic rebuild, like ImdbIdFilter.
+ */
+@Component
+@Slf4j
+public class MovieCatalogIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_VALUE = -1;
+    private static final String INDEX = "MovieCatalogIndex";
+    private static final int REFRESH_BATCH_SIZE = 1_000;
+    /* Ids are assigned before commit, so the refresh looks behind the newest id for transactions that committed late */
+    private static final int REFRESH_OVERLAP = 1_000;
+
+    private final MovieRepository movieRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Genre, BitSet> genreBitmaps = new EnumMap<>(Genre.class);
+    private final Map<String, Integer> languageDictionary = new HashMap<>();
+    private final List<BitSet> languageBitmaps = new ArrayList<>();
+    private int[] releaseYears = new int[0];
+    private BitSet[] releaseYearBitmaps = new BitSet[0];
+
+    private final Map<Integer, Integer> slotsByMovieId = new HashMap<>();
+    private final BitSet liveSlots = new BitSet();
+    private int[] movieIdsBySlot = new int[INITIAL_CAPACITY];
+    private byte[] genresBySlot = new byte[INITIAL_CAPACITY];
+    private int[] languageIdsBySlot = new int[INITIAL_CAPACITY];
+    private int[] releaseYearsBySlot = new int[INITIAL_CAPACITY];
+    private int nextSlot;
+    /* Latest state of the movies changed while a rebuild scans the database, a null value is a removal */
+    private Map<Integer, MovieCatalogEntry> rebuildUpdates;
+    private volatile int refreshedMovieId;
+    private volatile boolean ready;
+
+    public MovieCatalogIndex(MovieRepository movieRepository, @Value("${movie.catalog-index.enabled:false}") boolean enabled) {
+        this.movieRepository = movieRepository;
+        this.enabled = enabled;
+    }
+
+    /*
+     * Movies committed while the database is scanned would be lost by the swap, so local changes are recorded
+     * during the scan and replayed over the scanned entries, the way MovieLeaderboard does.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${movie.catalog-index.rebuild-interval:3600000}", initialDelayString = "${movie.catalog-index.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            log.info("{} is disabled", INDEX);
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            if (rebuildUpdates != null) {
+                log.warn("{} is already being rebuilt", INDEX);
+                return;
+            }
+
+            rebuildUpdates = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            log.info(LogMessages.STARTED, "rebuild");
+            int maximumMovieId = movieRepository.findMaximumId();
+            List<MovieCatalogEntry> entries = movieRepository.findCatalogEntries();
+
+            lock.writeLock().lock();
+
+            try {
+                clear();
+                entries.forEach(this::index);
+                rebuildUpdates.forEach((movieId, entry) -> {
+                    if (entry == null) {
+                        unindex(movieId);
+                    } else {
+                        index(entry);
+                    }
+                });
+                refreshedMovieId = Math.max(refreshedMovieId, maximumMovieId);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+
+            try {
+                rebuildUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("{} is rebuilt with {} movies, memory footprint is {} bytes", INDEX, slotsByMovieId.size(), getMemoryFootprint());
+    }
+
+    /* Movies this node already holds are left alone, since the local events are at least as recent as this read */
+    @Scheduled(fixedDelayString = "${movie.catalog-index.refresh-interval:5000}", initialDelayString = "${movie.catalog-index.refresh-interval:5000}")
+    public void refresh() {
+        if (!isReady()) {
+            return;
+        }
+
+        int movieId = Math.max(0, refreshedMovieId - REFRESH_OVERLAP);
+        List<MovieCatalogEntry> entries;
+
+        do {
+            entries = movieRepository.findCatalogEntriesAfter(movieId, PageRequest.of(0, REFRESH_BATCH_SIZE));
+            lock.writeLock().lock();
+
+            try {
+                entries.stream()
+                        .filter(entry -> !slotsByMovieId.containsKey(entry.id()))
+                        .forEach(this::index);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (!entries.isEmpty()) {
+                movieId = entries.get(entries.size() - 1).id();
+            }
+        } while (entries.size() == REFRESH_BATCH_SIZE);
+
+        refreshedMovieId = Math.max(refreshedMovieId, movieId);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void put(Movie movie) {
+        if (!enabled) {
+            return;
+        }
+
+        MovieCatalogEntry entry = new MovieCatalogEntry(movie.getId(), movie.getGenre(), movie.getLanguage(), movie.getReleaseYear());
+        lock.writeLock().lock();
+
+        try {
+            if (rebuildUpdates != null) {
+                rebuildUpdates.put(entry.id(), entry);
+            }
+
+            index(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer movieId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            if (rebuildUpdates != null) {
+                rebuildUpdates.put(movieId, null);
+            }
+
+            unindex(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> event.changes().forEach(change -> put(change.movie()));
+            case DELETED -> event.changes().forEach(change -> remove(change.movie().getId()));
+        }
+    }
+
+    /*
+     * Returns the requested page of matching movie ids in slot order, which follows the insertion order of the catalog.
+     * Only the ids of the page are materialized, the total comes from the cardinality of the result bitmap.
+     */
+    public Page<Integer> findMovieIds(MovieFilteringOptions filteringOptions, Pageable pageable) {
+        lock.readLock().lock();
+
+        try {
+            BitSet result = (BitSet) liveSlots.clone();
+
+            if (filteringOptions.genres() != null && !filteringOptions.genres().isEmpty()) {
+                BitSet genreUnion = new BitSet();
+                filteringOptions.genres().forEach(genre -> {
+                    BitSet genreBitmap = genreBitmaps.get(genre);
+                    if (genreBitmap != null) {
+                        genreUnion.or(genreBitmap);
+                    }
+                });
+                result.and(genreUnion);
+            }
+
+            if (StringUtils.isNotBlank(filteringOptions.language())) {
+                Integer languageId = languageDictionary.get(filteringOptions.language());
+                result.and(languageId == null ? new BitSet() : languageBitmaps.get(languageId));
+            }
+
+            if (filteringOptions.releaseYear() != null) {
+                int position = Arrays.binarySearch(releaseYears, filteringOptions.releaseYear());
+                result.and(position < 0 ? new BitSet() : releaseYearBitmaps[position]);
+            }
+
+            int total = result.cardinality();
+            List<Integer> movieIds = new ArrayList<>(Math.min(pageable.getPageSize(), total));
+            int slot = result.nextSetBit(0);
+
+            for (long skipped = 0; slot >= 0 && skipped < pageable.getOffset(); skipped++) {
+                slot = result.nextSetBit(slot + 1);
+            }
+
+            while (slot >= 0 && movieIds.size() < pageable.getPageSize()) {
+                movieIds.add(movieIdsBySlot[slot]);
+                slot = result.nextSetBit(slot + 1);
+            }
+
+            return new PageImpl<>(movieIds, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getMemoryFootprint() {
+        lock.readLock().lock();
+
+        try {
+            long bytes = bitmapBytes(liveSlots);
+            bytes += genreBitmaps.values().stream().mapToLong(MovieCatalogIndex::bitmapBytes).sum();
+            bytes += languageBitmaps.stream().mapToLong(MovieCatalogIndex::bitmapBytes).sum();
+            bytes += Arrays.stream(releaseYearBitmaps).mapToLong(MovieCatalogIndex::bitmapBytes).sum();
+            bytes += languageDictionary.keySet().stream().mapToLong(language -> 40L + language.length()).sum();
+            bytes += (long) releaseYears.length * Integer.BYTES;
+            bytes += (long) movieIdsBySlot.length * (Integer.BYTES * 3 + Byte.BYTES);
+            bytes += (long) slotsByMovieId.size() * 64; // Map entry with two boxed integers
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+        lock.readLock().lock();
+
+        try {
+            statisticsMap.put("enabled", String.valueOf(enabled));
+            statisticsMap.put("ready", String.valueOf(ready));
+            statisticsMap.put("movieCount", String.valueOf(slotsByMovieId.size()));
+            statisticsMap.put("languageCount", String.valueOf(languageDictionary.size()));
+            statisticsMap.put("releaseYearCount", String.valueOf(releaseYears.length));
+            statisticsMap.put("memoryFootprintBytes", String.valueOf(getMemoryFootprint()));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new Statistics<>(INDEX, statisticsMap);
+    }
+
+    private void index(MovieCatalogEntry entry) {
+        Integer slot = slotsByMovieId.get(entry.id());
+
+        if (slot == null) {
+            slot = nextSlot++;
+            ensureCapacity(nextSlot);
+            slotsByMovieId.put(entry.id(), slot);
+            movieIdsBySlot[slot] = entry.id();
+            liveSlots.set(slot);
+        } else {
+            unsetColumns(slot);
+        }
+
+        Genre genre = entry.genre();
+        genresBySlot[slot] = (genre == null) ? NO_VALUE : (byte) genre.ordinal();
+
+        if (genre != null) {
+            genreBitmaps.computeIfAbsent(genre, key -> new BitSet()).set(slot);
+        }
+
+        int languageId = NO_VALUE;
+
+        if (entry.language() != null) {
+            languageId = languageDictionary.computeIfAbsent(entry.language(), key -> {
+                languageBitmaps.add(new BitSet());
+                return languageBitmaps.size() - 1;
+            });
+            languageBitmaps.get(languageId).set(slot);
+        }
+
+        languageIdsBySlot[slot] = languageId;
+
+        Integer releaseYear = entry.releaseYear();
+        releaseYearsBySlot[slot] = (releaseYear == null) ? NO_VALUE : releaseYear;
+
+        if (releaseYear != null) {
+            releaseYearBitmap(releaseYear).set(slot);
+        }
+    }
+
+    private void unindex(Integer movieId) {
+        Integer slot = slotsByMovieId.remove(movieId);
+
+        if (slot != null) {
+            unsetColumns(slot);
+            liveSlots.clear(slot);
+        }
+    }
+
+    private void unsetColumns(int slot) {
+        if (genresBySlot[slot] != NO_VALUE) {
+            genreBitmaps.get(Genre.values()[genresBySlot[slot]]).clear(slot);
+        }
+
+        if (languageIdsBySlot[slot] != NO_VALUE) {
+            languageBitmaps.get(languageIdsBySlot[slot]).clear(slot);
+        }
+
+        if (releaseYearsBySlot[slot] != NO_VALUE) {
+            int position = Arrays.binarySearch(releaseYears, releaseYearsBySlot[slot]);
+            releaseYearBitmaps[position].clear(slot);
+        }
+    }
+
+    private BitSet releaseYearBitmap(int releaseYear) {
+        int position = Arrays.binarySearch(releaseYears, releaseYear);
+
+        if (position >= 0) {
+            return releaseYearBitmaps[position];
+        }
+
+        int insertionPoint = -position - 1;
+        int[] years = new int[releaseYears.length + 1];
+        BitSet[] bitmaps = new BitSet[releaseYearBitmaps.length + 1];
+
+        System.arraycopy(releaseYears, 0, years, 0, insertionPoint);
+        System.arraycopy(releaseYears, insertionPoint, years, insertionPoint + 1, releaseYears.length - insertionPoint);
+        System.arraycopy(releaseYearBitmaps, 0, bitmaps, 0, insertionPoint);
+        System.arraycopy(releaseYearBitmaps, insertionPoint, bitmaps, insertionPoint + 1, releaseYearBitmaps.length - insertionPoint);
+
+        years[insertionPoint] = releaseYear;
+        bitmaps[insertionPoint] = new BitSet();
+        releaseYears = years;
+        releaseYearBitmaps = bitmaps;
+
+        return bitmaps[insertionPoint];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= movieIdsBySlot.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, movieIdsBySlot.length * 2);
+        movieIdsBySlot = Arrays.copyOf(movieIdsBySlot, newCapacity);
+        genresBySlot = Arrays.copyOf(genresBySlot, newCapacity);
+        languageIdsBySlot = Arrays.copyOf(languageIdsBySlot, newCapacity);
+        releaseYearsBySlot = Arrays.copyOf(releaseYearsBySlot, newCapacity);
+    }
+
+    private void clear() {
+        genreBitmaps.clear();
+        languageDictionary.clear();
+        languageBitmaps.clear();
+        releaseYears = new int[0];
+        releaseYearBitmaps = new BitSet[0];
+        slotsByMovieId.clear();
+        liveSlots.clear();
+        movieIdsBySlot = new int[INITIAL_CAPACITY];
+        genresBySlot = new byte[INITIAL_CAPACITY];
+        languageIdsBySlot = new int[INITIAL_CAPACITY];
+        releaseYearsBySlot = new int[INITIAL_CAPACITY];
+        nextSlot = 0;
+    }
+
+    private static long bitmapBytes(BitSet bitmap) {
+        return bitmap.size() / Byte.SIZE;
+    }
+}
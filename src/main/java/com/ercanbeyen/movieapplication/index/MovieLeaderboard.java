@@ -0,0 +1,312 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.MovieRatingEntry;
+import com.ercanbeyen.movieapplication.dto.RatingAggregate;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/*
+ * Top rated movies kept in Redis sorted sets, one for all movies and one per genre, so they survive restarts and
+ * a page of the ranking is a single range read. Movies are ranked by the Bayesian average
+ * (ratingSum + m * C) / (ratingCount + m), where m is the minimum number of votes and C is the mean vote captured
+ * at the last rebuild, so a handful of high votes cannot outrank a well established rating.
+ */
+@Component
+@Slf4j
+public class MovieLeaderboard {
+    private static final String LEADERBOARD = "MovieLeaderboard";
+    private static final String KEY_PREFIX = "movies:top:";
+    private static final String GLOBAL_KEY = KEY_PREFIX + "all";
+    private static final String PRIOR_RATING_KEY = KEY_PREFIX + "prior-rating";
+    private static final String REBUILD_SUFFIX = ":rebuild";
+    private static final int REBUILD_BATCH_SIZE = 1_000;
+    private static final List<String> KEYS = Stream.concat(Stream.of(GLOBAL_KEY), Arrays.stream(Genre.values()).map(MovieLeaderboard::getKey))
+            .toList();
+
+    private final MovieRepository movieRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final int minimumVotes;
+    private final Object rebuildLock = new Object();
+    /* Latest state of the movies changed while a rebuild scans the database, a null value is a removal */
+    private Map<Integer, LeaderboardEntry> rebuildUpdates;
+    private volatile double priorRating = (DefaultValues.MINIMUM_RATE + DefaultValues.MAXIMUM_RATE) / 2d;
+    private volatile boolean ready;
+
+    public MovieLeaderboard(
+            MovieRepository movieRepository,
+            StringRedisTemplate redisTemplate,
+            @Value("${movie.leaderboard.enabled:false}") boolean enabled,
+            @Value("${movie.leaderboard.minimum-votes:10}") int minimumVotes) {
+        this.movieRepository = movieRepository;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.minimumVotes = minimumVotes;
+    }
+
+    /* The sorted sets are reused after a restart; they are only rebuilt when they have never been built */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!enabled) {
+            log.info("{} is disabled", LEADERBOARD);
+            return;
+        }
+
+        try {
+            String storedPriorRating = redisTemplate.opsForValue().get(PRIOR_RATING_KEY);
+
+            if (storedPriorRating == null) {
+                rebuild();
+                return;
+            }
+
+            priorRating = Double.parseDouble(storedPriorRating);
+            ready = true;
+            log.info("{} is loaded from Redis", LEADERBOARD);
+        } catch (DataAccessException exception) {
+            log.error("{} could not be loaded. Exception: {}", LEADERBOARD, exception.getMessage());
+        }
+    }
+
+    /*
+     * The sorted sets are built under temporary keys and renamed over the live ones. Movies changed while the
+     * database is scanned are recorded and replayed onto the temporary keys right before the rename, so the rebuild
+     * never reverts a newer rating to the one it read.
+     */
+    public void rebuild() {
+        if (!enabled) {
+            log.info("{} is disabled", LEADERBOARD);
+            return;
+        }
+
+        synchronized (rebuildLock) {
+            if (rebuildUpdates != null) {
+                log.warn("{} is already being rebuilt", LEADERBOARD);
+                return;
+            }
+
+            rebuildUpdates = new HashMap<>();
+        }
+
+        try {
+            log.info(LogMessages.STARTED, "rebuild");
+            double newPriorRating = calculatePriorRating();
+            Map<String, List<ZSetOperations.TypedTuple<String>>> tuplesByKey = new HashMap<>();
+
+            for (MovieRatingEntry entry : movieRepository.findRatedMovieEntries()) {
+                ZSetOperations.TypedTuple<String> tuple = ZSetOperations.TypedTuple.of(
+                        String.valueOf(entry.id()), score(entry.ratingSum(), entry.ratingCount(), newPriorRating));
+                tuplesByKey.computeIfAbsent(GLOBAL_KEY, key -> new ArrayList<>()).add(tuple);
+
+                if (entry.genre() != null) {
+                    tuplesByKey.computeIfAbsent(getKey(entry.genre()), key -> new ArrayList<>()).add(tuple);
+                }
+            }
+
+            KEYS.forEach(key -> redisTemplate.delete(key + REBUILD_SUFFIX));
+            tuplesByKey.forEach((key, tuples) -> {
+                for (int i = 0; i < tuples.size(); i += REBUILD_BATCH_SIZE) {
+                    redisTemplate.opsForZSet().add(key + REBUILD_SUFFIX, new HashSet<>(tuples.subList(i, Math.min(i + REBUILD_BATCH_SIZE, tuples.size()))));
+                }
+            });
+
+            synchronized (rebuildLock) {
+                Map<Integer, LeaderboardEntry> updates = rebuildUpdates;
+                redisTemplate.executePipelined(sessionCallback(operations -> updates.forEach((movieId, entry) ->
+                        write(operations, movieId, entry, REBUILD_SUFFIX, newPriorRating))));
+
+                for (String key : KEYS) {
+                    if (Boolean.TRUE.equals(redisTemplate.hasKey(key + REBUILD_SUFFIX))) {
+                        redisTemplate.rename(key + REBUILD_SUFFIX, key);
+                    } else {
+                        redisTemplate.delete(key);
+                    }
+                }
+
+                redisTemplate.opsForValue().set(PRIOR_RATING_KEY, String.valueOf(newPriorRating));
+                priorRating = newPriorRating;
+                ready = true;
+                log.info("{} is rebuilt with {} movies, {} changes are replayed", LEADERBOARD,
+                        tuplesByKey.getOrDefault(GLOBAL_KEY, List.of()).size(), updates.size());
+            }
+        } finally {
+            synchronized (rebuildLock) {
+                rebuildUpdates = null;
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void put(Movie movie) {
+        putAll(List.of(movie));
+    }
+
+    public void putAll(Collection<Movie> movies) {
+        Map<Integer, LeaderboardEntry> entries = new HashMap<>();
+        movies.forEach(movie -> entries.put(movie.getId(), new LeaderboardEntry(movie.getGenre(), movie.getRatingSum(), movie.getRatingCount())));
+        apply(entries);
+    }
+
+    public void remove(Integer movieId) {
+        Map<Integer, LeaderboardEntry> entries = new HashMap<>();
+        entries.put(movieId, null);
+        apply(entries);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        switch (event.type()) {
+            case UPDATED, RATED -> putAll(event.changes()
+                    .stream()
+                    .map(MovieChangedEvent.Change::movie)
+                    .toList());
+            case DELETED -> event.changes().forEach(change -> remove(change.movie().getId()));
+        }
+    }
+
+    /* Returns an empty optional when Redis cannot be read or has no such ranking, so the caller can fall back to the database */
+    public Optional<List<Integer>> getTopMovieIds(Genre genre, int limit) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+
+        try {
+            String key = (genre != null) ? getKey(genre) : GLOBAL_KEY;
+            Set<String> members = redisTemplate.opsForZSet().reverseRange(key, 0, limit - 1);
+
+            /* A missing key, e.g. after Redis lost its data, is not an empty ranking */
+            if (members == null || members.isEmpty() && !Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+                return Optional.empty();
+            }
+
+            return Optional.of(members.stream()
+                    .map(Integer::valueOf)
+                    .toList());
+        } catch (DataAccessException exception) {
+            log.error("{} could not be read. Exception: {}", LEADERBOARD, exception.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public double getPriorRating() {
+        return isReady() ? priorRating : calculatePriorRating();
+    }
+
+    public int getMinimumVotes() {
+        return minimumVotes;
+    }
+
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+
+        statisticsMap.put("enabled", String.valueOf(enabled));
+        statisticsMap.put("ready", String.valueOf(isReady()));
+        statisticsMap.put("minimumVotes", String.valueOf(minimumVotes));
+        statisticsMap.put("priorRating", String.valueOf(priorRating));
+
+        if (isReady()) {
+            try {
+                statisticsMap.put("movieCount", String.valueOf(redisTemplate.opsForZSet().zCard(GLOBAL_KEY)));
+            } catch (DataAccessException exception) {
+                log.error("{} could not be read. Exception: {}", LEADERBOARD, exception.getMessage());
+            }
+        }
+
+        return new Statistics<>(LEADERBOARD, statisticsMap);
+    }
+
+    private double calculatePriorRating() {
+        RatingAggregate ratingTotals = movieRepository.findRatingTotals();
+
+        if (ratingTotals == null || ratingTotals.ratingCount() == null || ratingTotals.ratingCount() == 0) {
+            return (DefaultValues.MINIMUM_RATE + DefaultValues.MAXIMUM_RATE) / 2d;
+        }
+
+        return ratingTotals.ratingSum() / ratingTotals.ratingCount();
+    }
+
+    private double score(double ratingSum, long ratingCount, double prior) {
+        return (ratingSum + minimumVotes * prior) / (ratingCount + minimumVotes);
+    }
+
+    /* Changes are recorded for a running rebuild even before the first rebuild has made the leaderboard ready */
+    private void apply(Map<Integer, LeaderboardEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        synchronized (rebuildLock) {
+            if (rebuildUpdates != null) {
+                rebuildUpdates.putAll(entries);
+            }
+        }
+
+        if (!isReady()) {
+            return;
+        }
+
+        try {
+            double prior = priorRating;
+            redisTemplate.executePipelined(sessionCallback(operations -> entries.forEach((movieId, entry) ->
+                    write(operations, movieId, entry, "", prior))));
+        } catch (DataAccessException exception) {
+            log.error("{} could not be updated. Exception: {}", LEADERBOARD, exception.getMessage());
+        }
+    }
+
+    /* The movie is removed from every other genre, since its genre may have changed */
+    private void write(RedisOperations<String, String> operations, Integer movieId, LeaderboardEntry entry, String keySuffix, double prior) {
+        String member = String.valueOf(movieId);
+        boolean rated = entry != null && entry.ratingCount() > 0;
+        String genreKey = (rated && entry.genre() != null) ? getKey(entry.genre()) : null;
+
+        for (String key : KEYS) {
+            if (rated && (key.equals(GLOBAL_KEY) || key.equals(genreKey))) {
+                operations.opsForZSet().add(key + keySuffix, member, score(entry.ratingSum(), entry.ratingCount(), prior));
+            } else {
+                operations.opsForZSet().remove(key + keySuffix, member);
+            }
+        }
+    }
+
+    private static SessionCallback<Object> sessionCallback(Consumer<RedisOperations<String, String>> commands) {
+        return new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
+        };
+    }
+
+    private static String getKey(Genre genre) {
+        return KEY_PREFIX + genre.name().toLowerCase();
+    }
+
+    private record LeaderboardEntry(Genre genre, double ratingSum, long ratingCount) {
+    }
+}
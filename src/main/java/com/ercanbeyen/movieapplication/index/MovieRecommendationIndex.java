@@ -0,0 +1,435 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.RatingEntry;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Item-item collaborative filtering over the ratings table. A rebuild loads the ratings into primitive arrays as a
+ * sparse movie-by-audience matrix and its transpose, then a fork/join pass finds the k most cosine similar movies of
+ * every movie by walking the audiences who rated it. Audiences with more ratings than the cap are left out of the
+ * pass, since their quadratic co-rating cost outweighs their signal. The neighbour lists are swapped in as one
+ * snapshot, so an audience is scored online in O(k) per rated movie.
+ */
+@Component
+@Slf4j
+public class MovieRecommendationIndex {
+    private static final String INDEX = "MovieRecommendationIndex";
+    private static final String FIND_RATINGS = "SELECT movie_id, audience_id, rate FROM ratings WHERE audience_id IS NOT NULL";
+    private static final int FETCH_SIZE = 10_000;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int SIMILARITY_TASK_THRESHOLD = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int neighbourCount;
+    private final int maximumRatingsPerAudience;
+    private final int parallelism;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile Neighbourhood neighbourhood;
+    private volatile Instant lastRebuiltAt;
+    private volatile long lastRebuildDuration;
+    private volatile long lastMatrixFootprint;
+    private volatile int lastRatingCount;
+    private volatile int lastAudienceCount;
+
+    public MovieRecommendationIndex(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${movie.recommendations.enabled:false}") boolean enabled,
+            @Value("${movie.recommendations.neighbour-count:20}") int neighbourCount,
+            @Value("${movie.recommendations.maximum-ratings-per-audience:5000}") int maximumRatingsPerAudience,
+            @Value("${movie.recommendations.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.neighbourCount = neighbourCount;
+        this.maximumRatingsPerAudience = maximumRatingsPerAudience;
+        this.parallelism = (parallelism > 0) ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Scheduled(fixedDelayString = "${movie.recommendations.rebuild-interval:3600000}", initialDelayString = "${movie.recommendations.initial-delay:10000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("{} is already being rebuilt", INDEX);
+            return;
+        }
+
+        try {
+            log.info(LogMessages.STARTED, "rebuild");
+            long startedAt = System.nanoTime();
+
+            RatingMatrix matrix = transactionTemplate.execute(status -> loadRatings());
+            Neighbourhood newNeighbourhood = computeNeighbourhood(Objects.requireNonNull(matrix));
+
+            neighbourhood = newNeighbourhood;
+            lastRebuiltAt = Instant.now();
+            lastRebuildDuration = Duration.ofNanos(System.nanoTime() - startedAt).toMillis();
+            lastMatrixFootprint = matrix.getMemoryFootprint();
+            lastRatingCount = matrix.ratingCount;
+            lastAudienceCount = matrix.audienceCount;
+
+            log.info("{} is rebuilt from {} ratings of {} movies in {} ms, memory footprint is {} bytes", INDEX,
+                    matrix.ratingCount, matrix.movieIds.length, lastRebuildDuration, newNeighbourhood.getMemoryFootprint());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && neighbourhood != null;
+    }
+
+    /*
+     * Every unseen neighbour of a rated movie collects similarity * rate, so movies close to many well rated movies
+     * rank first. Returns the ids of the best scored movies, best first.
+     */
+    public List<Integer> recommend(List<RatingEntry> ratings, int limit) {
+        Neighbourhood currentNeighbourhood = neighbourhood;
+
+        if (!enabled || currentNeighbourhood == null) {
+            return List.of();
+        }
+
+        Set<Integer> ratedMovieIds = new HashSet<>();
+        ratings.forEach(rating -> ratedMovieIds.add(rating.movieId()));
+        Map<Integer, Double> scores = new HashMap<>();
+
+        for (RatingEntry rating : ratings) {
+            Integer movieIndex = currentNeighbourhood.movieIndexes.get(rating.movieId());
+
+            if (movieIndex == null) {
+                continue;
+            }
+
+            int offset = movieIndex * currentNeighbourhood.neighbourCount;
+
+            for (int i = 0; i < currentNeighbourhood.neighbourCounts[movieIndex]; i++) {
+                int neighbourId = currentNeighbourhood.movieIds[currentNeighbourhood.neighbourIndexes[offset + i]];
+
+                if (!ratedMovieIds.contains(neighbourId)) {
+                    scores.merge(neighbourId, currentNeighbourhood.neighbourSimilarities[offset + i] * rating.rate(), Double::sum);
+                }
+            }
+        }
+
+        return scores.entrySet()
+                .stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+        Neighbourhood currentNeighbourhood = neighbourhood;
+
+        statisticsMap.put("enabled", String.valueOf(enabled));
+        statisticsMap.put("ready", String.valueOf(isReady()));
+        statisticsMap.put("rebuilding", String.valueOf(rebuilding.get()));
+        statisticsMap.put("neighbourCount", String.valueOf(neighbourCount));
+        statisticsMap.put("parallelism", String.valueOf(parallelism));
+
+        if (currentNeighbourhood != null) {
+            statisticsMap.put("movieCount", String.valueOf(currentNeighbourhood.movieIds.length));
+            statisticsMap.put("audienceCount", String.valueOf(lastAudienceCount));
+            statisticsMap.put("ratingCount", String.valueOf(lastRatingCount));
+            statisticsMap.put("lastRebuiltAt", String.valueOf(lastRebuiltAt));
+            statisticsMap.put("lastRebuildDuration", String.valueOf(lastRebuildDuration));
+            statisticsMap.put("matrixMemoryFootprint", String.valueOf(lastMatrixFootprint));
+            statisticsMap.put("memoryFootprint", String.valueOf(currentNeighbourhood.getMemoryFootprint()));
+        }
+
+        return new Statistics<>(INDEX, statisticsMap);
+    }
+
+    private RatingMatrix loadRatings() {
+        RatingMatrixBuilder builder = new RatingMatrixBuilder();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(FIND_RATINGS);
+            preparedStatement.setFetchSize(FETCH_SIZE);
+            return preparedStatement;
+        }, (RowCallbackHandler) resultSet -> builder.add(resultSet.getInt("movie_id"), resultSet.getInt("audience_id"), resultSet.getFloat("rate")));
+
+        return builder.build();
+    }
+
+    private Neighbourhood computeNeighbourhood(RatingMatrix matrix) {
+        int movieCount = matrix.movieIds.length;
+        int[] neighbourCounts = new int[movieCount];
+        int[] neighbourIndexes = new int[movieCount * neighbourCount];
+        float[] neighbourSimilarities = new float[movieCount * neighbourCount];
+        ThreadLocal<Accumulator> accumulators = ThreadLocal.withInitial(() -> new Accumulator(movieCount));
+
+        try (ForkJoinPool pool = new ForkJoinPool(parallelism)) {
+            pool.invoke(new SimilarityTask(matrix, accumulators, neighbourCounts, neighbourIndexes, neighbourSimilarities, 0, movieCount));
+        }
+
+        Map<Integer, Integer> movieIndexes = new HashMap<>(movieCount * 2);
+
+        for (int i = 0; i < movieCount; i++) {
+            movieIndexes.put(matrix.movieIds[i], i);
+        }
+
+        return new Neighbourhood(matrix.movieIds, movieIndexes, neighbourCount, neighbourCounts, neighbourIndexes, neighbourSimilarities);
+    }
+
+    private class SimilarityTask extends RecursiveAction {
+        private final RatingMatrix matrix;
+        private final ThreadLocal<Accumulator> accumulators;
+        private final int[] neighbourCounts;
+        private final int[] neighbourIndexes;
+        private final float[] neighbourSimilarities;
+        private final int from;
+        private final int to;
+
+        private SimilarityTask(RatingMatrix matrix, ThreadLocal<Accumulator> accumulators, int[] neighbourCounts,
+                               int[] neighbourIndexes, float[] neighbourSimilarities, int from, int to) {
+            this.matrix = matrix;
+            this.accumulators = accumulators;
+            this.neighbourCounts = neighbourCounts;
+            this.neighbourIndexes = neighbourIndexes;
+            this.neighbourSimilarities = neighbourSimilarities;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SIMILARITY_TASK_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new SimilarityTask(matrix, accumulators, neighbourCounts, neighbourIndexes, neighbourSimilarities, from, middle),
+                        new SimilarityTask(matrix, accumulators, neighbourCounts, neighbourIndexes, neighbourSimilarities, middle, to));
+                return;
+            }
+
+            Accumulator accumulator = accumulators.get();
+
+            for (int movie = from; movie < to; movie++) {
+                computeNeighbours(movie, accumulator);
+            }
+        }
+
+        private void computeNeighbours(int movie, Accumulator accumulator) {
+            double[] dotProducts = accumulator.dotProducts;
+            int[] candidates = accumulator.candidates;
+            int candidateCount = 0;
+
+            for (int p = matrix.movieOffsets[movie]; p < matrix.movieOffsets[movie + 1]; p++) {
+                int audience = matrix.movieAudiences[p];
+                int audienceStart = matrix.audienceOffsets[audience];
+                int audienceEnd = matrix.audienceOffsets[audience + 1];
+
+                if (audienceEnd - audienceStart > maximumRatingsPerAudience) {
+                    continue;
+                }
+
+                float rate = matrix.movieRates[p];
+
+                for (int q = audienceStart; q < audienceEnd; q++) {
+                    int otherMovie = matrix.audienceMovies[q];
+
+                    if (otherMovie == movie) {
+                        continue;
+                    }
+
+                    if (dotProducts[otherMovie] == 0) {
+                        candidates[candidateCount++] = otherMovie;
+                    }
+
+                    dotProducts[otherMovie] += rate * matrix.audienceRates[q];
+                }
+            }
+
+            int offset = movie * neighbourCount;
+            int size = 0;
+
+            for (int i = 0; i < candidateCount; i++) {
+                int otherMovie = candidates[i];
+                float similarity = (float) (dotProducts[otherMovie] / (matrix.movieNorms[movie] * matrix.movieNorms[otherMovie]));
+                dotProducts[otherMovie] = 0;
+
+                if (size < neighbourCount) {
+                    neighbourIndexes[offset + size] = otherMovie;
+                    neighbourSimilarities[offset + size] = similarity;
+                    siftUp(offset, size++);
+                } else if (similarity > neighbourSimilarities[offset]) {
+                    neighbourIndexes[offset] = otherMovie;
+                    neighbourSimilarities[offset] = similarity;
+                    siftDown(offset, size);
+                }
+            }
+
+            neighbourCounts[movie] = size;
+        }
+
+        /* The neighbours of a movie form a min heap on similarity in place, so the weakest one is replaced first */
+        private void siftUp(int offset, int position) {
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+
+                if (neighbourSimilarities[offset + parent] <= neighbourSimilarities[offset + position]) {
+                    return;
+                }
+
+                swap(offset + parent, offset + position);
+                position = parent;
+            }
+        }
+
+        private void siftDown(int offset, int size) {
+            int position = 0;
+
+            while (true) {
+                int smallest = position;
+                int left = 2 * position + 1;
+                int right = left + 1;
+
+                if (left < size && neighbourSimilarities[offset + left] < neighbourSimilarities[offset + smallest]) {
+                    smallest = left;
+                }
+
+                if (right < size && neighbourSimilarities[offset + right] < neighbourSimilarities[offset + smallest]) {
+                    smallest = right;
+                }
+
+                if (smallest == position) {
+                    return;
+                }
+
+                swap(offset + position, offset + smallest);
+                position = smallest;
+            }
+        }
+
+        private void swap(int first, int second) {
+            int index = neighbourIndexes[first];
+            neighbourIndexes[first] = neighbourIndexes[second];
+            neighbourIndexes[second] = index;
+
+            float similarity = neighbourSimilarities[first];
+            neighbourSimilarities[first] = neighbourSimilarities[second];
+            neighbourSimilarities[second] = similarity;
+        }
+    }
+
+    private static final class RatingMatrixBuilder {
+        private final Map<Integer, Integer> movieIndexes = new HashMap<>();
+        private final Map<Integer, Integer> audienceIndexes = new HashMap<>();
+        private int[] movies = new int[INITIAL_CAPACITY];
+        private int[] audiences = new int[INITIAL_CAPACITY];
+        private float[] rates = new float[INITIAL_CAPACITY];
+        private int size;
+
+        private void add(int movieId, int audienceId, float rate) {
+            if (size == movies.length) {
+                int capacity = movies.length * 2;
+                movies = Arrays.copyOf(movies, capacity);
+                audiences = Arrays.copyOf(audiences, capacity);
+                rates = Arrays.copyOf(rates, capacity);
+            }
+
+            movies[size] = movieIndexes.computeIfAbsent(movieId, key -> movieIndexes.size());
+            audiences[size] = audienceIndexes.computeIfAbsent(audienceId, key -> audienceIndexes.size());
+            rates[size] = rate;
+            size++;
+        }
+
+        private RatingMatrix build() {
+            int movieCount = movieIndexes.size();
+            int audienceCount = audienceIndexes.size();
+            int[] movieIds = new int[movieCount];
+            movieIndexes.forEach((movieId, index) -> movieIds[index] = movieId);
+
+            int[] movieOffsets = new int[movieCount + 1];
+            int[] audienceOffsets = new int[audienceCount + 1];
+
+            for (int i = 0; i < size; i++) {
+                movieOffsets[movies[i] + 1]++;
+                audienceOffsets[audiences[i] + 1]++;
+            }
+
+            Arrays.parallelPrefix(movieOffsets, Integer::sum);
+            Arrays.parallelPrefix(audienceOffsets, Integer::sum);
+
+            int[] movieAudiences = new int[size];
+            float[] movieRates = new float[size];
+            int[] audienceMovies = new int[size];
+            float[] audienceRates = new float[size];
+            int[] movieCursors = Arrays.copyOf(movieOffsets, movieCount);
+            int[] audienceCursors = Arrays.copyOf(audienceOffsets, audienceCount);
+            double[] movieNorms = new double[movieCount];
+
+            for (int i = 0; i < size; i++) {
+                int movieCursor = movieCursors[movies[i]]++;
+                movieAudiences[movieCursor] = audiences[i];
+                movieRates[movieCursor] = rates[i];
+
+                int audienceCursor = audienceCursors[audiences[i]]++;
+                audienceMovies[audienceCursor] = movies[i];
+                audienceRates[audienceCursor] = rates[i];
+
+                movieNorms[movies[i]] += (double) rates[i] * rates[i];
+            }
+
+            for (int i = 0; i < movieCount; i++) {
+                movieNorms[i] = Math.sqrt(movieNorms[i]);
+            }
+
+            return new RatingMatrix(size, audienceCount, movieIds, movieOffsets, movieAudiences, movieRates, movieNorms,
+                    audienceOffsets, audienceMovies, audienceRates);
+        }
+    }
+
+    private record RatingMatrix(int ratingCount, int audienceCount, int[] movieIds, int[] movieOffsets,
+                                int[] movieAudiences, float[] movieRates, double[] movieNorms,
+                                int[] audienceOffsets, int[] audienceMovies, float[] audienceRates) {
+        private long getMemoryFootprint() {
+            return (long) Integer.BYTES * (movieIds.length + movieOffsets.length + movieAudiences.length + audienceOffsets.length + audienceMovies.length)
+                    + (long) Float.BYTES * (movieRates.length + audienceRates.length)
+                    + (long) Double.BYTES * movieNorms.length;
+        }
+    }
+
+    private record Neighbourhood(int[] movieIds, Map<Integer, Integer> movieIndexes, int neighbourCount,
+                                 int[] neighbourCounts, int[] neighbourIndexes, float[] neighbourSimilarities) {
+        private long getMemoryFootprint() {
+            return (long) Integer.BYTES * (movieIds.length + neighbourCounts.length + neighbourIndexes.length)
+                    + (long) Float.BYTES * neighbourSimilarities.length;
+        }
+    }
+
+    private static final class Accumulator {
+        private final double[] dotProducts;
+        private final int[] candidates;
+
+        private Accumulator(int movieCount) {
+            this.dotProducts = new double[movieCount];
+            this.candidates = new int[movieCount];
+        }
+    }
+}
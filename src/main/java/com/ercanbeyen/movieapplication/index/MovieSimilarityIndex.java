@@ -0,0 +1,391 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.MovieFeatureEntry;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.Actor;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Inverted index from actor id and director id to sorted arrays of movie ids. Similar movies of a movie are scored by
+ * merging the postings of its own actors and director, so every other movie collects the weight of each person it
+ * shares. A genre holds a large share of the catalog, so it is kept as a bitmap over movie ids instead of a posting:
+ * it adds its weight to the scored movies and fills the slots they leave empty in id order, but never makes a movie
+ * a candidate by itself. Updates replace the postings of a single movie.
+ */
+@Component
+@Slf4j
+public class MovieSimilarityIndex {
+    private static final String INDEX = "MovieSimilarityIndex";
+    private static final int[] EMPTY = new int[0];
+
+    private final MovieRepository movieRepository;
+    private final boolean enabled;
+    private final double actorWeight;
+    private final double directorWeight;
+    private final double genreWeight;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, int[]> actorPostings = new HashMap<>();
+    private final Map<Integer, int[]> directorPostings = new HashMap<>();
+    private final Map<Genre, BitSet> genreBitmaps = new EnumMap<>(Genre.class);
+    private final Map<Integer, MovieFeatures> featuresByMovieId = new HashMap<>();
+    private volatile boolean ready;
+
+    public MovieSimilarityIndex(MovieRepository movieRepository,
+                                @Value("${movie.similarity-index.enabled:false}") boolean enabled,
+                                @Value("${movie.similarity-index.actor-weight:3.0}") double actorWeight,
+                                @Value("${movie.similarity-index.director-weight:2.0}") double directorWeight,
+                                @Value("${movie.similarity-index.genre-weight:1.0}") double genreWeight) {
+        this.movieRepository = movieRepository;
+        this.enabled = enabled;
+        this.actorWeight = actorWeight;
+        this.directorWeight = directorWeight;
+        this.genreWeight = genreWeight;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("{} is disabled", INDEX);
+            return;
+        }
+
+        log.info(LogMessages.STARTED, "rebuild");
+        List<MovieFeatureEntry> featureEntries = movieRepository.findFeatureEntries();
+        Map<Integer, List<Integer>> actorIdsByMovieId = new HashMap<>();
+
+        movieRepository.findActorEntries()
+                .forEach(entry -> actorIdsByMovieId.computeIfAbsent(entry.movieId(), key -> new ArrayList<>()).add(entry.actorId()));
+
+        Map<Integer, List<Integer>> actorLists = new HashMap<>();
+        Map<Integer, List<Integer>> directorLists = new HashMap<>();
+        Map<Genre, BitSet> genreMembers = new EnumMap<>(Genre.class);
+        Map<Integer, MovieFeatures> features = new HashMap<>();
+
+        for (MovieFeatureEntry entry : featureEntries) {
+            MovieFeatures movieFeatures = new MovieFeatures(toSortedArray(actorIdsByMovieId.getOrDefault(entry.id(), List.of())), entry.directorId(), entry.genre());
+            features.put(entry.id(), movieFeatures);
+
+            for (int actorId : movieFeatures.actorIds()) {
+                actorLists.computeIfAbsent(actorId, key -> new ArrayList<>()).add(entry.id());
+            }
+
+            if (entry.directorId() != null) {
+                directorLists.computeIfAbsent(entry.directorId(), key -> new ArrayList<>()).add(entry.id());
+            }
+
+            if (entry.genre() != null) {
+                genreMembers.computeIfAbsent(entry.genre(), key -> new BitSet()).set(entry.id());
+            }
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            actorPostings.clear();
+            directorPostings.clear();
+            genreBitmaps.clear();
+            featuresByMovieId.clear();
+
+            actorLists.forEach((actorId, movieIds) -> actorPostings.put(actorId, toSortedArray(movieIds)));
+            directorLists.forEach((directorId, movieIds) -> directorPostings.put(directorId, toSortedArray(movieIds)));
+            genreBitmaps.putAll(genreMembers);
+            featuresByMovieId.putAll(features);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("{} is rebuilt with {} movies, memory footprint is {} bytes", INDEX, features.size(), getMemoryFootprint());
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void put(Movie movie) {
+        if (!enabled) {
+            return;
+        }
+
+        List<Integer> actorIds = movie.getActors()
+                .stream()
+                .map(Actor::getId)
+                .toList();
+        Integer directorId = (movie.getDirector() == null) ? null : movie.getDirector().getId();
+
+        put(movie.getId(), directorId, movie.getGenre(), actorIds);
+    }
+
+    public void put(Integer movieId, Integer directorId, Genre genre, Collection<Integer> actorIds) {
+        if (!enabled) {
+            return;
+        }
+
+        MovieFeatures movieFeatures = new MovieFeatures(toSortedArray(actorIds), directorId, genre);
+        lock.writeLock().lock();
+
+        try {
+            unindex(movieId);
+            featuresByMovieId.put(movieId, movieFeatures);
+
+            for (int actorId : movieFeatures.actorIds()) {
+                actorPostings.put(actorId, insert(actorPostings.getOrDefault(actorId, EMPTY), movieId));
+            }
+
+            if (directorId != null) {
+                directorPostings.put(directorId, insert(directorPostings.getOrDefault(directorId, EMPTY), movieId));
+            }
+
+            if (genre != null) {
+                genreBitmaps.computeIfAbsent(genre, key -> new BitSet()).set(movieId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer movieId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            unindex(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        event.changes().forEach(change -> {
+            Movie movie = change.movie();
+
+            switch (event.type()) {
+                case CREATED, UPDATED -> put(movie.getId(), change.features().directorId(), movie.getGenre(), change.features().actorIds());
+                case DELETED -> remove(movie.getId());
+            }
+        });
+    }
+
+    /*
+     * Returns ids of the most similar movies, best first, or an empty list when the movie is not indexed.
+     * The postings are merged by always advancing the lists positioned at the smallest movie id.
+     */
+    public List<Integer> findSimilarMovieIds(Integer movieId, int limit) {
+        lock.readLock().lock();
+
+        try {
+            MovieFeatures movieFeatures = featuresByMovieId.get(movieId);
+
+            if (movieFeatures == null) {
+                return List.of();
+            }
+
+            List<int[]> postings = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+
+            for (int actorId : movieFeatures.actorIds()) {
+                postings.add(actorPostings.getOrDefault(actorId, EMPTY));
+                weights.add(actorWeight);
+            }
+
+            if (movieFeatures.directorId() != null) {
+                postings.add(directorPostings.getOrDefault(movieFeatures.directorId(), EMPTY));
+                weights.add(directorWeight);
+            }
+
+            BitSet genreBitmap = (movieFeatures.genre() == null) ? null : genreBitmaps.get(movieFeatures.genre());
+
+            return mergePostings(movieId, postings, weights, genreBitmap, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getMemoryFootprint() {
+        lock.readLock().lock();
+
+        try {
+            long bytes = postingsBytes(actorPostings.values()) + postingsBytes(directorPostings.values());
+            bytes += genreBitmaps.values().stream().mapToLong(genreBitmap -> 16L + genreBitmap.size() / Byte.SIZE).sum();
+            bytes += featuresByMovieId.values().stream().mapToLong(features -> 48L + (long) features.actorIds().length * Integer.BYTES).sum();
+            bytes += (long) (actorPostings.size() + directorPostings.size() + featuresByMovieId.size()) * 64; // Map entry with boxed key
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+        lock.readLock().lock();
+
+        try {
+            statisticsMap.put("enabled", String.valueOf(enabled));
+            statisticsMap.put("ready", String.valueOf(ready));
+            statisticsMap.put("movieCount", String.valueOf(featuresByMovieId.size()));
+            statisticsMap.put("actorCount", String.valueOf(actorPostings.size()));
+            statisticsMap.put("directorCount", String.valueOf(directorPostings.size()));
+            statisticsMap.put("memoryFootprintBytes", String.valueOf(getMemoryFootprint()));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new Statistics<>(INDEX, statisticsMap);
+    }
+
+    private List<Integer> mergePostings(Integer movieId, List<int[]> postings, List<Double> weights, BitSet genreBitmap, int limit) {
+        int[] positions = new int[postings.size()];
+        PriorityQueue<ScoredMovie> topMovies = new PriorityQueue<>(Comparator.comparingDouble(ScoredMovie::score)
+                .thenComparing(ScoredMovie::id, Comparator.reverseOrder()));
+
+        while (true) {
+            int currentId = Integer.MAX_VALUE;
+
+            for (int i = 0; i < postings.size(); i++) {
+                if (positions[i] < postings.get(i).length) {
+                    currentId = Math.min(currentId, postings.get(i)[positions[i]]);
+                }
+            }
+
+            if (currentId == Integer.MAX_VALUE) {
+                break;
+            }
+
+            double score = (genreBitmap != null && genreBitmap.get(currentId)) ? genreWeight : 0;
+
+            for (int i = 0; i < postings.size(); i++) {
+                if (positions[i] < postings.get(i).length && postings.get(i)[positions[i]] == currentId) {
+                    score += weights.get(i);
+                    positions[i]++;
+                }
+            }
+
+            if (currentId != movieId) {
+                topMovies.offer(new ScoredMovie(currentId, score));
+
+                if (topMovies.size() > limit) {
+                    topMovies.poll();
+                }
+            }
+        }
+
+        LinkedList<Integer> movieIds = new LinkedList<>();
+
+        while (!topMovies.isEmpty()) {
+            movieIds.addFirst(topMovies.poll().id());
+        }
+
+        /* Nothing was dropped from the heap when slots are left, so every scored movie is already in the list */
+        if (genreBitmap != null && movieIds.size() < limit) {
+            Set<Integer> scoredIds = new HashSet<>(movieIds);
+
+            for (int id = genreBitmap.nextSetBit(0); id >= 0 && movieIds.size() < limit; id = genreBitmap.nextSetBit(id + 1)) {
+                if (id != movieId && !scoredIds.contains(id)) {
+                    movieIds.addLast(id);
+                }
+            }
+        }
+
+        return movieIds;
+    }
+
+    private void unindex(Integer movieId) {
+        MovieFeatures movieFeatures = featuresByMovieId.remove(movieId);
+
+        if (movieFeatures == null) {
+            return;
+        }
+
+        for (int actorId : movieFeatures.actorIds()) {
+            removeFrom(actorPostings, actorId, movieId);
+        }
+
+        if (movieFeatures.directorId() != null) {
+            removeFrom(directorPostings, movieFeatures.directorId(), movieId);
+        }
+
+        if (movieFeatures.genre() != null) {
+            genreBitmaps.get(movieFeatures.genre()).clear(movieId);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, int[]> postings, K key, int movieId) {
+        int[] movieIds = postings.get(key);
+
+        if (movieIds == null) {
+            return;
+        }
+
+        int position = Arrays.binarySearch(movieIds, movieId);
+
+        if (position < 0) {
+            return;
+        }
+
+        if (movieIds.length == 1) {
+            postings.remove(key);
+            return;
+        }
+
+        int[] remainingIds = new int[movieIds.length - 1];
+        System.arraycopy(movieIds, 0, remainingIds, 0, position);
+        System.arraycopy(movieIds, position + 1, remainingIds, position, movieIds.length - position - 1);
+        postings.put(key, remainingIds);
+    }
+
+    private static int[] insert(int[] movieIds, int movieId) {
+        int position = Arrays.binarySearch(movieIds, movieId);
+
+        if (position >= 0) {
+            return movieIds;
+        }
+
+        int insertionPoint = -position - 1;
+        int[] newIds = new int[movieIds.length + 1];
+        System.arraycopy(movieIds, 0, newIds, 0, insertionPoint);
+        System.arraycopy(movieIds, insertionPoint, newIds, insertionPoint + 1, movieIds.length - insertionPoint);
+        newIds[insertionPoint] = movieId;
+
+        return newIds;
+    }
+
+    private static int[] toSortedArray(Collection<Integer> ids) {
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    private static long postingsBytes(Collection<int[]> postings) {
+        return postings.stream().mapToLong(movieIds -> 16L + (long) movieIds.length * Integer.BYTES).sum();
+    }
+
+    private record MovieFeatures(int[] actorIds, Integer directorId, Genre genre) {
+
+    }
+
+    private record ScoredMovie(int id, double score) {
+
+    }
+}
@@ -0,0 +1,391 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.MovieTitleEntry;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Autocomplete index over normalized movie titles. Keys are kept sorted, so a prefix is a key range,
+ * and a query with one typo is answered by looking up every prefix within edit distance one of it.
+ * When the capacity is exceeded, the lowest rated titles are evicted. Once a title is evicted, a search answers
+ * only when its prefix has enough titles rated above every evicted one, otherwise the caller falls back to the database.
+ * Titles created by other nodes are picked up by a periodic refresh of the newest movies, and their updates, ratings
+ * and deletions by the periodic rebuild, like ImdbIdFilter.
+ */
+@Component
+@Slf4j
+public class MovieTitleIndex {
+    private static final String INDEX = "MovieTitleIndex";
+    private static final char KEY_SEPARATOR = '\u0000';
+    private static final int MAXIMUM_KEY_LENGTH = 64;
+    private static final int MINIMUM_TYPO_QUERY_LENGTH = 3;
+    private static final int MAXIMUM_SCANNED_TYPO_ENTRIES = 2_000;
+    private static final int MAXIMUM_TYPO_ALPHABET_SIZE = 64;
+    private static final int REFRESH_BATCH_SIZE = 1_000;
+    /* Ids are assigned before commit, so the refresh looks behind the newest id for transactions that committed late */
+    private static final int REFRESH_OVERLAP = 1_000;
+    private static final Comparator<TitleEntry> RATING_COMPARATOR = Comparator.comparingDouble(TitleEntry::rating)
+            .thenComparingInt(TitleEntry::movieId);
+
+    private final MovieRepository movieRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, TitleEntry> entriesByKey = new TreeMap<>();
+    private final Map<Integer, TitleEntry> entriesByMovieId = new HashMap<>();
+    private final NavigableSet<TitleEntry> entriesByRating = new TreeSet<>(RATING_COMPARATOR);
+    private final Map<Character, Integer> alphabet = new HashMap<>();
+    private double highestEvictedRating = Double.NEGATIVE_INFINITY;
+    /* Latest state of the movies changed while a rebuild scans the database, a null value is a removal */
+    private Map<Integer, MovieTitleEntry> rebuildUpdates;
+    private volatile int refreshedMovieId;
+    private volatile boolean ready;
+
+    public MovieTitleIndex(
+            MovieRepository movieRepository,
+            @Value("${movie.title-index.enabled:false}") boolean enabled,
+            @Value("${movie.title-index.capacity:500000}") int capacity) {
+        this.movieRepository = movieRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${movie.title-index.rebuild-interval:3600000}", initialDelayString = "${movie.title-index.rebuild-interval:3600000}")
+    public void rebuild() {
+        if (!enabled) {
+            log.info("{} is disabled", INDEX);
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            if (rebuildUpdates != null) {
+                log.warn("{} is already being rebuilt", INDEX);
+                return;
+            }
+
+            rebuildUpdates = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            log.info(LogMessages.STARTED, "rebuild");
+            int maximumMovieId = movieRepository.findMaximumId();
+            List<MovieTitleEntry> titleEntries = movieRepository.findTitleEntries();
+
+            lock.writeLock().lock();
+
+            try {
+                entriesByKey.clear();
+                entriesByMovieId.clear();
+                entriesByRating.clear();
+                alphabet.clear();
+                highestEvictedRating = Double.NEGATIVE_INFINITY;
+                titleEntries.forEach(titleEntry -> index(titleEntry.id(), titleEntry.title(), titleEntry.averageRating()));
+                rebuildUpdates.forEach((movieId, titleEntry) -> {
+                    if (titleEntry == null) {
+                        unindex(movieId);
+                    } else {
+                        index(movieId, titleEntry.title(), titleEntry.averageRating());
+                    }
+                });
+                refreshedMovieId = Math.max(refreshedMovieId, maximumMovieId);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+
+            try {
+                rebuildUpdates = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("{} is rebuilt with {} titles", INDEX, size());
+    }
+
+    /* Titles this node already holds are left alone, since the local events are at least as recent as this read */
+    @Scheduled(fixedDelayString = "${movie.title-index.refresh-interval:5000}", initialDelayString = "${movie.title-index.refresh-interval:5000}")
+    public void refresh() {
+        if (!isReady()) {
+            return;
+        }
+
+        int movieId = Math.max(0, refreshedMovieId - REFRESH_OVERLAP);
+        List<MovieTitleEntry> titleEntries;
+
+        do {
+            titleEntries = movieRepository.findTitleEntriesAfter(movieId, PageRequest.of(0, REFRESH_BATCH_SIZE));
+            lock.writeLock().lock();
+
+            try {
+                titleEntries.stream()
+                        .filter(titleEntry -> !entriesByMovieId.containsKey(titleEntry.id()))
+                        .forEach(titleEntry -> index(titleEntry.id(), titleEntry.title(), titleEntry.averageRating()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (!titleEntries.isEmpty()) {
+                movieId = titleEntries.get(titleEntries.size() - 1).id();
+            }
+        } while (titleEntries.size() == REFRESH_BATCH_SIZE);
+
+        refreshedMovieId = Math.max(refreshedMovieId, movieId);
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public void put(Movie movie) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            if (rebuildUpdates != null) {
+                rebuildUpdates.put(movie.getId(), new MovieTitleEntry(movie.getId(), movie.getTitle(), movie.getAverageRating()));
+            }
+
+            index(movie.getId(), movie.getTitle(), movie.getAverageRating());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer movieId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            if (rebuildUpdates != null) {
+                rebuildUpdates.put(movieId, null);
+            }
+
+            unindex(movieId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED, RATED -> event.changes().forEach(change -> put(change.movie()));
+            case DELETED -> event.changes().forEach(change -> remove(change.movie().getId()));
+        }
+    }
+
+    /*
+     * Exact prefix matches are ranked by average rating across the whole prefix range, followed by the best effort
+     * matches with a typo. Returns empty when the index is not ready or evicted titles may belong to the result.
+     */
+    public Optional<List<Integer>> search(String query, int limit) {
+        if (!isReady()) {
+            return Optional.empty();
+        }
+
+        String prefix = normalize(query);
+
+        if (prefix.isEmpty() || limit <= 0) {
+            return Optional.of(List.of());
+        }
+
+        lock.readLock().lock();
+
+        try {
+            Set<Integer> seenMovieIds = new HashSet<>();
+            List<TitleEntry> topEntries = topRated(Set.of(prefix), limit, Integer.MAX_VALUE, seenMovieIds);
+
+            if (!isComplete(topEntries, limit)) {
+                log.info("{} has evicted titles that may match {}", INDEX, prefix);
+                return Optional.empty();
+            }
+
+            List<Integer> result = new ArrayList<>(limit);
+            topEntries.forEach(entry -> result.add(entry.movieId()));
+
+            if (result.size() < limit && prefix.length() >= MINIMUM_TYPO_QUERY_LENGTH) {
+                topRated(editsWithinOne(prefix), limit - result.size(), MAXIMUM_SCANNED_TYPO_ENTRIES, seenMovieIds)
+                        .forEach(entry -> result.add(entry.movieId()));
+            }
+
+            return Optional.of(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return entriesByMovieId.size();
+    }
+
+    static String normalize(String title) {
+        if (StringUtils.isBlank(title)) {
+            return "";
+        }
+
+        String normalized = Normalizer.normalize(title, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+
+        return StringUtils.left(normalized, MAXIMUM_KEY_LENGTH);
+    }
+
+    private List<TitleEntry> topRated(Set<String> prefixes, int limit, int maximumScannedEntries, Set<Integer> seenMovieIds) {
+        PriorityQueue<TitleEntry> topEntries = new PriorityQueue<>(RATING_COMPARATOR);
+
+        for (String prefix : prefixes) {
+            int scanned = 0;
+
+            for (TitleEntry entry : entriesByKey.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                if (++scanned > maximumScannedEntries) {
+                    break;
+                }
+
+                if (seenMovieIds.contains(entry.movieId()) || topEntries.contains(entry)) {
+                    continue;
+                }
+
+                topEntries.offer(entry);
+
+                if (topEntries.size() > limit) {
+                    topEntries.poll();
+                }
+            }
+        }
+
+        List<TitleEntry> entries = new ArrayList<>(topEntries.size());
+
+        while (!topEntries.isEmpty()) {
+            entries.add(topEntries.poll());
+        }
+
+        Collections.reverse(entries);
+        entries.forEach(entry -> seenMovieIds.add(entry.movieId()));
+
+        return entries;
+    }
+
+    /*
+     * An evicted title cannot outrank the result when the result is full and its lowest rating is above every evicted rating
+     */
+    private boolean isComplete(List<TitleEntry> topEntries, int limit) {
+        if (highestEvictedRating == Double.NEGATIVE_INFINITY) {
+            return true;
+        }
+
+        return topEntries.size() == limit && topEntries.get(topEntries.size() - 1).rating() > highestEvictedRating;
+    }
+
+    private Set<String> editsWithinOne(String word) {
+        Set<String> edits = new HashSet<>();
+        List<Character> letters = alphabet.entrySet()
+                .stream()
+                .sorted(Map.Entry.<Character, Integer>comparingByValue().reversed())
+                .limit(MAXIMUM_TYPO_ALPHABET_SIZE)
+                .map(Map.Entry::getKey)
+                .toList();
+
+        for (int i = 0; i < word.length(); i++) {
+            edits.add(word.substring(0, i) + word.substring(i + 1));
+
+            if (i + 1 < word.length()) {
+                edits.add(word.substring(0, i) + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2));
+            }
+
+            for (char letter : letters) {
+                edits.add(word.substring(0, i) + letter + word.substring(i + 1));
+                edits.add(word.substring(0, i) + letter + word.substring(i));
+            }
+        }
+
+        for (char letter : letters) {
+            edits.add(word + letter);
+        }
+
+        edits.remove(word);
+        edits.remove("");
+
+        return edits;
+    }
+
+    private void index(Integer movieId, String title, Double averageRating) {
+        unindex(movieId);
+
+        String normalizedTitle = normalize(title);
+
+        if (normalizedTitle.isEmpty()) {
+            return;
+        }
+
+        TitleEntry entry = new TitleEntry(movieId, normalizedTitle + KEY_SEPARATOR + movieId, (averageRating == null) ? 0 : averageRating);
+
+        if (entriesByMovieId.size() >= capacity) {
+            TitleEntry lowestRated = entriesByRating.first();
+
+            if (RATING_COMPARATOR.compare(entry, lowestRated) < 0) {
+                highestEvictedRating = Math.max(highestEvictedRating, entry.rating());
+                return;
+            }
+
+            highestEvictedRating = Math.max(highestEvictedRating, lowestRated.rating());
+            unindex(lowestRated.movieId());
+        }
+
+        entriesByKey.put(entry.key(), entry);
+        entriesByMovieId.put(movieId, entry);
+        entriesByRating.add(entry);
+        normalizedTitle.chars().forEach(letter -> alphabet.merge((char) letter, 1, Integer::sum));
+    }
+
+    private void unindex(Integer movieId) {
+        TitleEntry entry = entriesByMovieId.remove(movieId);
+
+        if (entry == null) {
+            return;
+        }
+
+        entriesByKey.remove(entry.key());
+        entriesByRating.remove(entry);
+        entry.key()
+                .substring(0, entry.key().indexOf(KEY_SEPARATOR))
+                .chars()
+                .forEach(letter -> alphabet.computeIfPresent((char) letter, (key, count) -> (count == 1) ? null : count - 1));
+    }
+
+    private record TitleEntry(int movieId, String key, double rating) {
+
+    }
+}
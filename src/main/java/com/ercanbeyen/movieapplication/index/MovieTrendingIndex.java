@@ -0,0 +1,283 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.entity.TrendingScore;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.TrendingScoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * Exponentially decayed activity score per movie, fed by ratings and views. Time is split into buckets; an event adds
+ * its weight to the score and every bucket rollover multiplies all scores by the decay of one bucket, so both are
+ * incremental and a score halves every half-life. Scores that decay below the threshold are dropped. The scores are
+ * checkpointed periodically and decayed by the time elapsed since the checkpoint when they are restored.
+ */
+@Component
+@Slf4j
+public class MovieTrendingIndex {
+    private static final String INDEX = "MovieTrendingIndex";
+    private static final String INSERT_TRENDING_SCORE = "INSERT INTO trending_scores (movie_id, genre, score, checkpointed_at) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_TRENDING_SCORES = "DELETE FROM trending_scores";
+    private static final String FIND_RECENT_RATING_SCORES = """
+            SELECT rating.movie_id, movie.genre, SUM(POWER(0.5, EXTRACT(EPOCH FROM (? - rating.rated_at)) / ?)) AS score
+            FROM ratings rating
+            JOIN movies movie ON movie.id = rating.movie_id
+            WHERE rating.rated_at >= ?
+            GROUP BY rating.movie_id, movie.genre
+            """;
+
+    private final TrendingScoreRepository trendingScoreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration halfLife;
+    private final Duration bucketDuration;
+    private final double ratingWeight;
+    private final double viewWeight;
+    private final double threshold;
+    private final double bucketDecay;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Integer, TrendingEntry> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile Instant lastRolledOverAt = Instant.now();
+    private volatile Instant lastCheckpointedAt;
+
+    public MovieTrendingIndex(
+            TrendingScoreRepository trendingScoreRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${movie.trending.enabled:false}") boolean enabled,
+            @Value("${movie.trending.half-life:172800000}") Duration halfLife,
+            @Value("${movie.trending.bucket-duration:3600000}") Duration bucketDuration,
+            @Value("${movie.trending.rating-weight:1.0}") double ratingWeight,
+            @Value("${movie.trending.view-weight:0.1}") double viewWeight,
+            @Value("${movie.trending.threshold:0.01}") double threshold) {
+        this.trendingScoreRepository = trendingScoreRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.halfLife = halfLife;
+        this.bucketDuration = bucketDuration;
+        this.ratingWeight = ratingWeight;
+        this.viewWeight = viewWeight;
+        this.threshold = threshold;
+        this.bucketDecay = decay(bucketDuration);
+    }
+
+    /* Restores the last checkpoint; without one, the scores are seeded once from the recent ratings */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        if (!enabled) {
+            log.info("{} is disabled", INDEX);
+            return;
+        }
+
+        log.info(LogMessages.STARTED, "restore");
+        Instant now = Instant.now();
+        List<TrendingScore> trendingScores = trendingScoreRepository.findAll();
+
+        if (!trendingScores.isEmpty()) {
+            trendingScores.forEach(trendingScore -> add(trendingScore.getMovieId(), trendingScore.getGenre(),
+                    trendingScore.getScore() * decay(Duration.between(trendingScore.getCheckpointedAt(), now))));
+        } else {
+            Instant since = now.minus(halfLife.multipliedBy(10));
+            jdbcTemplate.query(FIND_RECENT_RATING_SCORES,
+                    resultSet -> {
+                        String genre = resultSet.getString("genre");
+                        add(resultSet.getInt("movie_id"), (genre != null) ? Genre.valueOf(genre) : null, ratingWeight * resultSet.getDouble("score"));
+                    },
+                    Timestamp.from(now), (double) halfLife.toSeconds(), Timestamp.from(since));
+        }
+
+        lastRolledOverAt = now;
+        ready = true;
+        log.info("{} is restored with {} movies", INDEX, entries.size());
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+
+    public void recordRatings(Integer movieId, Genre genre, long ratingCount) {
+        record(movieId, genre, ratingWeight * ratingCount);
+    }
+
+    public void recordView(Integer movieId, Genre genre) {
+        record(movieId, genre, viewWeight);
+    }
+
+    public void updateGenre(Integer movieId, Genre genre) {
+        if (enabled) {
+            entries.computeIfPresent(movieId, (key, entry) -> new TrendingEntry(entry.score(), genre));
+        }
+    }
+
+    public void remove(Integer movieId) {
+        if (enabled) {
+            entries.remove(movieId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        event.changes().forEach(change -> {
+            Movie movie = change.movie();
+
+            switch (event.type()) {
+                case UPDATED -> updateGenre(movie.getId(), movie.getGenre());
+                case RATED -> {
+                    if (change.votes() > 0) {
+                        recordRatings(movie.getId(), movie.getGenre(), change.votes());
+                    }
+                }
+                case DELETED -> remove(movie.getId());
+            }
+        });
+    }
+
+    public List<Integer> findTrendingMovieIds(Genre genre, int limit) {
+        PriorityQueue<Map.Entry<Integer, TrendingEntry>> topEntries = new PriorityQueue<>(
+                Comparator.comparingDouble((Map.Entry<Integer, TrendingEntry> entry) -> entry.getValue().score()));
+
+        lock.readLock().lock();
+
+        try {
+            for (Map.Entry<Integer, TrendingEntry> entry : entries.entrySet()) {
+                if (genre != null && genre != entry.getValue().genre()) {
+                    continue;
+                }
+
+                topEntries.offer(Map.entry(entry.getKey(), entry.getValue()));
+
+                if (topEntries.size() > limit) {
+                    topEntries.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        LinkedList<Integer> movieIds = new LinkedList<>();
+
+        while (!topEntries.isEmpty()) {
+            movieIds.addFirst(topEntries.poll().getKey());
+        }
+
+        return movieIds;
+    }
+
+    @Scheduled(fixedRateString = "${movie.trending.bucket-duration:3600000}", initialDelayString = "${movie.trending.bucket-duration:3600000}")
+    public void rollOver() {
+        if (!isReady()) {
+            return;
+        }
+
+        lock.writeLock().lock();
+
+        try {
+            entries.replaceAll((movieId, entry) -> new TrendingEntry(entry.score() * bucketDecay, entry.genre()));
+            entries.values().removeIf(entry -> entry.score() < threshold);
+            lastRolledOverAt = Instant.now();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("{} is rolled over, {} movies are trending", INDEX, entries.size());
+    }
+
+    @Scheduled(fixedRateString = "${movie.trending.checkpoint-interval:300000}", initialDelayString = "${movie.trending.checkpoint-interval:300000}")
+    public void checkpoint() {
+        if (!isReady()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        List<Object[]> trendingScores = new ArrayList<>(entries.size());
+
+        lock.readLock().lock();
+
+        try {
+            entries.forEach((movieId, entry) -> trendingScores.add(new Object[]{
+                    movieId, (entry.genre() != null) ? entry.genre().name() : null, entry.score(), Timestamp.from(lastRolledOverAt)}));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_TRENDING_SCORES);
+                jdbcTemplate.batchUpdate(INSERT_TRENDING_SCORE, trendingScores);
+            });
+            lastCheckpointedAt = now;
+            log.info("{} is checkpointed with {} movies", INDEX, trendingScores.size());
+        } catch (DataAccessException exception) {
+            log.error("{} could not be checkpointed. Exception: {}", INDEX, exception.getMessage());
+        }
+    }
+
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+
+        statisticsMap.put("enabled", String.valueOf(enabled));
+        statisticsMap.put("ready", String.valueOf(isReady()));
+        statisticsMap.put("movieCount", String.valueOf(entries.size()));
+        statisticsMap.put("halfLife", halfLife.toString());
+        statisticsMap.put("bucketDuration", bucketDuration.toString());
+        statisticsMap.put("lastRolledOverAt", String.valueOf(lastRolledOverAt));
+        statisticsMap.put("lastCheckpointedAt", String.valueOf(lastCheckpointedAt));
+
+        return new Statistics<>(INDEX, statisticsMap);
+    }
+
+    private void record(Integer movieId, Genre genre, double weight) {
+        if (!isReady()) {
+            return;
+        }
+
+        lock.readLock().lock();
+
+        try {
+            add(movieId, genre, weight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Integer movieId, Genre genre, double weight) {
+        entries.merge(movieId, new TrendingEntry(weight, genre),
+                (previous, current) -> new TrendingEntry(previous.score() + current.score(), current.genre()));
+    }
+
+    private double decay(Duration elapsed) {
+        return Math.pow(0.5, (double) elapsed.toMillis() / halfLife.toMillis());
+    }
+
+    private record TrendingEntry(double score, Genre genre) {
+
+    }
+}
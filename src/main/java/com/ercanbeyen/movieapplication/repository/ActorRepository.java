@@ -1,7 +1,9 @@
 package com.ercanbeyen.movieapplication.repository;
 
+import com.ercanbeyen.movieapplication.dto.MovieCountEntry;
 import com.ercanbeyen.movieapplication.entity.Actor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,11 +11,18 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ActorRepository extends JpaRepository<Actor, Integer> {
+public interface ActorRepository extends JpaRepository<Actor, Integer>, JpaSpecificationExecutor<Actor> {
     @Query("""
             SELECT actor
             FROM Actor actor
             WHERE CONCAT(actor.name, '_', actor.surname) LIKE CONCAT('%', :fullName, '%')
             """)
     List<Actor> findByFullName(@Param("fullName") String fullName);
+    @Query("""
+            SELECT new com.ercanbeyen.movieapplication.dto.MovieCountEntry(actor.id, COUNT(movie.id))
+            FROM Actor actor
+            LEFT JOIN actor.moviesPlayed movie
+            GROUP BY actor.id
+            """)
+    List<MovieCountEntry> findMovieCountEntries();
 }
@@ -1,25 +1,35 @@
 package com.ercanbeyen.movieapplication.repository;
 
+import com.ercanbeyen.movieapplication.dto.AudienceCredentialEntry;
 import com.ercanbeyen.movieapplication.dto.AudienceDto;
 import com.ercanbeyen.movieapplication.entity.Audience;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 @Repository
-public interface AudienceRepository extends JpaRepository<Audience, Integer> {
+public interface AudienceRepository extends JpaRepository<Audience, Integer>, JpaSpecificationExecutor<Audience> {
     @Query("""
-           SELECT audience
+           SELECT new com.ercanbeyen.movieapplication.dto.AudienceCredentialEntry(
+                audience.username, audience.password, role.roleName)
            FROM Audience audience
+           LEFT JOIN audience.roles role
            WHERE audience.username = :username
-           """
-    )
-    Optional<Audience> findAudience(@Param("username") String username);
+           """)
+    List<AudienceCredentialEntry> findCredentialEntries(@Param("username") String username);
+    @Query("SELECT audience.username FROM Audience audience WHERE audience.id = :id")
+    Optional<String> findUsernameById(@Param("id") Integer id);
     CompletableFuture<Audience> findByUsername(String username);
+    @Query("SELECT audience.id FROM Audience audience WHERE audience.id IN :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
     @Query("""
            SELECT new com.ercanbeyen.movieapplication.dto.AudienceDto(
                 audience.id, audience.name, audience.surname, audience.nationality, audience.birthDate)
@@ -1,7 +1,9 @@
 package com.ercanbeyen.movieapplication.repository;
 
+import com.ercanbeyen.movieapplication.dto.MovieCountEntry;
 import com.ercanbeyen.movieapplication.entity.Director;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,11 +11,18 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface DirectorRepository extends JpaRepository<Director, Integer> {
+public interface DirectorRepository extends JpaRepository<Director, Integer>, JpaSpecificationExecutor<Director> {
     @Query("""
            SELECT director
            FROM Director director
            WHERE CONCAT(director.name, '_', director.surname) LIKE CONCAT('%', :fullName, '%')
            """)
     List<Director> findByFullName(@Param("fullName") String fullName);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieCountEntry(director.id, COUNT(movie.id))
+           FROM Director director
+           LEFT JOIN director.moviesDirected movie
+           GROUP BY director.id
+           """)
+    List<MovieCountEntry> findMovieCountEntries();
 }
@@ -0,0 +1,26 @@
+package com.ercanbeyen.movieapplication.repository;
+
+import com.ercanbeyen.movieapplication.document.MovieDocument;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.annotations.Highlight;
+import org.springframework.data.elasticsearch.annotations.HighlightField;
+import org.springframework.data.elasticsearch.annotations.Query;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MovieDocumentRepository extends ElasticsearchRepository<MovieDocument, Integer> {
+    @Highlight(fields = {
+            @HighlightField(name = "title"),
+            @HighlightField(name = "summary"),
+            @HighlightField(name = "directorName"),
+            @HighlightField(name = "actorNames")
+    })
+    @Query("""
+            {"multi_match": {
+                "query": "?0",
+                "fields": ["title^3", "summary", "directorName^2", "actorNames^2"]}}
+            """)
+    SearchHits<MovieDocument> searchByText(String text, Pageable pageable);
+}
@@ -1,15 +1,217 @@
 package com.ercanbeyen.movieapplication.repository;
 
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.dto.MovieActorEntry;
+import com.ercanbeyen.movieapplication.dto.MovieCatalogEntry;
+import com.ercanbeyen.movieapplication.dto.MovieExportEntry;
+import com.ercanbeyen.movieapplication.dto.MovieFeatureEntry;
+import com.ercanbeyen.movieapplication.dto.MovieImdbIdEntry;
+import com.ercanbeyen.movieapplication.dto.MovieLanguageCountEntry;
+import com.ercanbeyen.movieapplication.dto.MovieRatingEntry;
+import com.ercanbeyen.movieapplication.dto.MovieStatisticsEntry;
+import com.ercanbeyen.movieapplication.dto.MovieTitleEntry;
+import com.ercanbeyen.movieapplication.dto.RatingAggregate;
 import com.ercanbeyen.movieapplication.entity.Movie;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Integer> {
-    List<Movie> findByTitleStartingWith(String title);
+public interface MovieRepository extends JpaRepository<Movie, Integer>, JpaSpecificationExecutor<Movie> {
+    List<Movie> findTop10ByTitleStartingWithIgnoreCaseOrderByAverageRatingDesc(String title);
     boolean existsByImdbId(String imdbId);
     Optional<Movie> findByImdbId(String imdbId);
+    @EntityGraph(attributePaths = {"actors", "director"})
+    List<Movie> findByIdIn(Collection<Integer> ids);
+    @Query("SELECT movie.id FROM Movie movie WHERE movie.id > :id ORDER BY movie.id")
+    List<Integer> findIdsAfter(Integer id, Pageable pageable);
+    @Query("SELECT movie.id FROM Movie movie WHERE movie.id IN :ids")
+    Set<Integer> findExistingIds(Collection<Integer> ids);
+    List<Movie> findByImdbIdIn(Collection<String> imdbIds);
+    @Query("SELECT movie.imdbId FROM Movie movie WHERE movie.imdbId IN :imdbIds")
+    Set<String> findExistingImdbIds(Collection<String> imdbIds);
+    List<Movie> findByReleaseYearGreaterThanEqual(Integer releaseYear, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query(value = """
+           UPDATE movies
+           SET rating_sum = rating_sum + :rateDifference,
+               rating_count = rating_count + :countDifference,
+               average_rating = CASE WHEN rating_count + :countDifference = 0 THEN 0
+                                ELSE (rating_sum + :rateDifference) / (rating_count + :countDifference) END
+           WHERE id = :id
+           """, nativeQuery = true)
+    int applyRatingDifference(Integer id, double rateDifference, long countDifference);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.RatingAggregate(movie.ratingSum, movie.ratingCount, movie.averageRating)
+           FROM Movie movie
+           WHERE movie.id = :id
+           """)
+    RatingAggregate findRatingAggregate(Integer id);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.RatingAggregate(
+                SUM(movie.ratingSum), SUM(movie.ratingCount), AVG(movie.averageRating))
+           FROM Movie movie
+           WHERE movie.ratingCount > 0
+           """)
+    RatingAggregate findRatingTotals();
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieRatingEntry(movie.id, movie.genre, movie.ratingSum, movie.ratingCount)
+           FROM Movie movie
+           WHERE movie.ratingCount > 0
+           """)
+    List<MovieRatingEntry> findRatedMovieEntries();
+    @Query("""
+           SELECT movie
+           FROM Movie movie
+           WHERE movie.ratingCount > 0 AND (:genre IS NULL OR movie.genre = :genre)
+           ORDER BY (movie.ratingSum + :minimumVotes * :priorRating) / (movie.ratingCount + :minimumVotes) DESC, movie.id
+           """)
+    List<Movie> findTopRated(Genre genre, double minimumVotes, double priorRating, Pageable pageable);
+    @Query("""
+           SELECT rating.movie.id
+           FROM Rating rating
+           WHERE rating.ratedAt >= :since AND (:genre IS NULL OR rating.movie.genre = :genre)
+           GROUP BY rating.movie.id
+           ORDER BY COUNT(rating) DESC, rating.movie.id
+           """)
+    List<Integer> findMostRatedIdsSince(Genre genre, Instant since, Pageable pageable);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieCatalogEntry(
+                movie.id, movie.genre, movie.language, movie.releaseYear)
+           FROM Movie movie
+           ORDER BY movie.id
+           """)
+    List<MovieCatalogEntry> findCatalogEntries();
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieCatalogEntry(
+                movie.id, movie.genre, movie.language, movie.releaseYear)
+           FROM Movie movie
+           WHERE movie.id > :id
+           ORDER BY movie.id
+           """)
+    List<MovieCatalogEntry> findCatalogEntriesAfter(Integer id, Pageable pageable);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieFeatureEntry(
+                movie.id, director.id, movie.genre)
+           FROM Movie movie
+           LEFT JOIN movie.director director
+           """)
+    List<MovieFeatureEntry> findFeatureEntries();
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieStatisticsEntry(
+                movie.id, movie.title, movie.averageRating, movie.ratingCount, movie.language)
+           FROM Movie movie
+           WHERE movie.averageRating IS NOT NULL
+           ORDER BY movie.averageRating DESC, movie.id
+           """)
+    List<MovieStatisticsEntry> findStatisticsEntriesByHighestAverageRating(Pageable pageable);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieStatisticsEntry(
+                movie.id, movie.title, movie.averageRating, movie.ratingCount, movie.language)
+           FROM Movie movie
+           WHERE movie.averageRating IS NOT NULL
+           ORDER BY movie.averageRating ASC, movie.id
+           """)
+    List<MovieStatisticsEntry> findStatisticsEntriesByLowestAverageRating(Pageable pageable);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieStatisticsEntry(
+                movie.id, movie.title, movie.averageRating, movie.ratingCount, movie.language)
+           FROM Movie movie
+           WHERE movie.id > :id AND movie.ratingCount > 0 AND movie.averageRating IS NOT NULL
+           ORDER BY movie.id
+           """)
+    List<MovieStatisticsEntry> findRatedStatisticsEntriesAfter(Integer id, Pageable pageable);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieLanguageCountEntry(movie.language, COUNT(movie))
+           FROM Movie movie
+           GROUP BY movie.language
+           """)
+    List<MovieLanguageCountEntry> findLanguageCountEntries();
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieActorEntry(movie.id, actor.id)
+           FROM Movie movie
+           JOIN movie.actors actor
+           """)
+    List<MovieActorEntry> findActorEntries();
+    List<Movie> findByGenreAndIdNot(Genre genre, Integer id, Pageable pageable);
+    @Query("""
+           SELECT movie.title
+           FROM Movie movie
+           WHERE movie.averageRating IS NOT NULL
+           ORDER BY movie.averageRating DESC, movie.id
+           """)
+    List<String> findTitlesByHighestAverageRating(Pageable pageable);
+    @Query("""
+           SELECT movie.title
+           FROM Movie movie
+           WHERE movie.averageRating IS NOT NULL
+           ORDER BY movie.averageRating ASC, movie.id
+           """)
+    List<String> findTitlesByLowestAverageRating(Pageable pageable);
+    @Query(value = """
+           SELECT language
+           FROM movies
+           GROUP BY language
+           ORDER BY COUNT(*) DESC, language COLLATE "C"
+           """, nativeQuery = true)
+    List<String> findMostOccurredLanguages(Pageable pageable);
+    @Query(value = """
+           SELECT language
+           FROM movies
+           GROUP BY language
+           ORDER BY COUNT(*) ASC, language COLLATE "C"
+           """, nativeQuery = true)
+    List<String> findLeastOccurredLanguages(Pageable pageable);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieTitleEntry(movie.id, movie.title, movie.averageRating)
+           FROM Movie movie
+           """)
+    List<MovieTitleEntry> findTitleEntries();
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieTitleEntry(movie.id, movie.title, movie.averageRating)
+           FROM Movie movie
+           WHERE movie.id > :id
+           ORDER BY movie.id
+           """)
+    List<MovieTitleEntry> findTitleEntriesAfter(Integer id, Pageable pageable);
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT movie.imdbId FROM Movie movie")
+    Stream<String> streamImdbIds();
+    @Query("SELECT COALESCE(MAX(movie.id), 0) FROM Movie movie")
+    Integer findMaximumId();
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieImdbIdEntry(movie.id, movie.imdbId)
+           FROM Movie movie
+           WHERE movie.id > :id
+           ORDER BY movie.id
+           """)
+    List<MovieImdbIdEntry> findImdbIdEntriesAfter(Integer id, Pageable pageable);
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.MovieExportEntry(
+                movie.id, movie.imdbId, movie.title, movie.language, movie.releaseYear,
+                movie.averageRating, movie.genre, movie.summary, director.id)
+           FROM Movie movie
+           LEFT JOIN movie.director director
+           """)
+    Stream<MovieExportEntry> streamExportEntries();
 }
@@ -0,0 +1,17 @@
+package com.ercanbeyen.movieapplication.repository;
+
+import com.ercanbeyen.movieapplication.entity.PendingRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface PendingRatingRepository extends JpaRepository<PendingRating, Long> {
+    Optional<PendingRating> findFirstByOrderByIdAsc();
+    @Modifying
+    @Query("DELETE FROM PendingRating pendingRating WHERE pendingRating.movieId = :movieId AND pendingRating.audienceId = :audienceId")
+    int deleteByMovieIdAndAudienceId(Integer movieId, Integer audienceId);
+}
@@ -0,0 +1,44 @@
+package com.ercanbeyen.movieapplication.repository;
+
+import com.ercanbeyen.movieapplication.dto.RatingHistogramEntry;
+import com.ercanbeyen.movieapplication.entity.RatingHistogram;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RatingHistogramRepository extends JpaRepository<RatingHistogram, Long> {
+    @Transactional
+    @Modifying
+    @Query(value = """
+           INSERT INTO rating_histograms (movie_id, bucket, rating_count)
+           VALUES (:movieId, :bucket, :difference)
+           ON CONFLICT (movie_id, bucket) DO UPDATE SET rating_count = rating_histograms.rating_count + EXCLUDED.rating_count
+           """, nativeQuery = true)
+    void addToBucket(Integer movieId, Integer bucket, Long difference);
+    @Transactional
+    @Modifying
+    @Query(value = """
+           INSERT INTO rating_histograms (movie_id, bucket, rating_count)
+           SELECT movie_id, LEAST(GREATEST(ROUND(CAST(rate AS NUMERIC)), :minimumBucket), :maximumBucket) AS bucket, COUNT(*)
+           FROM ratings
+           WHERE movie_id IS NOT NULL
+           GROUP BY movie_id, bucket
+           ON CONFLICT (movie_id, bucket) DO NOTHING
+           """, nativeQuery = true)
+    int backfill(Integer minimumBucket, Integer maximumBucket);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.RatingHistogramEntry(histogram.bucket, histogram.ratingCount)
+           FROM RatingHistogram histogram
+           WHERE histogram.movieId = :movieId
+           """)
+    List<RatingHistogramEntry> findEntriesByMovieId(Integer movieId);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RatingHistogram histogram WHERE histogram.movieId = :movieId")
+    void deleteByMovieId(Integer movieId);
+}
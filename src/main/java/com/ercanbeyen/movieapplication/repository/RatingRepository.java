@@ -1,12 +1,27 @@
 package com.ercanbeyen.movieapplication.repository;
 
+import com.ercanbeyen.movieapplication.dto.RatingEntry;
 import com.ercanbeyen.movieapplication.entity.Rating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface RatingRepository extends JpaRepository<Rating, Integer> {
+public interface RatingRepository extends JpaRepository<Rating, Integer>, JpaSpecificationExecutor<Rating> {
     Optional<Rating> findByMovieIdAndAudienceId(Integer movieId, Integer audienceId);
+    @Query("""
+           SELECT new com.ercanbeyen.movieapplication.dto.RatingEntry(
+                rating.id, rating.movie.id, rating.audience.id, rating.rate)
+           FROM Rating rating
+           WHERE rating.audience.id = :audienceId
+           """)
+    List<RatingEntry> findRatingEntriesByAudienceId(Integer audienceId);
+    @Modifying
+    @Query("UPDATE Rating rating SET rating.audience = NULL WHERE rating.audience.id = :audienceId")
+    int detachAudience(Integer audienceId);
 }
@@ -0,0 +1,10 @@
+package com.ercanbeyen.movieapplication.repository;
+
+import com.ercanbeyen.movieapplication.entity.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Integer> {
+
+}
@@ -15,7 +15,7 @@ import java.util.List;
 
 public interface ActorService {
     ActorDto createActor(CreateActorRequest request);
-    PageDto<Actor, ActorDto> getActors(ActorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable);
+    PageDto<Actor, ActorDto> getActors(ActorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable, String after);
     ActorDto getActor(Integer id);
     ActorDto updateActor(Integer id, UpdateActorRequest request);
     String deleteActor(Integer id);
@@ -23,4 +23,5 @@ public interface ActorService {
     List<ActorDto> searchActors(String fullName);
     Actor findActor(Integer id);
     Statistics<String, String> calculateStatistics();
+    Statistics<String, String> calculateApproximateStatistics();
 }
@@ -2,9 +2,11 @@ package com.ercanbeyen.movieapplication.service;
 
 import com.ercanbeyen.movieapplication.dto.AudienceDto;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.RatingDto;
 import com.ercanbeyen.movieapplication.dto.request.auth.RegistrationRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateAudienceRequest;
 import com.ercanbeyen.movieapplication.entity.Audience;
+import com.ercanbeyen.movieapplication.entity.Rating;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 
@@ -13,12 +15,14 @@ import java.util.concurrent.CompletableFuture;
 
 public interface AudienceService {
     void createAudience(RegistrationRequest request);
-    PageDto<Audience, AudienceDto> getAudiences(Pageable pageable);
+    PageDto<Audience, AudienceDto> getAudiences(Pageable pageable, String after);
     AudienceDto getAudience(Integer id);
     AudienceDto getAudience(String username);
     AudienceDto updateAudience(Integer id, UpdateAudienceRequest request, UserDetails userDetails);
     void deleteAudience(Integer id, UserDetails userDetails);
     String updateRolesOfAudience(Integer id, Set<String> roleNames, UserDetails userDetails);
+    PageDto<Rating, RatingDto> getRatingsOfAudience(Integer id, Pageable pageable, String after);
     Audience findAudience(Integer id);
+    String findUsername(Integer id);
     CompletableFuture<Audience> findAudienceAsync(String username);
 }
@@ -24,4 +24,5 @@ public interface CinemaService {
     List<CinemaDto> searchCinemasByStatus(CinemaSearchOptions searchOptions);
     List<CinemaDto> findCinemasByHallRange(Integer lower, Integer higher);
     Statistics<String, String> calculateStatistics();
+    Statistics<String, String> calculateApproximateStatistics();
 }
@@ -14,7 +14,7 @@ import java.util.List;
 
 public interface DirectorService {
     DirectorDto createDirector(CreateDirectorRequest request);
-    PageDto<Director, DirectorDto> getDirectors(DirectorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable);
+    PageDto<Director, DirectorDto> getDirectors(DirectorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable, String after);
     DirectorDto getDirector(Integer id);
     DirectorDto updateDirector(Integer id, UpdateDirectorRequest request);
     String deleteDirector(Integer id);
@@ -22,4 +22,5 @@ public interface DirectorService {
     List<DirectorDto> searchDirectors(String fullName);
     Director findDirector(Integer id);
     Statistics<String, String> calculateStatistics();
+    Statistics<String, String> calculateApproximateStatistics();
 }
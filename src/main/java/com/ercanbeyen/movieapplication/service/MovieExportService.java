@@ -0,0 +1,9 @@
+package com.ercanbeyen.movieapplication.service;
+
+import com.ercanbeyen.movieapplication.constant.enums.DataFormat;
+
+import java.io.OutputStream;
+
+public interface MovieExportService {
+    void exportMovies(OutputStream outputStream, DataFormat format);
+}
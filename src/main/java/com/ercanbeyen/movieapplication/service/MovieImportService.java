@@ -0,0 +1,11 @@
+package com.ercanbeyen.movieapplication.service;
+
+import com.ercanbeyen.movieapplication.constant.enums.DataFormat;
+import com.ercanbeyen.movieapplication.dto.MovieImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface MovieImportService {
+    MovieImportReport importMovies(InputStream inputStream, DataFormat format) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.ercanbeyen.movieapplication.service;
+
+import com.ercanbeyen.movieapplication.document.MovieDocument;
+import com.ercanbeyen.movieapplication.dto.SearchHitDto;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface MovieSearchService {
+    void saveMovie(Movie movie);
+    void saveMovies(List<Movie> movies);
+    void deleteMovie(Integer id);
+    List<SearchHitDto<MovieDocument, MovieDocument>> searchMovies(String text, Pageable pageable);
+    String reindexMovies();
+}
@@ -1,11 +1,13 @@
 package com.ercanbeyen.movieapplication.service;
 
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
 import com.ercanbeyen.movieapplication.dto.MovieDto;
 import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
 import com.ercanbeyen.movieapplication.dto.request.create.CreateMovieRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateMovieRequest;
 import com.ercanbeyen.movieapplication.entity.Movie;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.RatingHistogramDto;
 import com.ercanbeyen.movieapplication.dto.Statistics;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -14,15 +16,30 @@ import java.util.List;
 
 public interface MovieService {
     MovieDto createMovie(CreateMovieRequest request);
-    PageDto<Movie, MovieDto> getMovies(MovieFilteringOptions filteringOptions, String limit, Pageable pageable);
+    PageDto<Movie, MovieDto> getMovies(MovieFilteringOptions filteringOptions, String limit, Pageable pageable, String after);
     MovieDto getMovie(Integer id);
+    List<MovieDto> getMovies(List<Integer> ids);
     MovieDto updateMovie(Integer id, UpdateMovieRequest request);
     String deleteMovie(Integer id);
-    List<MovieDto> getLatestMovies();
+    List<MovieDto> getLatestMovies(Pageable pageable);
+    List<MovieDto> getTopMovies(Genre genre, int limit);
+    String rebuildTopMovies();
+    List<MovieDto> getTrendingMovies(Genre genre, int limit);
+    void recordView(MovieDto movieDto);
+    List<MovieDto> getRecommendedMovies(Integer audienceId, int limit);
+    List<MovieDto> getSimilarMovies(Integer id, int limit);
     List<MovieDto> searchMovies(String title);
     MovieDto getMovie(String imdbId);
     MovieDto rateMovie(Integer id, Double rate, UserDetails userDetails);
+    RatingHistogramDto getRatingHistogram(Integer id);
     MovieDto deleteRatingOfMovie(Integer id, Integer audienceId);
-    Movie updateRatingOfMovie(Movie movie);
+    Movie updateRatingOfMovie(Movie movie, double rateDifference, long countDifference);
     Statistics<String, String> calculateStatistics();
+    Statistics<String, String> calculateApproximateStatistics();
+    Statistics<String, String> getCatalogIndexStatistics();
+    Statistics<String, String> getImdbIdFilterStatistics();
+    Statistics<String, String> getLeaderboardStatistics();
+    Statistics<String, String> getTrendingStatistics();
+    Statistics<String, String> getRecommendationStatistics();
+    Statistics<String, String> getSimilarityIndexStatistics();
 }
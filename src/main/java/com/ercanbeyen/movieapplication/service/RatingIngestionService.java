@@ -0,0 +1,11 @@
+package com.ercanbeyen.movieapplication.service;
+
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public interface RatingIngestionService {
+    boolean isEnabled();
+    String submitRating(Integer movieId, Double rate, UserDetails userDetails);
+    void discardPendingRatings(Integer movieId, Integer audienceId);
+    Statistics<String, String> getStatistics();
+}
@@ -2,15 +2,22 @@ package com.ercanbeyen.movieapplication.service;
 
 import com.ercanbeyen.movieapplication.dto.PageDto;
 import com.ercanbeyen.movieapplication.dto.RatingDto;
-import com.ercanbeyen.movieapplication.entity.Audience;
-import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.dto.RatingEntry;
+import com.ercanbeyen.movieapplication.dto.RatingHistogramDto;
+import com.ercanbeyen.movieapplication.dto.RatingUpsertResult;
 import com.ercanbeyen.movieapplication.entity.Rating;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface RatingService {
-    RatingDto createRating(Audience audience, Movie movie, Double rate);
-    PageDto<Rating, RatingDto> getRatings(Pageable pageable);
+    RatingUpsertResult upsertRating(Integer movieId, Integer audienceId, Double rate);
+    PageDto<Rating, RatingDto> getRatings(Pageable pageable, String after);
+    PageDto<Rating, RatingDto> getRatingsOfAudience(Integer audienceId, Pageable pageable, String after);
+    void detachRatingsOfAudience(Integer audienceId);
+    List<RatingEntry> getRatingEntriesOfAudience(Integer audienceId);
     RatingDto getRating(Integer movieId, Integer audienceId);
-    RatingDto updatedRating(Rating rating, Double rate);
-    void deleteRating(Integer movieId, Integer audienceId);
+    Double deleteRating(Integer movieId, Integer audienceId);
+    RatingHistogramDto getRatingHistogram(Integer movieId);
+    void deleteRatingHistogram(Integer movieId);
 }
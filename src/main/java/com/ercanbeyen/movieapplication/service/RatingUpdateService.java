@@ -0,0 +1,13 @@
+package com.ercanbeyen.movieapplication.service;
+
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collection;
+
+public interface RatingUpdateService {
+    SseEmitter subscribe(Collection<Integer> movieIds);
+    void publish(Movie movie);
+    Statistics<String, String> getStatistics();
+}
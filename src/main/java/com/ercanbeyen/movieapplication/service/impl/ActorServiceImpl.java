@@ -6,27 +6,33 @@ import com.ercanbeyen.movieapplication.constant.message.*;
 import com.ercanbeyen.movieapplication.constant.names.ParameterNames;
 import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
 import com.ercanbeyen.movieapplication.dto.ActorDto;
+import com.ercanbeyen.movieapplication.dto.MovieCountEntry;
 import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.dto.converter.ActorDtoConverter;
 import com.ercanbeyen.movieapplication.option.filter.ActorFilteringOptions;
 import com.ercanbeyen.movieapplication.dto.request.create.CreateActorRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateActorRequest;
 import com.ercanbeyen.movieapplication.entity.Actor;
+import com.ercanbeyen.movieapplication.exception.InvalidCursorException;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.movieapplication.repository.ActorRepository;
 import com.ercanbeyen.movieapplication.service.ActorService;
+import com.ercanbeyen.movieapplication.specification.ActorSpecification;
+import com.ercanbeyen.movieapplication.statistics.ActorStatisticsTracker;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.function.Predicate;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +40,7 @@ import java.util.function.Predicate;
 public class ActorServiceImpl implements ActorService {
     private final ActorRepository actorRepository;
     private final ActorDtoConverter actorDtoConverter;
+    private final ActorStatisticsTracker actorStatisticsTracker;
 
     @Override
     public ActorDto createActor(CreateActorRequest request) {
@@ -48,47 +55,41 @@ public class ActorServiceImpl implements ActorService {
 
         Actor savedActor = actorRepository.save(newActor);
         log.info(LogMessages.SAVED, ResourceNames.ACTOR);
+        actorStatisticsTracker.put(savedActor.getId());
 
         return actorDtoConverter.convert(savedActor);
     }
 
     @Override
-    public PageDto<Actor, ActorDto> getActors(ActorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable) {
-        Page<Actor> actorPage = actorRepository.findAll(pageable);
-        log.info(LogMessages.FETCHED_ALL, ResourceNames.ACTOR);
-
-        Predicate<Actor> actorPredicate = (actor) -> ((filteringOptions.movieId() == null || filteringOptions.movieId().intValue() == filteringOptions.movieId().intValue())) && (StringUtils.isBlank(filteringOptions.nationality()) || actor.getNationality().equals(filteringOptions.nationality()))
-                && (filteringOptions.birthYear() == null || actor.getBirthDate().getYear() == filteringOptions.birthYear());
-
-        long maximumSize = Long.parseLong(limit);
-        List<ActorDto> actorDtoList;
-
-        if (orderBy == null) {
-            log.info(LogMessages.REQUEST_PARAMETER_NULL, ParameterNames.ORDER_BY);
-
-            actorDtoList = actorPage.stream()
-                    .filter(actorPredicate)
-                    .limit(maximumSize)
+    public PageDto<Actor, ActorDto> getActors(ActorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable, String after) {
+        int maximumSize = Integer.parseInt(limit);
+        Pageable limitedPageable = (pageable.isPaged() && pageable.getPageSize() > maximumSize)
+                ? PageRequest.of(pageable.getPageNumber(), maximumSize, pageable.getSort())
+                : pageable;
+
+        /* Movie count is not a column, so it cannot be a keyset and ordering by it would only hold within one window */
+        if (after != null) {
+            if (orderBy != null) {
+                throw new InvalidCursorException(ResponseMessages.CURSOR_ORDER_BY_UNSUPPORTED);
+            }
+
+            Window<Actor> actorWindow = actorRepository.findBy(ActorSpecification.filterBy(filteringOptions), query -> query
+                    .sortBy(limitedPageable.getSort())
+                    .limit(limitedPageable.getPageSize())
+                    .scroll(CursorUtil.decode(after, limitedPageable.getSort(), Actor.class)));
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.ACTOR);
+
+            List<ActorDto> actorDtoList = actorWindow.stream()
                     .map(actorDtoConverter::convert)
                     .toList();
-        } else {
-            log.info(LogMessages.ORDER_BY_VALUE, orderBy.getOrderByInfo());
-            Comparator<Actor> actorAscendingComparator = Comparator.comparing(actor -> actor.getMoviesPlayed().size());
 
-            Comparator<Actor> actorComparator = switch (orderBy) {
-                case ASC -> actorAscendingComparator;
-                case DESC -> actorAscendingComparator.reversed();
-            };
-
-            actorDtoList = actorPage.stream()
-                    .filter(actorPredicate)
-                    .sorted(actorComparator)
-                    .limit(maximumSize)
-                    .map(actorDtoConverter::convert)
-                    .toList();
+            return new PageDto<>(actorWindow, limitedPageable, actorDtoList);
         }
 
-        return new PageDto<>(actorPage, actorDtoList);
+        Page<Actor> actorPage = actorRepository.findAll(ActorSpecification.filterBy(filteringOptions), limitedPageable);
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.ACTOR);
+
+        return new PageDto<>(actorPage, orderActors(actorPage, orderBy));
     }
 
     @Cacheable(value = "actors", key = "#id", unless = "#result.moviesPlayed.size() < 2")
@@ -125,6 +126,7 @@ public class ActorServiceImpl implements ActorService {
                 });
 
         log.info(LogMessages.DELETED, ResourceNames.ACTOR);
+        actorStatisticsTracker.remove(id);
         return ResponseMessages.SUCCESS;
     }
 
@@ -157,11 +159,15 @@ public class ActorServiceImpl implements ActorService {
 
     @Override
     public Statistics<String, String> calculateStatistics() {
-        Map<String, String> statisticsMap = new HashMap<>();
-        List<Actor> actorList = actorRepository.findAll();
+        if (actorStatisticsTracker.isReady()) {
+            return actorStatisticsTracker.getSnapshot();
+        }
 
-        DoubleSummaryStatistics summaryStatistics = actorList.stream()
-                .mapToDouble(actor -> actor.getMoviesPlayed().size())
+        /* One grouped query returns the movie count of every actor, so no movie collection is loaded */
+        Map<String, String> statisticsMap = new HashMap<>();
+        DoubleSummaryStatistics summaryStatistics = actorRepository.findMovieCountEntries()
+                .stream()
+                .mapToDouble(MovieCountEntry::movieCount)
                 .summaryStatistics();
 
         statisticsMap.put("mostPlayedCount", String.valueOf(summaryStatistics.getMax()));
@@ -173,6 +179,38 @@ public class ActorServiceImpl implements ActorService {
         return new Statistics<>(ResourceNames.ACTOR, statisticsMap);
     }
 
+    @Override
+    public Statistics<String, String> calculateApproximateStatistics() {
+        return actorStatisticsTracker.isReady() ? actorStatisticsTracker.getApproximateSnapshot() : calculateStatistics();
+    }
+
+    private List<ActorDto> orderActors(Streamable<Actor> actors, OrderBy orderBy) {
+        List<ActorDto> actorDtoList;
+
+        if (orderBy == null) {
+            log.info(LogMessages.REQUEST_PARAMETER_NULL, ParameterNames.ORDER_BY);
+
+            actorDtoList = actors.stream()
+                    .map(actorDtoConverter::convert)
+                    .toList();
+        } else {
+            log.info(LogMessages.ORDER_BY_VALUE, orderBy.getOrderByInfo());
+            Comparator<Actor> actorAscendingComparator = Comparator.comparing(actor -> actor.getMoviesPlayed().size());
+
+            Comparator<Actor> actorComparator = switch (orderBy) {
+                case ASC -> actorAscendingComparator;
+                case DESC -> actorAscendingComparator.reversed();
+            };
+
+            actorDtoList = actors.stream()
+                    .sorted(actorComparator)
+                    .map(actorDtoConverter::convert)
+                    .toList();
+        }
+
+        return actorDtoList;
+    }
+
     private Actor findActorById(Integer id) {
         return actorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.ACTOR)));
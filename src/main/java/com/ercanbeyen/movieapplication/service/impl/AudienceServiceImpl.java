@@ -4,24 +4,32 @@ import com.ercanbeyen.movieapplication.constant.message.LogMessages;
 import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
 import com.ercanbeyen.movieapplication.constant.names.RoleNames;
+import com.ercanbeyen.movieapplication.dto.AudienceCredentialEntry;
 import com.ercanbeyen.movieapplication.dto.AudienceDto;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.RatingDto;
 import com.ercanbeyen.movieapplication.dto.converter.AudienceDtoConverter;
 import com.ercanbeyen.movieapplication.dto.request.auth.RegistrationRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateAudienceRequest;
 import com.ercanbeyen.movieapplication.entity.Audience;
+import com.ercanbeyen.movieapplication.entity.Rating;
 import com.ercanbeyen.movieapplication.entity.Role;
 import com.ercanbeyen.movieapplication.exception.ResourceConflictException;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.movieapplication.repository.AudienceRepository;
 import com.ercanbeyen.movieapplication.service.AudienceService;
+import com.ercanbeyen.movieapplication.service.RatingService;
 import com.ercanbeyen.movieapplication.service.RoleService;
+import com.ercanbeyen.movieapplication.util.CursorUtil;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -30,6 +38,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -42,6 +51,7 @@ public class AudienceServiceImpl implements AudienceService, UserDetailsService
     private final AudienceDtoConverter audienceDtoConverter;
     private final PasswordEncoder passwordEncoder;
     private final RoleService roleService;
+    private final RatingService ratingService;
 
     @Override
     public void createAudience(RegistrationRequest request) {
@@ -63,7 +73,21 @@ public class AudienceServiceImpl implements AudienceService, UserDetailsService
     }
 
     @Override
-    public PageDto<Audience, AudienceDto> getAudiences(Pageable pageable) {
+    public PageDto<Audience, AudienceDto> getAudiences(Pageable pageable, String after) {
+        if (after != null) {
+            Window<Audience> audienceWindow = audienceRepository.findBy(Specification.where(null), query -> query
+                    .sortBy(pageable.getSort())
+                    .limit(pageable.getPageSize())
+                    .scroll(CursorUtil.decode(after, pageable.getSort(), Audience.class)));
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.AUDIENCE);
+
+            List<AudienceDto> audienceDtoList = audienceWindow.stream()
+                    .map(audienceDtoConverter::convert)
+                    .toList();
+
+            return new PageDto<>(audienceWindow, pageable, audienceDtoList);
+        }
+
         Page<Audience> audiencePage = audienceRepository.findAll(pageable);
         log.info(LogMessages.FETCHED_ALL, ResourceNames.AUDIENCE);
 
@@ -109,8 +133,7 @@ public class AudienceServiceImpl implements AudienceService, UserDetailsService
     public void deleteAudience(Integer id, UserDetails userDetails) {
         audienceRepository.findById(id)
                 .ifPresentOrElse(audience -> {
-                    audience.getRatings().forEach(rating -> rating.setAudience(null));
-                    audience.setRatings(null);
+                    ratingService.detachRatingsOfAudience(audience.getId());
                     audienceRepository.delete(audience);
                     log.info(LogMessages.DELETED, ResourceNames.AUDIENCE);
                     }, () -> {
@@ -143,10 +166,31 @@ public class AudienceServiceImpl implements AudienceService, UserDetailsService
         return ResponseMessages.SUCCESS;
     }
 
+    @Override
+    public PageDto<Rating, RatingDto> getRatingsOfAudience(Integer id, Pageable pageable, String after) {
+        if (!audienceRepository.existsById(id)) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.AUDIENCE));
+        }
+
+        return ratingService.getRatingsOfAudience(id, pageable, after);
+    }
+
+    /* Authentication reads only the credentials and role names, never the profile of the audience */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Audience audience = findAudienceByUsername(username);
-        return new User(username, audience.getPassword(), audience.getAuthorities());
+        List<AudienceCredentialEntry> credentialEntries = audienceRepository.findCredentialEntries(username);
+
+        if (credentialEntries.isEmpty()) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.AUDIENCE));
+        }
+
+        List<SimpleGrantedAuthority> authorities = credentialEntries.stream()
+                .map(AudienceCredentialEntry::roleName)
+                .filter(Objects::nonNull)
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+
+        return new User(username, credentialEntries.get(0).password(), authorities);
     }
 
     @Override
@@ -154,6 +198,12 @@ public class AudienceServiceImpl implements AudienceService, UserDetailsService
         return findAudienceById(id);
     }
 
+    @Override
+    public String findUsername(Integer id) {
+        return audienceRepository.findUsernameById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.AUDIENCE)));
+    }
+
     @Async
     @Override
     public CompletableFuture<Audience> findAudienceAsync(String username) {
@@ -164,9 +214,4 @@ public class AudienceServiceImpl implements AudienceService, UserDetailsService
         return audienceRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.AUDIENCE)));
     }
-
-    private Audience findAudienceByUsername(String username) {
-        return audienceRepository.findAudience(username)
-                .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.AUDIENCE)));
-    }
 }
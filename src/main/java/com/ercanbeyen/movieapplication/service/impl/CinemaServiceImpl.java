@@ -13,6 +13,7 @@ import com.ercanbeyen.movieapplication.document.Cinema;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.movieapplication.repository.CinemaRepository;
 import com.ercanbeyen.movieapplication.service.CinemaService;
+import com.ercanbeyen.movieapplication.statistics.CinemaStatisticsTracker;
 import com.ercanbeyen.movieapplication.dto.PageDto;
 import com.ercanbeyen.movieapplication.dto.SearchHitDto;
 import com.ercanbeyen.movieapplication.util.StatisticsUtil;
@@ -39,6 +40,7 @@ public class CinemaServiceImpl implements CinemaService {
     private final CinemaRepository cinemaRepository;
     private final CinemaDtoConverter cinemaDtoConverter;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final CinemaStatisticsTracker cinemaStatisticsTracker;
     private static final String CINEMA_INDEX = "cinema";
 
     @Override
@@ -59,6 +61,7 @@ public class CinemaServiceImpl implements CinemaService {
 
         Cinema savedCinema = cinemaRepository.save(newCinema);
         log.info(LogMessages.SAVED, ResourceNames.CINEMA);
+        cinemaStatisticsTracker.add(savedCinema);
 
         return cinemaDtoConverter.convert(savedCinema);
     }
@@ -86,6 +89,7 @@ public class CinemaServiceImpl implements CinemaService {
     @Override
     public CinemaDto updateCinema(String id, UpdateCinemaRequest request) {
         Cinema cinemaInDb = findCinemaById(id);
+        CinemaStatisticsTracker.Location previousLocation = CinemaStatisticsTracker.Location.of(cinemaInDb);
 
         cinemaInDb.setName(request.getName());
         cinemaInDb.setCountry(request.getCountry());
@@ -102,18 +106,18 @@ public class CinemaServiceImpl implements CinemaService {
 
         Cinema savedCinema = cinemaRepository.save(cinemaInDb);
         log.info(LogMessages.SAVED, ResourceNames.CINEMA);
+        cinemaStatisticsTracker.replace(previousLocation, savedCinema);
 
         return cinemaDtoConverter.convert(savedCinema);
     }
 
     @Override
     public String deleteCinema(String id) {
-        cinemaRepository.findById(id)
-                .ifPresentOrElse(cinemaRepository::delete, () -> {
-                    throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.CINEMA));
-                });
+        Cinema cinemaInDb = findCinemaById(id);
+        cinemaRepository.delete(cinemaInDb);
 
         log.info(LogMessages.DELETED, ResourceNames.CINEMA);
+        cinemaStatisticsTracker.remove(cinemaInDb);
         return ResponseMessages.SUCCESS;
     }
 
@@ -191,6 +195,10 @@ public class CinemaServiceImpl implements CinemaService {
 
     @Override
     public Statistics<String, String> calculateStatistics() {
+        if (cinemaStatisticsTracker.isReady() && !cinemaStatisticsTracker.isApproximate()) {
+            return cinemaStatisticsTracker.getSnapshot();
+        }
+
         Map<String, String> statisticsMap = new HashMap<>();
         List<Cinema> cinemaList = StatisticsUtil.convertIterableToList(cinemaRepository.findAll());
 
@@ -238,6 +246,11 @@ public class CinemaServiceImpl implements CinemaService {
         return new Statistics<>(ResourceNames.CINEMA, statisticsMap);
     }
 
+    @Override
+    public Statistics<String, String> calculateApproximateStatistics() {
+        return cinemaStatisticsTracker.isReady() ? cinemaStatisticsTracker.getApproximateSnapshot() : calculateStatistics();
+    }
+
 
     public List<SearchHitDto<CinemaDto, Cinema>> convertSearchHitList(List<SearchHit<Cinema>> searchHits) {
         List<SearchHitDto<CinemaDto, Cinema>> searchHitDtoList = new ArrayList<>();
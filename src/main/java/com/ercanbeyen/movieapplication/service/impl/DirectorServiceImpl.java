@@ -6,27 +6,33 @@ import com.ercanbeyen.movieapplication.constant.message.*;
 import com.ercanbeyen.movieapplication.constant.names.ParameterNames;
 import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
 import com.ercanbeyen.movieapplication.dto.DirectorDto;
+import com.ercanbeyen.movieapplication.dto.MovieCountEntry;
 import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.dto.converter.DirectorDtoConverter;
 import com.ercanbeyen.movieapplication.option.filter.DirectorFilteringOptions;
 import com.ercanbeyen.movieapplication.dto.request.create.CreateDirectorRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateDirectorRequest;
 import com.ercanbeyen.movieapplication.entity.Director;
+import com.ercanbeyen.movieapplication.exception.InvalidCursorException;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
 import com.ercanbeyen.movieapplication.repository.DirectorRepository;
 import com.ercanbeyen.movieapplication.service.DirectorService;
+import com.ercanbeyen.movieapplication.specification.DirectorSpecification;
+import com.ercanbeyen.movieapplication.statistics.DirectorStatisticsTracker;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +41,7 @@ import java.util.stream.Collectors;
 public class DirectorServiceImpl implements DirectorService {
     private final DirectorRepository directorRepository;
     private final DirectorDtoConverter directorDtoConverter;
+    private final DirectorStatisticsTracker directorStatisticsTracker;
 
     @Override
     public DirectorDto createDirector(CreateDirectorRequest request) {
@@ -49,47 +56,41 @@ public class DirectorServiceImpl implements DirectorService {
 
         Director savedDirector = directorRepository.save(newDirector);
         log.info(LogMessages.SAVED, ResourceNames.DIRECTOR);
+        directorStatisticsTracker.put(savedDirector.getId());
 
         return directorDtoConverter.convert(savedDirector);
     }
 
     @Override
-    public PageDto<Director, DirectorDto> getDirectors(DirectorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable) {
-        Page<Director> directorPage = directorRepository.findAll(pageable);
-        log.info(LogMessages.FETCHED_ALL, ResourceNames.DIRECTOR);
-
-        Predicate<Director> directorPredicate = (director) -> ((StringUtils.isBlank(filteringOptions.nationality()) || director.getNationality().equals(filteringOptions.nationality()))
-                && (filteringOptions.birthYear() == null || director.getBirthDate().getYear() == filteringOptions.birthYear()));
-
-        long maximumSize = Long.parseLong(limit);
-        List<DirectorDto> directorDtoList;
-
-        if (orderBy == null) {
-            log.info(LogMessages.REQUEST_PARAMETER_NULL, ParameterNames.ORDER_BY);
-
-            directorDtoList = directorPage.stream()
-                    .filter(directorPredicate)
-                    .limit(maximumSize)
+    public PageDto<Director, DirectorDto> getDirectors(DirectorFilteringOptions filteringOptions, OrderBy orderBy, String limit, Pageable pageable, String after) {
+        int maximumSize = Integer.parseInt(limit);
+        Pageable limitedPageable = (pageable.isPaged() && pageable.getPageSize() > maximumSize)
+                ? PageRequest.of(pageable.getPageNumber(), maximumSize, pageable.getSort())
+                : pageable;
+
+        /* Movie count is not a column, so it cannot be a keyset and ordering by it would only hold within one window */
+        if (after != null) {
+            if (orderBy != null) {
+                throw new InvalidCursorException(ResponseMessages.CURSOR_ORDER_BY_UNSUPPORTED);
+            }
+
+            Window<Director> directorWindow = directorRepository.findBy(DirectorSpecification.filterBy(filteringOptions), query -> query
+                    .sortBy(limitedPageable.getSort())
+                    .limit(limitedPageable.getPageSize())
+                    .scroll(CursorUtil.decode(after, limitedPageable.getSort(), Director.class)));
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.DIRECTOR);
+
+            List<DirectorDto> directorDtoList = directorWindow.stream()
                     .map(directorDtoConverter::convert)
                     .toList();
-        } else {
-            log.info(LogMessages.ORDER_BY_VALUE, orderBy.getOrderByInfo());
-            Comparator<Director> directorAscendingComparator = Comparator.comparing(director -> director.getMoviesDirected().size());
 
-            Comparator<Director> directorComparator = switch (orderBy) {
-                case ASC -> directorAscendingComparator;
-                case DESC -> directorAscendingComparator.reversed();
-            };
-
-            directorDtoList = directorPage.stream()
-                    .filter(directorPredicate)
-                    .sorted(directorComparator)
-                    .limit(maximumSize)
-                    .map(directorDtoConverter::convert)
-                    .toList();
+            return new PageDto<>(directorWindow, limitedPageable, directorDtoList);
         }
 
-        return new PageDto<>(directorPage, directorDtoList);
+        Page<Director> directorPage = directorRepository.findAll(DirectorSpecification.filterBy(filteringOptions), limitedPageable);
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.DIRECTOR);
+
+        return new PageDto<>(directorPage, orderDirectors(directorPage, orderBy));
     }
 
     @Cacheable(value = "directors", key = "#id", unless = "#result.moviesDirected.size() < 2")
@@ -126,6 +127,7 @@ public class DirectorServiceImpl implements DirectorService {
                 });
 
         log.info(LogMessages.DELETED, ResourceNames.DIRECTOR);
+        directorStatisticsTracker.remove(id);
         return ResponseMessages.SUCCESS;
     }
 
@@ -160,11 +162,15 @@ public class DirectorServiceImpl implements DirectorService {
 
     @Override
     public Statistics<String, String> calculateStatistics() {
-        Map<String, String> statisticsMap = new HashMap<>();
-        List<Director> directorList = directorRepository.findAll();
+        if (directorStatisticsTracker.isReady()) {
+            return directorStatisticsTracker.getSnapshot();
+        }
 
-        DoubleSummaryStatistics summaryStatistics = directorList.stream()
-                .mapToDouble(director -> director.getMoviesDirected().size())
+        /* One grouped query returns the movie count of every director, so no movie collection is loaded */
+        Map<String, String> statisticsMap = new HashMap<>();
+        DoubleSummaryStatistics summaryStatistics = directorRepository.findMovieCountEntries()
+                .stream()
+                .mapToDouble(MovieCountEntry::movieCount)
                 .summaryStatistics();
 
         statisticsMap.put("mostDirectedCount", String.valueOf(summaryStatistics.getMax()));
@@ -176,6 +182,38 @@ public class DirectorServiceImpl implements DirectorService {
         return new Statistics<>(ResourceNames.DIRECTOR, statisticsMap);
     }
 
+    @Override
+    public Statistics<String, String> calculateApproximateStatistics() {
+        return directorStatisticsTracker.isReady() ? directorStatisticsTracker.getApproximateSnapshot() : calculateStatistics();
+    }
+
+    private List<DirectorDto> orderDirectors(Streamable<Director> directors, OrderBy orderBy) {
+        List<DirectorDto> directorDtoList;
+
+        if (orderBy == null) {
+            log.info(LogMessages.REQUEST_PARAMETER_NULL, ParameterNames.ORDER_BY);
+
+            directorDtoList = directors.stream()
+                    .map(directorDtoConverter::convert)
+                    .toList();
+        } else {
+            log.info(LogMessages.ORDER_BY_VALUE, orderBy.getOrderByInfo());
+            Comparator<Director> directorAscendingComparator = Comparator.comparing(director -> director.getMoviesDirected().size());
+
+            Comparator<Director> directorComparator = switch (orderBy) {
+                case ASC -> directorAscendingComparator;
+                case DESC -> directorAscendingComparator.reversed();
+            };
+
+            directorDtoList = directors.stream()
+                    .sorted(directorComparator)
+                    .map(directorDtoConverter::convert)
+                    .toList();
+        }
+
+        return directorDtoList;
+    }
+
     private Director findDirectorById(Integer id) {
         return directorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.DIRECTOR)));
@@ -0,0 +1,89 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.enums.DataFormat;
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.dto.MovieExportEntry;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.service.MovieExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieExportServiceImpl implements MovieExportService {
+    private static final String CSV_HEADER = "id,imdbId,title,language,releaseYear,averageRating,genre,summary,directorId";
+    private final MovieRepository movieRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    /*
+     * Rows are projections read through a forward-only cursor, so nothing is kept in the persistence context
+     * and each row becomes garbage as soon as it is written.
+     */
+    @Override
+    public void exportMovies(OutputStream outputStream, DataFormat format) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        AtomicLong count = new AtomicLong();
+
+        TransactionTemplate readOnlyTemplate = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        readOnlyTemplate.setReadOnly(true);
+
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<MovieExportEntry> movieStream = movieRepository.streamExportEntries()) {
+                if (format == DataFormat.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+
+                for (MovieExportEntry entry : (Iterable<MovieExportEntry>) movieStream::iterator) {
+                    writer.write(format == DataFormat.CSV ? toCsvLine(entry) : objectMapper.writeValueAsString(entry));
+                    writer.write('\n');
+                    count.incrementAndGet();
+                }
+
+                writer.flush();
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+
+        log.info("{} {}s are exported", count.get(), ResourceNames.MOVIE);
+    }
+
+    private static String toCsvLine(MovieExportEntry entry) {
+        return String.join(",",
+                toCsvValue(entry.id()),
+                toCsvValue(entry.imdbId()),
+                toCsvValue(entry.title()),
+                toCsvValue(entry.language()),
+                toCsvValue(entry.releaseYear()),
+                toCsvValue(entry.averageRating()),
+                toCsvValue(entry.genre()),
+                toCsvValue(entry.summary()),
+                toCsvValue(entry.directorId()));
+    }
+
+    private static String toCsvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+
+        String text = value.toString();
+
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+
+        return text;
+    }
+}
@@ -0,0 +1,285 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.enums.DataFormat;
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.constant.enums.ImportStatus;
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.dto.MovieImportReport;
+import com.ercanbeyen.movieapplication.dto.MovieImportResult;
+import com.ercanbeyen.movieapplication.dto.request.create.CreateMovieRequest;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.exception.InvalidImportException;
+import com.ercanbeyen.movieapplication.index.ImdbIdFilter;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.service.MovieImportService;
+import com.ercanbeyen.movieapplication.service.MovieSearchService;
+import com.ercanbeyen.movieapplication.util.CsvRecordReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieImportServiceImpl implements MovieImportService {
+    private static final String INSERT_MOVIE = """
+            INSERT INTO movies (imdb_id, title, language, release_year, average_rating, rating_sum, rating_count, genre, summary)
+            VALUES (?, ?, ?, ?, ?, 0, 0, ?, ?)
+            """;
+    private static final List<String> CSV_COLUMNS = List.of("imdbId", "title", "language", "releaseYear", "genre", "summary");
+    private final MovieRepository movieRepository;
+    private final ImdbIdFilter imdbIdFilter;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final MovieSearchService movieSearchService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    @Value("${movie.import.chunk-size:1000}")
+    private int chunkSize;
+
+    /*
+     * JSON rows are read line by line and CSV rows record by record, so quoted values may span lines.
+     * Rows are flushed chunk by chunk, so memory is bounded by the chunk size and the report.
+     * Each chunk is deduplicated with a single IN query and written with one JDBC batch in its own transaction;
+     * earlier chunks are already committed, so duplicates across chunks are caught by the same query.
+     */
+    @CacheEvict(value = "latestMovies", allEntries = true)
+    @Override
+    public MovieImportReport importMovies(InputStream inputStream, DataFormat format) throws IOException {
+        List<MovieImportResult> results = new ArrayList<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            if (format == DataFormat.CSV) {
+                readCsvRows(new CsvRecordReader(reader), chunk, results);
+            } else {
+                readJsonRows(reader, chunk, results);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, results);
+        }
+
+        long imported = results.stream()
+                .filter(result -> result.status() == ImportStatus.IMPORTED)
+                .count();
+        log.info("{} of {} {}s are imported", imported, results.size(), ResourceNames.MOVIE);
+
+        return new MovieImportReport(results.size(), imported, results.size() - imported, results);
+    }
+
+    private void readJsonRows(BufferedReader reader, List<ImportRow> chunk, List<MovieImportResult> results) throws IOException {
+        long rowNumber = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            if (StringUtils.isNotBlank(line)) {
+                addRow(parseJsonRow(++rowNumber, line), chunk, results);
+            }
+        }
+    }
+
+    private void readCsvRows(CsvRecordReader csvRecordReader, List<ImportRow> chunk, List<MovieImportResult> results) throws IOException {
+        Map<String, Integer> csvHeader = readCsvHeader(csvRecordReader);
+        long rowNumber = 0;
+        List<String> values;
+
+        while (true) {
+            try {
+                values = csvRecordReader.readRecord();
+            } catch (IllegalArgumentException exception) {
+                addRow(new ImportRow(++rowNumber, null, null, exception.getMessage()), chunk, results);
+                return;
+            }
+
+            if (values == null) {
+                return;
+            }
+
+            if (values.size() > 1 || StringUtils.isNotBlank(values.get(0))) {
+                addRow(parseCsvRow(++rowNumber, values, csvHeader), chunk, results);
+            }
+        }
+    }
+
+    private void addRow(ImportRow row, List<ImportRow> chunk, List<MovieImportResult> results) {
+        chunk.add(row);
+
+        if (chunk.size() == chunkSize) {
+            importChunk(chunk, results);
+            chunk.clear();
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk, List<MovieImportResult> results) {
+        Set<String> imdbIds = chunk.stream()
+                .filter(row -> row.request() != null)
+                .map(row -> row.request().getImdbId())
+                .collect(Collectors.toSet());
+
+        Set<String> existingImdbIds = imdbIds.isEmpty() ? Set.of() : movieRepository.findExistingImdbIds(imdbIds);
+        Set<String> chunkImdbIds = new HashSet<>();
+        List<ImportRow> newRows = new ArrayList<>();
+        List<MovieImportResult> chunkResults = new ArrayList<>(chunk.size());
+
+        for (ImportRow row : chunk) {
+            if (row.request() == null) {
+                chunkResults.add(new MovieImportResult(row.number(), row.imdbId(), ImportStatus.INVALID, row.error()));
+            } else if (existingImdbIds.contains(row.imdbId()) || !chunkImdbIds.add(row.imdbId())) {
+                chunkResults.add(new MovieImportResult(row.number(), row.imdbId(), ImportStatus.DUPLICATE, String.format(ResponseMessages.ALREADY_EXISTS, ResourceNames.MOVIE)));
+            } else {
+                newRows.add(row);
+                chunkResults.add(new MovieImportResult(row.number(), row.imdbId(), ImportStatus.IMPORTED, null));
+            }
+        }
+
+        if (!newRows.isEmpty()) {
+            try {
+                chunkImdbIds.forEach(imdbIdFilter::put);
+                transactionTemplate.executeWithoutResult(status -> insertMovies(newRows));
+                log.info(LogMessages.SAVED, newRows.size() + " " + ResourceNames.MOVIE);
+                synchronizeIndexes(chunkImdbIds);
+            } catch (DataAccessException exception) {
+                log.error("{} chunk could not be imported. Exception: {}", ResourceNames.MOVIE, exception.getMessage());
+                chunkResults.replaceAll(result -> result.status() == ImportStatus.IMPORTED
+                        ? new MovieImportResult(result.row(), result.imdbId(), ImportStatus.FAILED, exception.getMostSpecificCause().getMessage())
+                        : result);
+            }
+        }
+
+        results.addAll(chunkResults);
+    }
+
+    private void insertMovies(List<ImportRow> rows) {
+        jdbcTemplate.batchUpdate(INSERT_MOVIE, rows, rows.size(), (preparedStatement, row) -> {
+            CreateMovieRequest request = row.request();
+            preparedStatement.setString(1, request.getImdbId());
+            preparedStatement.setString(2, request.getTitle());
+            preparedStatement.setString(3, request.getLanguage());
+            preparedStatement.setInt(4, request.getReleaseYear());
+            preparedStatement.setDouble(5, 0d);
+
+            if (request.getGenre() != null) {
+                preparedStatement.setString(6, request.getGenre().name());
+            } else {
+                preparedStatement.setNull(6, Types.VARCHAR);
+            }
+
+            preparedStatement.setString(7, request.getSummary());
+        });
+    }
+
+    private void synchronizeIndexes(Set<String> imdbIds) {
+        List<Movie> importedMovies = movieRepository.findByImdbIdIn(imdbIds);
+        applicationEventPublisher.publishEvent(MovieChangedEvent.created(importedMovies));
+        movieSearchService.saveMovies(importedMovies);
+    }
+
+    private ImportRow parseJsonRow(long rowNumber, String line) {
+        try {
+            return validateRow(rowNumber, objectMapper.readValue(line, CreateMovieRequest.class));
+        } catch (JsonProcessingException exception) {
+            return new ImportRow(rowNumber, null, null, exception.getMessage());
+        }
+    }
+
+    private ImportRow parseCsvRow(long rowNumber, List<String> values, Map<String, Integer> csvHeader) {
+        try {
+            return validateRow(rowNumber, readCsvRow(values, csvHeader));
+        } catch (IllegalArgumentException exception) {
+            return new ImportRow(rowNumber, null, null, exception.getMessage());
+        }
+    }
+
+    private ImportRow validateRow(long rowNumber, CreateMovieRequest request) {
+        Set<ConstraintViolation<CreateMovieRequest>> violations = validator.validate(request);
+
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            return new ImportRow(rowNumber, request.getImdbId(), null, error);
+        }
+
+        return new ImportRow(rowNumber, request.getImdbId(), request, null);
+    }
+
+    /* Without a header no row can be read, so the whole file is rejected instead of being reported row by row */
+    private static Map<String, Integer> readCsvHeader(CsvRecordReader csvRecordReader) throws IOException {
+        List<String> columns;
+
+        try {
+            columns = csvRecordReader.readRecord();
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidImportException(exception.getMessage());
+        }
+
+        if (columns == null) {
+            throw new InvalidImportException(ResponseMessages.CSV_HEADER_MISSING);
+        }
+
+        Map<String, Integer> header = new HashMap<>();
+
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+
+        if (!header.keySet().containsAll(CSV_COLUMNS)) {
+            throw new InvalidImportException(String.format(ResponseMessages.CSV_HEADER_INCOMPLETE, CSV_COLUMNS));
+        }
+
+        return header;
+    }
+
+    private static CreateMovieRequest readCsvRow(List<String> values, Map<String, Integer> header) {
+        CreateMovieRequest request = new CreateMovieRequest();
+
+        request.setImdbId(getCsvValue(values, header, "imdbId"));
+        request.setTitle(getCsvValue(values, header, "title"));
+        request.setLanguage(getCsvValue(values, header, "language"));
+        request.setSummary(getCsvValue(values, header, "summary"));
+
+        String releaseYear = getCsvValue(values, header, "releaseYear");
+        request.setReleaseYear(StringUtils.isBlank(releaseYear) ? null : Integer.valueOf(releaseYear.trim()));
+
+        String genre = getCsvValue(values, header, "genre");
+        request.setGenre(StringUtils.isBlank(genre) ? null : Genre.valueOf(genre.trim().toUpperCase()));
+
+        return request;
+    }
+
+    private static String getCsvValue(List<String> values, Map<String, Integer> header, String column) {
+        int index = header.get(column);
+        return (index < values.size()) ? values.get(index) : null;
+    }
+
+    private record ImportRow(long number, String imdbId, CreateMovieRequest request, String error) {
+
+    }
+}
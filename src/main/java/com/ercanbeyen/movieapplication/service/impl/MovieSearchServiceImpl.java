@@ -0,0 +1,120 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.document.MovieDocument;
+import com.ercanbeyen.movieapplication.dto.SearchHitDto;
+import com.ercanbeyen.movieapplication.dto.converter.MovieDocumentConverter;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.repository.MovieDocumentRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.service.MovieSearchService;
+import com.ercanbeyen.movieapplication.util.TransactionUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieSearchServiceImpl implements MovieSearchService {
+    private static final int REINDEX_BATCH_SIZE = 500;
+    private final MovieDocumentRepository movieDocumentRepository;
+    private final MovieRepository movieRepository;
+    private final MovieDocumentConverter movieDocumentConverter;
+    private final TransactionTemplate transactionTemplate;
+
+    /*
+     * Document is built while the entity graph is still attached and sent after the transaction is committed,
+     * so a rolled back write never reaches the index and an unreachable cluster never fails the write.
+     */
+    @Override
+    public void saveMovie(Movie movie) {
+        MovieDocument movieDocument = movieDocumentConverter.convert(movie);
+
+        TransactionUtil.afterCommit(() -> {
+            try {
+                movieDocumentRepository.save(movieDocument);
+                log.info(LogMessages.SAVED, ResourceNames.MOVIE_DOCUMENT);
+            } catch (RuntimeException exception) {
+                log.error(LogMessages.SYNCHRONIZATION_FAILED, ResourceNames.MOVIE_DOCUMENT, movieDocument.getId(), exception.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void saveMovies(List<Movie> movies) {
+        List<MovieDocument> movieDocuments = movies.stream()
+                .map(movieDocumentConverter::convert)
+                .toList();
+
+        TransactionUtil.afterCommit(() -> {
+            try {
+                movieDocumentRepository.saveAll(movieDocuments);
+                log.info("{} {}s are saved", movieDocuments.size(), ResourceNames.MOVIE_DOCUMENT);
+            } catch (RuntimeException exception) {
+                log.error(LogMessages.SYNCHRONIZATION_FAILED, ResourceNames.MOVIE_DOCUMENT, movieDocuments.size() + " documents", exception.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void deleteMovie(Integer id) {
+        TransactionUtil.afterCommit(() -> {
+            try {
+                movieDocumentRepository.deleteById(id);
+                log.info(LogMessages.DELETED, ResourceNames.MOVIE_DOCUMENT);
+            } catch (RuntimeException exception) {
+                log.error(LogMessages.SYNCHRONIZATION_FAILED, ResourceNames.MOVIE_DOCUMENT, id, exception.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public List<SearchHitDto<MovieDocument, MovieDocument>> searchMovies(String text, Pageable pageable) {
+        List<SearchHitDto<MovieDocument, MovieDocument>> searchHits = movieDocumentRepository.searchByText(text, pageable)
+                .stream()
+                .map(searchHit -> new SearchHitDto<>(searchHit, searchHit.getContent()))
+                .toList();
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE_DOCUMENT);
+
+        return searchHits;
+    }
+
+    /*
+     * Movies are read in keyset pages of ids, and each batch is loaded with its actors and director in its own
+     * transaction, so the persistence context never holds more than one batch.
+     */
+    @Override
+    public String reindexMovies() {
+        Pageable pageable = PageRequest.of(0, REINDEX_BATCH_SIZE);
+        Integer lastId = 0;
+        List<Integer> movieIds;
+
+        do {
+            movieIds = movieRepository.findIdsAfter(lastId, pageable);
+
+            if (movieIds.isEmpty()) {
+                break;
+            }
+
+            List<Integer> batchIds = movieIds;
+            List<MovieDocument> movieDocuments = transactionTemplate.execute(status -> movieRepository.findByIdIn(batchIds)
+                    .stream()
+                    .map(movieDocumentConverter::convert)
+                    .toList());
+
+            movieDocumentRepository.saveAll(movieDocuments);
+            log.info("{} {}s are reindexed", movieDocuments.size(), ResourceNames.MOVIE_DOCUMENT);
+            lastId = movieIds.get(movieIds.size() - 1);
+        } while (movieIds.size() == REINDEX_BATCH_SIZE);
+
+        return ResponseMessages.SUCCESS;
+    }
+}
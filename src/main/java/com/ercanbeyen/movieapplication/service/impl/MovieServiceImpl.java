@@ -1,22 +1,38 @@
 package com.ercanbeyen.movieapplication.service.impl;
 
+import com.ercanbeyen.movieapplication.cache.BatchCacheOperations;
+import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
 import com.ercanbeyen.movieapplication.constant.message.LogMessages;
 import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.movieapplication.constant.message.StatisticsMessages;
 import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
 import com.ercanbeyen.movieapplication.dto.MovieDto;
 import com.ercanbeyen.movieapplication.dto.PageDto;
-import com.ercanbeyen.movieapplication.dto.RatingDto;
+import com.ercanbeyen.movieapplication.dto.RatingAggregate;
+import com.ercanbeyen.movieapplication.dto.RatingHistogramDto;
+import com.ercanbeyen.movieapplication.dto.RatingUpsertResult;
 import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.dto.converter.MovieDtoConverter;
 import com.ercanbeyen.movieapplication.dto.request.create.CreateMovieRequest;
 import com.ercanbeyen.movieapplication.dto.request.update.UpdateMovieRequest;
 import com.ercanbeyen.movieapplication.entity.*;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
 import com.ercanbeyen.movieapplication.exception.ResourceConflictException;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.movieapplication.index.ImdbIdFilter;
+import com.ercanbeyen.movieapplication.index.MovieCatalogIndex;
+import com.ercanbeyen.movieapplication.index.MovieLeaderboard;
+import com.ercanbeyen.movieapplication.index.MovieRecommendationIndex;
+import com.ercanbeyen.movieapplication.index.MovieSimilarityIndex;
+import com.ercanbeyen.movieapplication.index.MovieTitleIndex;
+import com.ercanbeyen.movieapplication.index.MovieTrendingIndex;
 import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
 import com.ercanbeyen.movieapplication.repository.MovieRepository;
 import com.ercanbeyen.movieapplication.service.*;
+import com.ercanbeyen.movieapplication.specification.MovieSpecification;
+import com.ercanbeyen.movieapplication.statistics.MovieStatisticsTracker;
+import com.ercanbeyen.movieapplication.util.CursorUtil;
 import com.ercanbeyen.movieapplication.util.StatisticsUtil;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -24,17 +40,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.Year;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 @Service
@@ -47,8 +71,27 @@ public class MovieServiceImpl implements MovieService {
     private final ActorService actorService;
     private final AudienceService audienceService;
     private final RatingService ratingService;
-
-    @CachePut(value = "movies", key = "#result.id")
+    private final MovieCatalogIndex movieCatalogIndex;
+    private final MovieTitleIndex movieTitleIndex;
+    private final MovieSearchService movieSearchService;
+    private final BatchCacheOperations batchCacheOperations;
+    private final ImdbIdFilter imdbIdFilter;
+    private final MovieLeaderboard movieLeaderboard;
+    private final MovieTrendingIndex movieTrendingIndex;
+    private final MovieRecommendationIndex movieRecommendationIndex;
+    private final MovieSimilarityIndex movieSimilarityIndex;
+    private final RatingIngestionService ratingIngestionService;
+    private final MovieStatisticsTracker movieStatisticsTracker;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private static final String MOVIE_CACHE = "movies";
+    @Value("${movie.latest.release-year-window:5}")
+    private int latestReleaseYearWindow;
+    @Value("${movie.statistics.pushdown:true}")
+    private boolean statisticsPushdown;
+
+    @Caching(
+            put = @CachePut(value = "movies", key = "#result.id"),
+            evict = @CacheEvict(value = "latestMovies", allEntries = true))
     @Override
     public MovieDto createMovie(CreateMovieRequest request) {
         checkImdbId(null, request.getImdbId());
@@ -65,45 +108,92 @@ public class MovieServiceImpl implements MovieService {
                 .actors(new HashSet<>())
                 .build();
 
-        Movie createdMovie = movieRepository.save(newMovie);
+        Movie createdMovie = saveMovie(newMovie, movieRepository::save);
         log.info(LogMessages.SAVED, ResourceNames.MOVIE);
+        imdbIdFilter.put(createdMovie.getImdbId());
+        applicationEventPublisher.publishEvent(MovieChangedEvent.created(List.of(createdMovie)));
+        movieSearchService.saveMovie(createdMovie);
 
         return movieDtoConverter.convert(createdMovie);
     }
 
     @CacheEvict(value = "movies", allEntries = true)
     @Override
-    public PageDto<Movie, MovieDto> getMovies(MovieFilteringOptions filteringOptions, String limit, Pageable pageable) {
-        Predicate<Movie> moviePredicate = (movie) -> (
-                (filteringOptions.genres() == null || filteringOptions.genres().isEmpty() || filteringOptions.genres().contains(movie.getGenre())) &&
-                (StringUtils.isBlank(filteringOptions.language()) || movie.getLanguage().equals(filteringOptions.language())) &&
-                (filteringOptions.releaseYear() == null || movie.getReleaseYear().intValue() == filteringOptions.releaseYear().intValue()));
+    public PageDto<Movie, MovieDto> getMovies(MovieFilteringOptions filteringOptions, String limit, Pageable pageable, String after) {
+        int maximumSize = Integer.parseInt(limit);
+        Pageable limitedPageable = (pageable.isPaged() && pageable.getPageSize() > maximumSize)
+                ? PageRequest.of(pageable.getPageNumber(), maximumSize, pageable.getSort())
+                : pageable;
+
+        if (after != null) {
+            Window<Movie> movieWindow = movieRepository.findBy(MovieSpecification.filterBy(filteringOptions), query -> query
+                    .sortBy(limitedPageable.getSort())
+                    .limit(limitedPageable.getPageSize())
+                    .scroll(CursorUtil.decode(after, limitedPageable.getSort(), Movie.class)));
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+
+            List<MovieDto> movieDtoList = movieWindow.stream()
+                    .map(movieDtoConverter::convert)
+                    .toList();
+
+            return new PageDto<>(movieWindow, limitedPageable, movieDtoList);
+        }
 
-        Page<Movie> moviePage = movieRepository.findAll(pageable);
+        boolean isIndexApplicable = movieCatalogIndex.isReady() && limitedPageable.isPaged() && limitedPageable.getSort().isUnsorted();
+        Page<Movie> moviePage = isIndexApplicable ? findMoviesFromIndex(filteringOptions, limitedPageable)
+                : movieRepository.findAll(MovieSpecification.filterBy(filteringOptions), limitedPageable);
         log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
-        long maximumSize = Long.parseLong(limit);
 
         List<MovieDto> movieDtoList = moviePage.stream()
-                 .filter(moviePredicate)
-                 .limit(maximumSize)
                  .map(movieDtoConverter::convert)
                  .toList();
 
         return new PageDto<>(moviePage, movieDtoList);
     }
 
-    @Cacheable(value = "movies", key = "#id", unless = "#result.releaseYear < 2020")
+    @Cacheable(value = "movies", key = "#id", unless = "#result.releaseYear < " + DefaultValues.MINIMUM_RELEASE_YEAR_TO_BE_CACHED)
     @Override
     public MovieDto getMovie(Integer id) {
         Movie movieInDb = findMovieById(id);
         return movieDtoConverter.convert(movieInDb);
     }
 
-    @CacheEvict(value = "movies", allEntries = true)
+    @Override
+    public List<MovieDto> getMovies(List<Integer> ids) {
+        Map<Integer, MovieDto> movieDtoMap = new HashMap<>(batchCacheOperations.getAll(MOVIE_CACHE, ids, MovieDto.class));
+        log.info("{} of {} {}s are found in cache", movieDtoMap.size(), ids.size(), ResourceNames.MOVIE);
+
+        List<Integer> missingIds = ids.stream()
+                .filter(id -> !movieDtoMap.containsKey(id))
+                .distinct()
+                .toList();
+
+        if (!missingIds.isEmpty()) {
+            Map<Integer, MovieDto> loadedMovieDtoMap = movieRepository.findByIdIn(missingIds)
+                    .stream()
+                    .map(movieDtoConverter::convert)
+                    .collect(Collectors.toMap(MovieDto::id, Function.identity()));
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+
+            movieDtoMap.putAll(loadedMovieDtoMap);
+            batchCacheOperations.putAll(MOVIE_CACHE, loadedMovieDtoMap.entrySet()
+                    .stream()
+                    .filter(entry -> entry.getValue().releaseYear() >= DefaultValues.MINIMUM_RELEASE_YEAR_TO_BE_CACHED)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+        }
+
+        return ids.stream()
+                .map(movieDtoMap::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @CacheEvict(value = {"movies", "latestMovies"}, allEntries = true)
     @Transactional
     @Override
     public MovieDto updateMovie(Integer id, UpdateMovieRequest request) {
         Movie movieInDb = findMovieById(id);
+        MovieChangedEvent.Features previousFeatures = MovieChangedEvent.Features.of(movieInDb);
 
         checkImdbId(movieInDb.getImdbId(), request.getImdbId());
         movieInDb.setImdbId(request.getImdbId());
@@ -139,43 +229,131 @@ public class MovieServiceImpl implements MovieService {
         movieInDb.setSummary(request.getSummary());
         log.info(LogMessages.FIELDS_SET);
 
-        Movie savedMovie = movieRepository.save(movieInDb);
+        Movie savedMovie = saveMovie(movieInDb, movieRepository::saveAndFlush);
         log.info(LogMessages.SAVED, ResourceNames.MOVIE);
+        imdbIdFilter.put(savedMovie.getImdbId());
+        applicationEventPublisher.publishEvent(MovieChangedEvent.updated(savedMovie, previousFeatures));
+        movieSearchService.saveMovie(savedMovie);
 
         return movieDtoConverter.convert(savedMovie);
     }
 
-    @CacheEvict(value = "movies", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "movies", key = "#id"),
+            @CacheEvict(value = "latestMovies", allEntries = true)})
     @Transactional
     @Override
     public String deleteMovie(Integer id) {
-        movieRepository.findById(id)
-                .ifPresentOrElse(movieRepository::delete, () -> {
-                    throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE));
-                });
+        Movie movieInDb = findMovieById(id);
+        MovieChangedEvent movieChangedEvent = MovieChangedEvent.deleted(movieInDb);
+
+        movieRepository.delete(movieInDb);
+        ratingService.deleteRatingHistogram(id);
 
         log.info(LogMessages.DELETED, ResourceNames.MOVIE);
+        applicationEventPublisher.publishEvent(movieChangedEvent);
+        movieSearchService.deleteMovie(id);
+
         return ResponseMessages.SUCCESS;
     }
 
-    @Cacheable(value = "movies")
+    @Cacheable(value = "latestMovies", key = "T(java.time.Year).now().getValue() + '-' + #pageable.pageNumber + '-' + #pageable.pageSize + '-' + #pageable.sort")
     @Override
-    public List<MovieDto> getLatestMovies() {
-        List<Movie> movies = movieRepository.findAll();
+    public List<MovieDto> getLatestMovies(Pageable pageable) {
+        int minimumReleaseYear = Year.now().getValue() - latestReleaseYearWindow;
+        Pageable latestPageable = pageable.getSort().isSorted() ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(Sort.Order.desc("releaseYear"), Sort.Order.asc("id")));
+
+        List<Movie> movies = movieRepository.findByReleaseYearGreaterThanEqual(minimumReleaseYear, latestPageable);
         log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
-        int year = 2020;
 
         return movies.stream()
-                .filter(movie -> movie.getReleaseYear() >= year)
                 .map(movieDtoConverter::convert)
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<MovieDto> searchMovies(String title) {
-        List<Movie> movies = movieRepository.findByTitleStartingWith(title);
+    public List<MovieDto> getTopMovies(Genre genre, int limit) {
+        Optional<List<Integer>> topMovieIds = movieLeaderboard.getTopMovieIds(genre, limit);
+
+        if (topMovieIds.isPresent()) {
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+            return getMovies(topMovieIds.get());
+        }
+
+        List<Movie> movies = movieRepository.findTopRated(genre, movieLeaderboard.getMinimumVotes(), movieLeaderboard.getPriorRating(), PageRequest.of(0, limit));
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+
+        return movies.stream()
+                .map(movieDtoConverter::convert)
+                .toList();
+    }
+
+    @Override
+    public String rebuildTopMovies() {
+        movieLeaderboard.rebuild();
+        return ResponseMessages.SUCCESS;
+    }
+
+    @Override
+    public List<MovieDto> getTrendingMovies(Genre genre, int limit) {
+        if (movieTrendingIndex.isReady()) {
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+            return getMovies(movieTrendingIndex.findTrendingMovieIds(genre, limit));
+        }
+
+        List<Integer> movieIds = movieRepository.findMostRatedIdsSince(genre, Instant.now().minus(movieTrendingIndex.getHalfLife()), PageRequest.of(0, limit));
         log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
 
+        return getMovies(movieIds);
+    }
+
+    @Override
+    public void recordView(MovieDto movieDto) {
+        movieTrendingIndex.recordView(movieDto.id(), movieDto.genre());
+    }
+
+    /* Audiences without usable ratings and an unready index get the top rated movies instead */
+    @Override
+    public List<MovieDto> getRecommendedMovies(Integer audienceId, int limit) {
+        audienceService.getAudience(audienceId);
+        List<Integer> movieIds = movieRecommendationIndex.recommend(ratingService.getRatingEntriesOfAudience(audienceId), limit);
+
+        if (movieIds.isEmpty()) {
+            log.warn("No {} is recommended for {} {}", ResourceNames.MOVIE, ResourceNames.AUDIENCE, audienceId);
+            return getTopMovies(null, limit);
+        }
+
+        return getMovies(movieIds);
+    }
+
+    /* Without a ready index, movies of the same genre are returned */
+    @Override
+    public List<MovieDto> getSimilarMovies(Integer id, int limit) {
+        if (movieSimilarityIndex.isReady()) {
+            List<Integer> movieIds = movieSimilarityIndex.findSimilarMovieIds(id, limit);
+
+            if (!movieIds.isEmpty()) {
+                log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+                return getMovies(movieIds);
+            }
+        }
+
+        Movie movieInDb = findMovieById(id);
+        List<Movie> movies = movieRepository.findByGenreAndIdNot(movieInDb.getGenre(), id, PageRequest.of(0, limit));
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
+
+        return movies.stream()
+                .map(movieDtoConverter::convert)
+                .toList();
+    }
+
+    @Override
+    public List<MovieDto> searchMovies(String title) {
+        List<Movie> movies = movieTitleIndex.search(title, Integer.parseInt(DefaultValues.DEFAULT_LIMIT_VALUE))
+                .map(this::findMoviesInOrder)
+                .orElseGet(() -> movieRepository.findTop10ByTitleStartingWithIgnoreCaseOrderByAverageRatingDesc(title));
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
 
         return movies.stream()
                 .map(movieDtoConverter::convert)
@@ -184,126 +362,236 @@ public class MovieServiceImpl implements MovieService {
 
     @Override
     public MovieDto getMovie(String imdbId) {
+        if (imdbIdFilter.isDefinitelyAbsent(imdbId)) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE));
+        }
+
         Movie movie = movieRepository.findByImdbId(imdbId)
-                .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE)));
+                .orElseThrow(() -> {
+                    imdbIdFilter.recordFalsePositive();
+                    return new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE));
+                });
 
         return movieDtoConverter.convert(movie);
     }
 
-    @CacheEvict(value = "movies", key = "#id")
+    @Caching(evict = {
+            @CacheEvict(value = "movies", key = "#id"),
+            @CacheEvict(value = "latestMovies", allEntries = true)})
     @Transactional
     @Override
     public MovieDto rateMovie(Integer id, Double rate, UserDetails userDetails) {
         Movie movie = findMovieById(id);
-        CompletableFuture<Audience> audienceFuture = audienceService.findAudienceAsync(userDetails.getUsername());
+        Integer audienceId = audienceService.getAudience(userDetails.getUsername()).id();
 
-        return findRatingByMovieAndAudience.andThen(optionalRating -> {
-            boolean isRatingPresent = optionalRating.isPresent();
-            String logMessage = isRatingPresent ? ResourceNames.RATING + " is created before"
-                    : ResourceNames.RATING + " has not been created before";
-            log.info(logMessage);
+        /* Votes of the audience that are still queued are older than this one */
+        ratingIngestionService.discardPendingRatings(movie.getId(), audienceId);
+        RatingUpsertResult result = ratingService.upsertRating(movie.getId(), audienceId, rate);
+        String logMessage = result.isCreated() ? ResourceNames.RATING + " has not been created before"
+                : ResourceNames.RATING + " is created before";
+        log.info(logMessage);
 
-            RatingDto ratingDto = (isRatingPresent) ? ratingService.updatedRating(optionalRating.get(), rate)
-                    : ratingService.createRating(audienceFuture.join(), movie, rate);
+        double previousRate = result.isCreated() ? 0 : result.previousRate();
+        long countDifference = result.isCreated() ? 1 : 0;
+        Movie savedMovie = updateRatingOfMovie(movie, rate - previousRate, countDifference);
+        applicationEventPublisher.publishEvent(MovieChangedEvent.rated(savedMovie, 1, countDifference));
 
-            if (ratingDto == null) {
-                throw new IllegalStateException("Unable to rate " + ResourceNames.MOVIE + " " + movie.getId());
-            }
-
-            Movie savedMovie = updateRatingOfMovie(movie);
-            return movieDtoConverter.convert(savedMovie);
-        }).apply(movie, audienceFuture);
+        return movieDtoConverter.convert(savedMovie);
     }
 
-    public Movie updateRatingOfMovie(Movie movie) {
-        Double averageRating = calculateAverageRating.apply(movie);
-        movie.setAverageRating(averageRating);
+    @Override
+    public Movie updateRatingOfMovie(Movie movie, double rateDifference, long countDifference) {
+        /* Concurrent votes on the same movie are applied by the database, so none of them is lost */
+        movieRepository.applyRatingDifference(movie.getId(), rateDifference, countDifference);
+        RatingAggregate ratingAggregate = movieRepository.findRatingAggregate(movie.getId());
+        log.info(LogMessages.SAVED, ResourceNames.MOVIE);
+
+        movie.setRatingSum(ratingAggregate.ratingSum());
+        movie.setRatingCount(ratingAggregate.ratingCount());
+        movie.setAverageRating(ratingAggregate.averageRating());
         log.info(LogMessages.FIELDS_SET);
 
-        Movie savedMovie = movieRepository.save(movie);
-        log.info(LogMessages.SAVED, ResourceNames.MOVIE);
+        return movie;
+    }
 
-        return savedMovie;
+    @Override
+    public RatingHistogramDto getRatingHistogram(Integer id) {
+        if (!movieRepository.existsById(id)) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE));
+        }
+
+        return ratingService.getRatingHistogram(id);
     }
 
+    @Caching(evict = {
+            @CacheEvict(value = "movies", key = "#id"),
+            @CacheEvict(value = "latestMovies", allEntries = true)})
+    @Transactional
     @Override
     public MovieDto deleteRatingOfMovie(Integer id, Integer audienceId) {
         Movie movieInDb = findMovieById(id);
 
-        ratingService.deleteRating(id, audienceId);
-        Double averageRating = calculateAverageRating.apply(movieInDb);
-        movieInDb.setAverageRating(averageRating);
-        log.info(LogMessages.FIELDS_SET);
-
-        movieRepository.save(movieInDb);
-        log.info(LogMessages.SAVED, ResourceNames.RATING);
+        ratingIngestionService.discardPendingRatings(id, audienceId);
+        Double deletedRate = ratingService.deleteRating(id, audienceId);
+        Movie savedMovie = updateRatingOfMovie(movieInDb, -deletedRate, -1);
+        applicationEventPublisher.publishEvent(MovieChangedEvent.rated(savedMovie, 0, -1));
 
-        return movieDtoConverter.convert(movieInDb);
+        return movieDtoConverter.convert(savedMovie);
     }
 
     @Override
     public Statistics<String, String> calculateStatistics() {
+        if (movieStatisticsTracker.isReady() && !movieStatisticsTracker.isApproximate()) {
+            return movieStatisticsTracker.getSnapshot();
+        }
+
+        if (!statisticsPushdown) {
+            return calculateStatisticsInMemory();
+        }
+
+        /* Each value is one ORDER BY ... LIMIT 1 query, so only four rows leave the database */
+        Map<String, String> statisticsMap = new HashMap<>();
+        Pageable firstRow = PageRequest.of(0, 1);
+
+        statisticsMap.put("mostRatedMovie", firstOrNotExists(movieRepository.findTitlesByHighestAverageRating(firstRow)));
+        statisticsMap.put("leastRatedMovie", firstOrNotExists(movieRepository.findTitlesByLowestAverageRating(firstRow)));
+        statisticsMap.put("mostPopularLanguage", firstOrNotExists(movieRepository.findMostOccurredLanguages(firstRow)));
+        statisticsMap.put("leastPopularLanguage", firstOrNotExists(movieRepository.findLeastOccurredLanguages(firstRow)));
+
+        return new Statistics<>(ResourceNames.MOVIE, statisticsMap);
+    }
+
+    /* Sketches are only read from a ready tracker, otherwise the exact statistics are calculated */
+    @Override
+    public Statistics<String, String> calculateApproximateStatistics() {
+        return movieStatisticsTracker.isReady() ? movieStatisticsTracker.getApproximateSnapshot() : calculateStatistics();
+    }
+
+    /* Ties are broken as the pushed down queries break them: by movie id, and by language in code point order with no language last */
+    private Statistics<String, String> calculateStatisticsInMemory() {
         Map<String, String> statisticsMap = new HashMap<>();
         List<Movie> movieList = movieRepository.findAll();
+        List<Movie> ratedMovieList = movieList.stream()
+                .filter(movie -> movie.getAverageRating() != null)
+                .toList();
 
-        Comparator<Movie> movieComparator = Comparator.comparing(Movie::getAverageRating);
+        Comparator<Movie> idComparator = Comparator.comparing(Movie::getId);
 
-        String titleOfMostRatedMovie = movieList.stream()
-                .max(movieComparator)
+        String titleOfMostRatedMovie = ratedMovieList.stream()
+                .min(Comparator.comparing(Movie::getAverageRating).reversed().thenComparing(idComparator))
                 .map(Movie::getTitle)
                 .orElse(StatisticsMessages.NOT_EXISTS);
 
         statisticsMap.put("mostRatedMovie", titleOfMostRatedMovie);
 
-        String titleOfLeastRatedMovie = movieList.stream()
-                .min(movieComparator)
+        String titleOfLeastRatedMovie = ratedMovieList.stream()
+                .min(Comparator.comparing(Movie::getAverageRating).thenComparing(idComparator))
                 .map(Movie::getTitle)
                 .orElse(StatisticsMessages.NOT_EXISTS);
 
         statisticsMap.put("leastRatedMovie", titleOfLeastRatedMovie);
 
-        List<String> languageList = movieList.stream()
-                .map(Movie::getLanguage)
-                .toList();
+        Map<String, Long> languageCounts = new HashMap<>();
+        movieList.forEach(movie -> languageCounts.merge(movie.getLanguage(), 1L, Long::sum));
 
-        String mostPopularLanguage = StatisticsUtil.calculateMostOccurred(languageList);
-        mostPopularLanguage = StatisticsUtil.valueAssignmentToStringItem(mostPopularLanguage);
-        statisticsMap.put("mostPopularLanguage", mostPopularLanguage);
+        Comparator<Map.Entry<String, Long>> languageComparator = Map.Entry.comparingByKey(Comparator.nullsLast(Comparator.naturalOrder()));
 
-        String leastPopularLanguage = StatisticsUtil.calculateLeastOccurred(languageList);
-        leastPopularLanguage = StatisticsUtil.valueAssignmentToStringItem(leastPopularLanguage);
-        statisticsMap.put("leastPopularLanguage", leastPopularLanguage);
+        String mostPopularLanguage = languageCounts.entrySet()
+                .stream()
+                .min(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(languageComparator))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        statisticsMap.put("mostPopularLanguage", StatisticsUtil.valueAssignmentToStringItem(mostPopularLanguage));
+
+        String leastPopularLanguage = languageCounts.entrySet()
+                .stream()
+                .min(Map.Entry.<String, Long>comparingByValue().thenComparing(languageComparator))
+                .map(Map.Entry::getKey)
+                .orElse(null);
+        statisticsMap.put("leastPopularLanguage", StatisticsUtil.valueAssignmentToStringItem(leastPopularLanguage));
 
         return new Statistics<>(ResourceNames.MOVIE, statisticsMap);
     }
 
+    @Override
+    public Statistics<String, String> getCatalogIndexStatistics() {
+        return movieCatalogIndex.getStatistics();
+    }
+
+    @Override
+    public Statistics<String, String> getImdbIdFilterStatistics() {
+        return imdbIdFilter.getStatistics();
+    }
+
+    @Override
+    public Statistics<String, String> getLeaderboardStatistics() {
+        return movieLeaderboard.getStatistics();
+    }
+
+    @Override
+    public Statistics<String, String> getTrendingStatistics() {
+        return movieTrendingIndex.getStatistics();
+    }
+
+    @Override
+    public Statistics<String, String> getRecommendationStatistics() {
+        return movieRecommendationIndex.getStatistics();
+    }
+
+    @Override
+    public Statistics<String, String> getSimilarityIndexStatistics() {
+        return movieSimilarityIndex.getStatistics();
+    }
+
+    private Page<Movie> findMoviesFromIndex(MovieFilteringOptions filteringOptions, Pageable pageable) {
+        Page<Integer> movieIdPage = movieCatalogIndex.findMovieIds(filteringOptions, pageable);
+        List<Movie> movies = findMoviesInOrder(movieIdPage.getContent());
+
+        return new PageImpl<>(movies, pageable, movieIdPage.getTotalElements());
+    }
+
+    private List<Movie> findMoviesInOrder(List<Integer> movieIds) {
+        Map<Integer, Movie> movieMap = movieRepository.findAllById(movieIds)
+                .stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+
+        return movieIds.stream()
+                .map(movieMap::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     private void checkImdbId(String previousImdbId, String newImdbId) {
         if (StringUtils.isNotBlank(previousImdbId) && newImdbId.equals(previousImdbId)) {
             log.warn("Same imdbId is going to be assigned.");
             return;
         }
 
-        if (movieRepository.existsByImdbId(newImdbId)) {
+        /* An imdbId written by another node may not be in the filter yet, but the unique constraint still rejects it in saveMovie */
+        if (!imdbIdFilter.isDefinitelyAbsent(newImdbId) && movieRepository.existsByImdbId(newImdbId)) {
             throw new ResourceConflictException(String.format(ResponseMessages.ALREADY_EXISTS, ResourceNames.MOVIE));
         }
 
         log.info("imdbId check is passed");
     }
 
-    private static final BiFunction<Movie, CompletableFuture<Audience>, Optional<Rating>> findRatingByMovieAndAudience = (movie, audienceFuture) -> movie.getRatings()
-            .stream()
-            .filter(rating -> rating.getAudience().getId().intValue() == audienceFuture.join().getId().intValue() &&
-                    rating.getMovie().getId().intValue() == movie.getId().intValue())
-            .findFirst();
+    /*
+     * The unique constraint on imdbId settles concurrent writes of the same imdbId that both passed checkImdbId
+     */
+    private Movie saveMovie(Movie movie, UnaryOperator<Movie> save) {
+        try {
+            return save.apply(movie);
+        } catch (DataIntegrityViolationException exception) {
+            throw new ResourceConflictException(String.format(ResponseMessages.ALREADY_EXISTS, ResourceNames.MOVIE));
+        }
+    }
 
     private Movie findMovieById(Integer id) {
         return movieRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE)));
     }
 
-    private final Function<Movie, Double> calculateAverageRating = movie -> movie.getRatings()
-                .stream()
-                .mapToDouble(Rating::getRate)
-                .average()
-                .orElse(0);
+    private static String firstOrNotExists(List<String> values) {
+        return values.isEmpty() ? StatisticsMessages.NOT_EXISTS : StatisticsUtil.valueAssignmentToStringItem(values.get(0));
+    }
 }
@@ -0,0 +1,609 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.dto.RatingVote;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.PendingRating;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.movieapplication.repository.AudienceRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.repository.PendingRatingRepository;
+import com.ercanbeyen.movieapplication.service.AudienceService;
+import com.ercanbeyen.movieapplication.service.RatingIngestionService;
+import com.ercanbeyen.movieapplication.util.RatingUtil;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Write-behind path of rateMovie. Votes are appended to a bounded queue and written by a single batcher thread,
+ * which keeps the latest vote per (movie, audience), writes ratings with JDBC batches and applies aggregate
+ * differences once per movie. When the queue is full, votes spill into the pending_ratings table and every later
+ * vote follows them there until the table is drained. Pending votes are claimed with DELETE ... RETURNING in the
+ * transaction that writes them, so every node may drain the table without writing a vote twice.
+ * Existing ratings are locked before their differences are computed, and a vote never replaces a rating that was
+ * written after it was accepted, so a synchronous vote or a vote written by another node always wins over older ones.
+ */
+@Service
+@Slf4j
+public class RatingIngestionServiceImpl implements RatingIngestionService {
+    private static final String CLAIM_PENDING_RATINGS = """
+            DELETE FROM pending_ratings
+            WHERE id IN (SELECT id FROM pending_ratings ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+            RETURNING id, movie_id, audience_id, rate, accepted_at
+            """;
+    private static final String LOCK_RATINGS = """
+            SELECT id, movie_id, audience_id, rate, rated_at
+            FROM ratings
+            WHERE (movie_id, audience_id) IN (%s)
+            ORDER BY id
+            FOR UPDATE
+            """;
+    private static final String INSERT_RATINGS = """
+            INSERT INTO ratings (rate, movie_id, audience_id, rated_at)
+            VALUES %s
+            ON CONFLICT (movie_id, audience_id) DO NOTHING
+            RETURNING movie_id, audience_id
+            """;
+    private static final String UPDATE_RATING = "UPDATE ratings SET rate = ?, rated_at = ? WHERE id = ? AND rated_at < ?";
+    private static final String UPDATE_MOVIE_RATING = """
+            UPDATE movies
+            SET rating_sum = rating_sum + ?,
+                rating_count = rating_count + ?,
+                average_rating = CASE WHEN rating_count + ? = 0 THEN 0 ELSE (rating_sum + ?) / (rating_count + ?) END
+            WHERE id = ?
+            """;
+    private static final String ADD_TO_RATING_HISTOGRAM = """
+            INSERT INTO rating_histograms (movie_id, bucket, rating_count)
+            VALUES (?, ?, ?)
+            ON CONFLICT (movie_id, bucket) DO UPDATE SET rating_count = rating_histograms.rating_count + EXCLUDED.rating_count
+            """;
+    private static final String MOVIE_CACHE = "movies";
+    private static final String LATEST_MOVIE_CACHE = "latestMovies";
+    private static final long STOP_TIMEOUT = 10_000;
+
+    private final MovieRepository movieRepository;
+    private final AudienceRepository audienceRepository;
+    private final PendingRatingRepository pendingRatingRepository;
+    private final AudienceService audienceService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushInterval;
+
+    private final BlockingQueue<RatingVote> queue;
+    private final ReadWriteLock spillLock = new ReentrantReadWriteLock();
+    /* Serializes discards with flushes; a discarded vote that the batcher already collected is skipped by its time */
+    private final Lock flushLock = new ReentrantLock();
+    private final Map<RatingKey, Instant> discardedAt = new ConcurrentHashMap<>();
+    private volatile boolean spilling;
+    private volatile boolean running;
+    private Thread batcher;
+
+    private final AtomicLong acceptedVotes = new AtomicLong();
+    private final AtomicLong spilledVotes = new AtomicLong();
+    private final AtomicLong coalescedVotes = new AtomicLong();
+    private final AtomicLong discardedVotes = new AtomicLong();
+    private final AtomicLong supersededVotes = new AtomicLong();
+    private final AtomicLong writtenVotes = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile Instant lastFlushedAt;
+
+    public RatingIngestionServiceImpl(MovieRepository movieRepository, AudienceRepository audienceRepository,
+                                      PendingRatingRepository pendingRatingRepository,
+                                      AudienceService audienceService, ApplicationEventPublisher applicationEventPublisher,
+                                      CacheManager cacheManager,
+                                      JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                      @Value("${movie.rating-ingestion.enabled:false}") boolean enabled,
+                                      @Value("${movie.rating-ingestion.capacity:100000}") int capacity,
+                                      @Value("${movie.rating-ingestion.batch-size:500}") int batchSize,
+                                      @Value("${movie.rating-ingestion.flush-interval:200}") long flushInterval) {
+        this.movieRepository = movieRepository;
+        this.audienceRepository = audienceRepository;
+        this.pendingRatingRepository = pendingRatingRepository;
+        this.audienceService = audienceService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("{} ingestion is disabled", ResourceNames.RATING);
+            return;
+        }
+
+        spilling = pendingRatingRepository.findFirstByOrderByIdAsc().isPresent();
+        running = true;
+        batcher = Thread.ofPlatform()
+                .name("rating-ingestion")
+                .daemon()
+                .start(this::runBatcher);
+
+        log.info(LogMessages.TASK_STARTED, "runBatcher");
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (batcher == null) {
+            return;
+        }
+
+        running = false;
+        batcher.join(STOP_TIMEOUT);
+
+        List<RatingVote> remainingVotes = new ArrayList<>();
+        queue.drainTo(remainingVotes);
+
+        if (!remainingVotes.isEmpty()) {
+            spilling = true;
+            spill(remainingVotes);
+        }
+
+        log.info(LogMessages.TASK_COMPLETED, "runBatcher");
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled && running;
+    }
+
+    @Override
+    public String submitRating(Integer movieId, Double rate, UserDetails userDetails) {
+        if (!movieRepository.existsById(movieId)) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE));
+        }
+
+        Integer audienceId = audienceService.getAudience(userDetails.getUsername()).id();
+        RatingVote vote = new RatingVote(null, movieId, audienceId, rate, Instant.now());
+        acceptedVotes.incrementAndGet();
+
+        if (spilling || !queue.offer(vote)) {
+            spill(List.of(vote));
+        }
+
+        return ResponseMessages.ACCEPTED;
+    }
+
+    @Transactional
+    @Override
+    public void discardPendingRatings(Integer movieId, Integer audienceId) {
+        flushLock.lock();
+
+        try {
+            if (enabled) {
+                discardedAt.put(new RatingKey(movieId, audienceId), Instant.now());
+            }
+
+            boolean discarded = queue.removeIf(vote -> vote.movieId().equals(movieId) && vote.audienceId().equals(audienceId));
+            int discardedPendingRatings = pendingRatingRepository.deleteByMovieIdAndAudienceId(movieId, audienceId);
+
+            if (discarded || discardedPendingRatings > 0) {
+                log.info("Pending {}s of {} {} are discarded", ResourceNames.RATING, ResourceNames.MOVIE, movieId);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+        Instant now = Instant.now();
+
+        Optional<Instant> oldestQueuedVote = Optional.ofNullable(queue.peek()).map(RatingVote::acceptedAt);
+        Optional<Instant> oldestPendingVote = pendingRatingRepository.findFirstByOrderByIdAsc().map(PendingRating::getAcceptedAt);
+        long lag = Stream.of(oldestQueuedVote, oldestPendingVote)
+                .flatMap(Optional::stream)
+                .mapToLong(acceptedAt -> Duration.between(acceptedAt, now).toMillis())
+                .max()
+                .orElse(0);
+
+        statisticsMap.put("enabled", String.valueOf(isEnabled()));
+        statisticsMap.put("queueDepth", String.valueOf(queue.size()));
+        statisticsMap.put("queueCapacity", String.valueOf(capacity));
+        statisticsMap.put("spilling", String.valueOf(spilling));
+        statisticsMap.put("pendingVotes", String.valueOf(pendingRatingRepository.count()));
+        statisticsMap.put("lagMillis", String.valueOf(lag));
+        statisticsMap.put("acceptedVotes", String.valueOf(acceptedVotes.get()));
+        statisticsMap.put("spilledVotes", String.valueOf(spilledVotes.get()));
+        statisticsMap.put("coalescedVotes", String.valueOf(coalescedVotes.get()));
+        statisticsMap.put("discardedVotes", String.valueOf(discardedVotes.get()));
+        statisticsMap.put("supersededVotes", String.valueOf(supersededVotes.get()));
+        statisticsMap.put("writtenVotes", String.valueOf(writtenVotes.get()));
+        statisticsMap.put("lastBatchSize", String.valueOf(lastBatchSize));
+        statisticsMap.put("lastFlushedAt", String.valueOf(lastFlushedAt));
+
+        return new Statistics<>(ResourceNames.RATING, statisticsMap);
+    }
+
+    private void runBatcher() {
+        List<RatingVote> votes = new ArrayList<>(batchSize);
+        Instant collectedAt = Instant.now();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                if (votes.isEmpty()) {
+                    collectedAt = Instant.now();
+                    collectVotes(votes);
+                }
+
+                if (!votes.isEmpty()) {
+                    flush(votes, collectedAt);
+                    votes.clear();
+                } else if (spilling && flushPendingVotes() == 0 && !stopSpilling()) {
+                    pause();
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException exception) {
+                log.error("{} batch of {} votes could not be written and will be retried. Exception: {}", ResourceNames.RATING, votes.size(), exception.getMessage());
+                pause();
+            }
+        }
+    }
+
+    private void collectVotes(List<RatingVote> votes) throws InterruptedException {
+        RatingVote firstVote = spilling ? queue.poll() : queue.poll(flushInterval, TimeUnit.MILLISECONDS);
+
+        if (firstVote != null) {
+            votes.add(firstVote);
+            queue.drainTo(votes, batchSize - 1);
+        }
+    }
+
+    void flush(List<RatingVote> votes, Instant collectedAt) {
+        BatchResult batchResult;
+        flushLock.lock();
+
+        try {
+            batchResult = transactionTemplate.execute(status -> writeVotes(votes));
+            discardedAt.values().removeIf(discardedTime -> discardedTime.isBefore(collectedAt));
+        } finally {
+            flushLock.unlock();
+        }
+
+        record(batchResult);
+    }
+
+    /*
+     * Claims the oldest pending votes that no other node has claimed and writes them in the same transaction,
+     * so a failed write puts them back
+     */
+    int flushPendingVotes() {
+        BatchResult batchResult;
+        flushLock.lock();
+
+        try {
+            Instant claimedAt = Instant.now();
+            batchResult = transactionTemplate.execute(status -> {
+                List<RatingVote> votes = new ArrayList<>(jdbcTemplate.query(CLAIM_PENDING_RATINGS, (resultSet, rowNumber) -> new RatingVote(
+                        resultSet.getLong("id"), resultSet.getInt("movie_id"), resultSet.getInt("audience_id"),
+                        resultSet.getDouble("rate"), resultSet.getTimestamp("accepted_at").toInstant()), batchSize));
+                votes.sort(Comparator.comparing(RatingVote::pendingId));
+                return writeVotes(votes);
+            });
+
+            discardedAt.values().removeIf(discardedTime -> discardedTime.isBefore(claimedAt));
+        } finally {
+            flushLock.unlock();
+        }
+
+        record(batchResult);
+        return batchResult.votes;
+    }
+
+    private BatchResult writeVotes(List<RatingVote> votes) {
+        BatchResult batchResult = new BatchResult();
+        batchResult.votes = votes.size();
+
+        if (votes.isEmpty()) {
+            return batchResult;
+        }
+
+        Collection<RatingVote> latestVotes = coalesce(votes);
+        Set<Integer> movieIds = latestVotes.stream()
+                .map(RatingVote::movieId)
+                .collect(Collectors.toSet());
+        Set<Integer> audienceIds = latestVotes.stream()
+                .map(RatingVote::audienceId)
+                .collect(Collectors.toSet());
+
+        Set<Integer> existingMovieIds = movieRepository.findExistingIds(movieIds);
+        Set<Integer> existingAudienceIds = audienceRepository.findExistingIds(audienceIds);
+        Map<RatingKey, LockedRating> existingRatings = lockRatings(latestVotes);
+
+        List<RatingVote> insertedVotes = new ArrayList<>();
+        List<Object[]> updatedRatings = new ArrayList<>();
+        Map<Integer, RatingDifference> ratingDifferences = new HashMap<>();
+        Map<BucketKey, Long> histogramDifferences = new HashMap<>();
+
+        for (RatingVote vote : latestVotes) {
+            RatingKey ratingKey = new RatingKey(vote.movieId(), vote.audienceId());
+
+            if (!existingMovieIds.contains(vote.movieId()) || !existingAudienceIds.contains(vote.audienceId())) {
+                batchResult.discardedVotes++;
+                continue;
+            }
+
+            Instant discardedTime = discardedAt.get(ratingKey);
+            LockedRating existingRating = existingRatings.get(ratingKey);
+
+            if ((discardedTime != null && !vote.acceptedAt().isAfter(discardedTime))
+                    || (existingRating != null && !existingRating.ratedAt().isBefore(vote.acceptedAt()))) {
+                batchResult.supersededVotes++;
+                continue;
+            }
+
+            if (existingRating == null) {
+                insertedVotes.add(vote);
+                RatingDifference ratingDifference = ratingDifferences.computeIfAbsent(vote.movieId(), movieId -> new RatingDifference());
+                ratingDifference.rateDifference += vote.rate();
+                ratingDifference.countDifference++;
+                ratingDifference.voteCount++;
+                histogramDifferences.merge(new BucketKey(vote.movieId(), RatingUtil.toBucket(vote.rate())), 1L, Long::sum);
+            } else {
+                Timestamp ratedAt = Timestamp.from(vote.acceptedAt());
+                updatedRatings.add(new Object[]{vote.rate(), ratedAt, existingRating.id(), ratedAt});
+
+                if (!existingRating.rate().equals(vote.rate())) {
+                    RatingDifference ratingDifference = ratingDifferences.computeIfAbsent(vote.movieId(), movieId -> new RatingDifference());
+                    ratingDifference.rateDifference += vote.rate() - existingRating.rate();
+                    ratingDifference.voteCount++;
+                    histogramDifferences.merge(new BucketKey(vote.movieId(), RatingUtil.toBucket(existingRating.rate())), -1L, Long::sum);
+                    histogramDifferences.merge(new BucketKey(vote.movieId(), RatingUtil.toBucket(vote.rate())), 1L, Long::sum);
+                }
+            }
+        }
+
+        insertRatings(insertedVotes);
+        jdbcTemplate.batchUpdate(UPDATE_RATING, updatedRatings);
+        jdbcTemplate.batchUpdate(UPDATE_MOVIE_RATING, ratingDifferences.entrySet()
+                .stream()
+                .map(entry -> new Object[]{
+                        entry.getValue().rateDifference, entry.getValue().countDifference, entry.getValue().countDifference,
+                        entry.getValue().rateDifference, entry.getValue().countDifference, entry.getKey()})
+                .toList());
+
+        jdbcTemplate.batchUpdate(ADD_TO_RATING_HISTOGRAM, histogramDifferences.entrySet()
+                .stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new Object[]{entry.getKey().movieId(), entry.getKey().bucket(), entry.getValue()})
+                .toList());
+
+        batchResult.coalescedVotes = votes.size() - latestVotes.size();
+        batchResult.writtenVotes = insertedVotes.size() + updatedRatings.size();
+        batchResult.ratingDifferences.putAll(ratingDifferences);
+
+        return batchResult;
+    }
+
+    private void record(BatchResult batchResult) {
+        if (batchResult.votes == 0) {
+            return;
+        }
+
+        coalescedVotes.addAndGet(batchResult.coalescedVotes);
+        discardedVotes.addAndGet(batchResult.discardedVotes);
+        supersededVotes.addAndGet(batchResult.supersededVotes);
+        writtenVotes.addAndGet(batchResult.writtenVotes);
+        lastBatchSize = batchResult.votes;
+        lastFlushedAt = Instant.now();
+        log.info("{} {} votes are written as {} ratings", batchResult.votes, ResourceNames.RATING, batchResult.writtenVotes);
+
+        synchronizeMovies(batchResult.ratingDifferences);
+    }
+
+    /*
+     * Keeps the latest vote of each (movie, audience) in the order the keys are first seen
+     */
+    static Collection<RatingVote> coalesce(List<RatingVote> votes) {
+        Map<RatingKey, RatingVote> latestVotes = new LinkedHashMap<>();
+
+        votes.forEach(vote -> latestVotes.merge(new RatingKey(vote.movieId(), vote.audienceId()), vote,
+                (previous, current) -> current.acceptedAt().isBefore(previous.acceptedAt()) ? previous : current));
+
+        return latestVotes.values();
+    }
+
+    private Map<RatingKey, LockedRating> lockRatings(Collection<RatingVote> votes) {
+        List<Object> parameters = new ArrayList<>(votes.size() * 2);
+        votes.forEach(vote -> {
+            parameters.add(vote.movieId());
+            parameters.add(vote.audienceId());
+        });
+
+        return jdbcTemplate.query(String.format(LOCK_RATINGS, placeholders(votes.size(), "(?, ?)")), (resultSet, rowNumber) -> new LockedRating(
+                        resultSet.getInt("id"), resultSet.getInt("movie_id"), resultSet.getInt("audience_id"),
+                        resultSet.getDouble("rate"), resultSet.getTimestamp("rated_at").toInstant()), parameters.toArray())
+                .stream()
+                .collect(Collectors.toMap(rating -> new RatingKey(rating.movieId(), rating.audienceId()), Function.identity()));
+    }
+
+    /*
+     * Rows are inserted in key order to avoid deadlocks between nodes. A row inserted concurrently since the ratings
+     * were locked makes the batch roll back, and the retry takes the update path for it.
+     */
+    private void insertRatings(List<RatingVote> votes) {
+        if (votes.isEmpty()) {
+            return;
+        }
+
+        List<RatingVote> orderedVotes = votes.stream()
+                .sorted(Comparator.comparing(RatingVote::movieId).thenComparing(RatingVote::audienceId))
+                .toList();
+        List<Object> parameters = new ArrayList<>(orderedVotes.size() * 4);
+        orderedVotes.forEach(vote -> {
+            parameters.add(vote.rate());
+            parameters.add(vote.movieId());
+            parameters.add(vote.audienceId());
+            parameters.add(Timestamp.from(vote.acceptedAt()));
+        });
+
+        int insertedRows = jdbcTemplate.query(String.format(INSERT_RATINGS, placeholders(orderedVotes.size(), "(?, ?, ?, ?)")),
+                (resultSet, rowNumber) -> resultSet.getInt("movie_id"), parameters.toArray()).size();
+
+        if (insertedRows != orderedVotes.size()) {
+            throw new IllegalStateException(ResourceNames.RATING + " is written concurrently");
+        }
+    }
+
+    private static String placeholders(int count, String placeholder) {
+        return String.join(", ", Collections.nCopies(count, placeholder));
+    }
+
+    private void synchronizeMovies(Map<Integer, RatingDifference> ratingDifferences) {
+        if (ratingDifferences.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> movieIds = ratingDifferences.keySet();
+        Cache movieCache = cacheManager.getCache(MOVIE_CACHE);
+        Cache latestMovieCache = cacheManager.getCache(LATEST_MOVIE_CACHE);
+
+        try {
+            if (movieCache != null) {
+                movieIds.forEach(movieCache::evict);
+            }
+
+            /* Pages of the latest movies carry the average ratings, so any of them may hold a rated movie */
+            if (latestMovieCache != null) {
+                latestMovieCache.clear();
+            }
+
+            List<MovieChangedEvent.Change> changes = movieRepository.findByIdIn(movieIds)
+                    .stream()
+                    .map(movie -> {
+                        RatingDifference ratingDifference = ratingDifferences.get(movie.getId());
+                        return MovieChangedEvent.Change.rated(movie, ratingDifference.voteCount, ratingDifference.countDifference);
+                    })
+                    .toList();
+            applicationEventPublisher.publishEvent(MovieChangedEvent.rated(changes));
+        } catch (RuntimeException exception) {
+            log.error(LogMessages.SYNCHRONIZATION_FAILED, ResourceNames.MOVIE, movieIds, exception.getMessage());
+        }
+    }
+
+    private void spill(List<RatingVote> votes) {
+        spillLock.readLock().lock();
+
+        try {
+            int firstOverflowIndex = 0;
+
+            while (!spilling && firstOverflowIndex < votes.size() && queue.offer(votes.get(firstOverflowIndex))) {
+                firstOverflowIndex++;
+            }
+
+            List<RatingVote> overflowVotes = votes.subList(firstOverflowIndex, votes.size());
+
+            if (overflowVotes.isEmpty()) {
+                return;
+            }
+
+            spilling = true;
+            pendingRatingRepository.saveAll(overflowVotes.stream()
+                    .map(vote -> PendingRating.builder()
+                            .movieId(vote.movieId())
+                            .audienceId(vote.audienceId())
+                            .rate(vote.rate())
+                            .acceptedAt(vote.acceptedAt())
+                            .build())
+                    .toList());
+            spilledVotes.addAndGet(overflowVotes.size());
+        } finally {
+            spillLock.readLock().unlock();
+        }
+    }
+
+    private boolean stopSpilling() {
+        spillLock.writeLock().lock();
+
+        try {
+            if (pendingRatingRepository.findFirstByOrderByIdAsc().isEmpty()) {
+                spilling = false;
+                log.info("Pending {}s are drained", ResourceNames.RATING);
+            }
+
+            return !spilling;
+        } finally {
+            spillLock.writeLock().unlock();
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(flushInterval);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record RatingKey(Integer movieId, Integer audienceId) {
+
+    }
+
+    private record BucketKey(Integer movieId, Integer bucket) {
+
+    }
+
+    private record LockedRating(Integer id, Integer movieId, Integer audienceId, Double rate, Instant ratedAt) {
+
+    }
+
+    private static class BatchResult {
+        private final Map<Integer, RatingDifference> ratingDifferences = new HashMap<>();
+        private int votes;
+        private long coalescedVotes;
+        private long discardedVotes;
+        private long supersededVotes;
+        private long writtenVotes;
+    }
+
+    private static class RatingDifference {
+        private double rateDifference;
+        private long countDifference;
+        private long voteCount;
+    }
+}
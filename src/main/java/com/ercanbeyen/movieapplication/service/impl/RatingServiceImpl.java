@@ -1,47 +1,113 @@
 package com.ercanbeyen.movieapplication.service.impl;
 
+import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
 import com.ercanbeyen.movieapplication.constant.message.LogMessages;
 import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
 import com.ercanbeyen.movieapplication.dto.PageDto;
 import com.ercanbeyen.movieapplication.dto.RatingDto;
+import com.ercanbeyen.movieapplication.dto.RatingEntry;
+import com.ercanbeyen.movieapplication.dto.RatingHistogramDto;
+import com.ercanbeyen.movieapplication.dto.RatingUpsertResult;
 import com.ercanbeyen.movieapplication.dto.converter.RatingDtoConverter;
-import com.ercanbeyen.movieapplication.entity.Audience;
-import com.ercanbeyen.movieapplication.entity.Movie;
 import com.ercanbeyen.movieapplication.entity.Rating;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.movieapplication.repository.RatingHistogramRepository;
 import com.ercanbeyen.movieapplication.repository.RatingRepository;
 import com.ercanbeyen.movieapplication.service.RatingService;
+import com.ercanbeyen.movieapplication.specification.RatingSpecification;
+import com.ercanbeyen.movieapplication.util.CursorUtil;
+import com.ercanbeyen.movieapplication.util.RatingUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RatingServiceImpl implements RatingService {
+    /*
+     * One indexed round trip per vote. The existing row is locked and updated, otherwise a new row is inserted; the
+     * unique (movie_id, audience_id) constraint turns a concurrent insert of the same vote into an empty result,
+     * which is retried and then takes the update path, so the previous rate is always known to the caller.
+     * rated_at comes from the application clock, as the accepted time of queued votes does, so they can be ordered.
+     */
+    private static final String UPSERT_RATING = """
+            WITH previous AS (
+                SELECT id, rate FROM ratings WHERE movie_id = ? AND audience_id = ? FOR UPDATE
+            ), updated AS (
+                UPDATE ratings SET rate = ?, rated_at = ? FROM previous WHERE ratings.id = previous.id
+                RETURNING ratings.id, previous.rate AS previous_rate
+            ), inserted AS (
+                INSERT INTO ratings (rate, movie_id, audience_id, rated_at)
+                SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM previous)
+                ON CONFLICT (movie_id, audience_id) DO NOTHING
+                RETURNING id, CAST(NULL AS DOUBLE PRECISION) AS previous_rate
+            )
+            SELECT id, previous_rate FROM updated
+            UNION ALL
+            SELECT id, previous_rate FROM inserted
+            """;
+    private static final String DELETE_RATING = "DELETE FROM ratings WHERE movie_id = ? AND audience_id = ? RETURNING rate";
+    private static final int MAXIMUM_UPSERT_ATTEMPTS = 3;
+    private static final String ID = "id";
     private final RatingRepository ratingRepository;
     private final RatingDtoConverter ratingDtoConverter;
+    private final RatingHistogramRepository ratingHistogramRepository;
+    private final JdbcTemplate jdbcTemplate;
+
     @Override
-    public RatingDto createRating(Audience audience, Movie movie, Double rate) {
-        Rating newRating = new Rating();
-        newRating.setAudience(audience);
-        newRating.setMovie(movie);
-        newRating.setRate(rate);
+    public RatingUpsertResult upsertRating(Integer movieId, Integer audienceId, Double rate) {
+        for (int attempt = 1; attempt <= MAXIMUM_UPSERT_ATTEMPTS; attempt++) {
+            Timestamp ratedAt = Timestamp.from(Instant.now());
+            List<RatingUpsertResult> results = jdbcTemplate.query(UPSERT_RATING,
+                    (resultSet, rowNumber) -> new RatingUpsertResult(resultSet.getInt("id"), resultSet.getObject("previous_rate", Double.class)),
+                    movieId, audienceId, rate, ratedAt, rate, movieId, audienceId, ratedAt);
+
+            if (!results.isEmpty()) {
+                RatingUpsertResult result = results.get(0);
+                log.info(LogMessages.SAVED, ResourceNames.RATING);
+                updateRatingHistogram(movieId, result.previousRate(), rate);
+                return result;
+            }
 
-        Rating savedRating = ratingRepository.save(newRating);
-        log.info(LogMessages.SAVED, ResourceNames.RATING);
+            log.warn("{} of {} {} is written concurrently, attempt {} is retried", ResourceNames.RATING, ResourceNames.MOVIE, movieId, attempt);
+        }
 
-        return ratingDtoConverter.convert(savedRating);
+        throw new IllegalStateException("Unable to rate " + ResourceNames.MOVIE + " " + movieId);
     }
 
     @Override
-    public PageDto<Rating, RatingDto> getRatings(Pageable pageable) {
+    public PageDto<Rating, RatingDto> getRatings(Pageable pageable, String after) {
+        if (after != null) {
+            Window<Rating> ratingWindow = ratingRepository.findBy(Specification.where(null), query -> query
+                    .sortBy(pageable.getSort())
+                    .limit(pageable.getPageSize())
+                    .scroll(CursorUtil.decode(after, pageable.getSort(), Rating.class)));
+            log.info(LogMessages.FETCHED_ALL, ResourceNames.RATING);
+
+            List<RatingDto> ratingDtoList = ratingWindow.stream()
+                    .map(ratingDtoConverter::convert)
+                    .toList();
+
+            return new PageDto<>(ratingWindow, pageable, ratingDtoList);
+        }
+
         Page<Rating> ratingPage = ratingRepository.findAll(pageable);
         log.info(LogMessages.FETCHED_ALL, ResourceNames.MOVIE);
 
@@ -52,6 +118,39 @@ public class RatingServiceImpl implements RatingService {
         return new PageDto<>(ratingPage, ratingDtoList);
     }
 
+    /* Ratings of an audience are always scrolled by keyset over (audience_id, id), so deep pages cost the same as the first */
+    @Override
+    public PageDto<Rating, RatingDto> getRatingsOfAudience(Integer audienceId, Pageable pageable, String after) {
+        Sort sort = (pageable.getSort().getOrderFor(ID) == null) ? pageable.getSort().and(Sort.by(Sort.Direction.DESC, ID)) : pageable.getSort();
+        Pageable keysetPageable = PageRequest.of(0, pageable.getPageSize(), sort);
+
+        Window<Rating> ratingWindow = ratingRepository.findBy(RatingSpecification.belongsTo(audienceId), query -> query
+                .sortBy(sort)
+                .limit(keysetPageable.getPageSize())
+                .scroll(CursorUtil.decode(after, sort, Rating.class)));
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.RATING);
+
+        List<RatingDto> ratingDtoList = ratingWindow.stream()
+                .map(ratingDtoConverter::convert)
+                .toList();
+
+        return new PageDto<>(ratingWindow, keysetPageable, ratingDtoList);
+    }
+
+    @Override
+    public void detachRatingsOfAudience(Integer audienceId) {
+        int detachedRatings = ratingRepository.detachAudience(audienceId);
+        log.info("{} {}s are detached from {} {}", detachedRatings, ResourceNames.RATING, ResourceNames.AUDIENCE, audienceId);
+    }
+
+    @Override
+    public List<RatingEntry> getRatingEntriesOfAudience(Integer audienceId) {
+        List<RatingEntry> ratingEntries = ratingRepository.findRatingEntriesByAudienceId(audienceId);
+        log.info(LogMessages.FETCHED_ALL, ResourceNames.RATING);
+
+        return ratingEntries;
+    }
+
     @Override
     public RatingDto getRating(Integer movieId, Integer audienceId) {
         Rating ratingInDb = ratingRepository.findByMovieIdAndAudienceId(movieId, audienceId)
@@ -59,28 +158,69 @@ public class RatingServiceImpl implements RatingService {
         return ratingDtoConverter.convert(ratingInDb);
     }
 
+    /* The row is locked and its rate read by the delete itself, so a concurrent re-rate cannot change the returned rate */
+    @Override
+    public Double deleteRating(Integer movieId, Integer audienceId) {
+        List<Double> deletedRates = jdbcTemplate.queryForList(DELETE_RATING, Double.class, movieId, audienceId);
+
+        if (deletedRates.isEmpty()) {
+            throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.RATING));
+        }
+
+        Double deletedRate = deletedRates.get(0);
+        log.info(LogMessages.DELETED, ResourceNames.RATING);
+        ratingHistogramRepository.addToBucket(movieId, RatingUtil.toBucket(deletedRate), -1L);
+
+        return deletedRate;
+    }
+
+    /* Histograms are maintained incrementally, so they are only derived from the ratings table when none exist yet */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillRatingHistograms() {
+        if (ratingHistogramRepository.count() == 0) {
+            int rows = ratingHistogramRepository.backfill(DefaultValues.MINIMUM_RATE, DefaultValues.MAXIMUM_RATE);
+            log.info("{} rating histogram buckets are backfilled", rows);
+        }
+    }
+
     @Override
-    public RatingDto updatedRating(Rating rating, Double rate) {
-        rating.setRate(rate);
-        Rating savedRating = ratingRepository.save(rating);
-        log.info(LogMessages.SAVED, ResourceNames.RATING);
-        return ratingDtoConverter.convert(savedRating);
+    public RatingHistogramDto getRatingHistogram(Integer movieId) {
+        Map<Integer, Long> buckets = new TreeMap<>();
+
+        for (int bucket = DefaultValues.MINIMUM_RATE; bucket <= DefaultValues.MAXIMUM_RATE; bucket++) {
+            buckets.put(bucket, 0L);
+        }
+
+        ratingHistogramRepository.findEntriesByMovieId(movieId)
+                .forEach(entry -> buckets.put(entry.bucket(), entry.ratingCount()));
+
+        long total = buckets.values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+
+        return new RatingHistogramDto(movieId, buckets, total);
     }
 
     @Override
-    public void deleteRating(Integer movieId, Integer audienceId) {
-        ratingRepository.findByMovieIdAndAudienceId(movieId, audienceId)
-                .ifPresentOrElse(rating -> {
-                    removeRatingFromMovieAndAudience.accept(rating);
-                    ratingRepository.save(rating);
-                    ratingRepository.delete(rating);
-                    }, () -> {
-                    throw new ResourceNotFoundException(String.format(ResponseMessages.NOT_FOUND, ResourceNames.RATING));
-                });
+    public void deleteRatingHistogram(Integer movieId) {
+        ratingHistogramRepository.deleteByMovieId(movieId);
+        log.info(LogMessages.DELETED, "Rating histogram");
     }
 
-    private final Consumer<Rating> removeRatingFromMovieAndAudience = rating -> {
-        rating.setMovie(null);
-        rating.setAudience(null);
-    };
+    private void updateRatingHistogram(Integer movieId, Double previousRate, Double rate) {
+        int bucket = RatingUtil.toBucket(rate);
+
+        if (previousRate == null) {
+            ratingHistogramRepository.addToBucket(movieId, bucket, 1L);
+            return;
+        }
+
+        int previousBucket = RatingUtil.toBucket(previousRate);
+
+        if (previousBucket != bucket) {
+            ratingHistogramRepository.addToBucket(movieId, previousBucket, -1L);
+            ratingHistogramRepository.addToBucket(movieId, bucket, 1L);
+        }
+    }
 }
@@ -0,0 +1,218 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.enums.MovieChangeType;
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.dto.RatingUpdate;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.service.RatingUpdateService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/*
+ * Fans rating aggregate changes out to Server-Sent Events subscribers. Changes are coalesced per movie, so only the
+ * latest one is kept, and flushed at most maximum-updates-per-second times a second by a single broadcaster thread.
+ * Every subscriber has a bounded buffer drained by its own sender, so a slow client never blocks the broadcaster;
+ * when the buffer overflows, the client is disconnected instead of being buffered forever.
+ */
+@Service
+@Slf4j
+public class RatingUpdateServiceImpl implements RatingUpdateService {
+    private static final String EVENT_NAME = "rating";
+    private static final String HEARTBEAT = "heartbeat";
+
+    private final long flushInterval;
+    private final long heartbeatInterval;
+    private final int bufferSize;
+    private final long timeout;
+
+    private final Map<Integer, RatingUpdate> pendingUpdates = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Subscriber>> subscribersByMovieId = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+            .name("rating-update-sender-", 0)
+            .factory());
+    private ScheduledExecutorService broadcaster;
+
+    private final AtomicLong publishedUpdates = new AtomicLong();
+    private final AtomicLong coalescedUpdates = new AtomicLong();
+    private final AtomicLong sentEvents = new AtomicLong();
+    private final AtomicLong droppedSubscribers = new AtomicLong();
+
+    public RatingUpdateServiceImpl(@Value("${movie.rating-updates.maximum-updates-per-second:2}") int maximumUpdatesPerSecond,
+                                   @Value("${movie.rating-updates.heartbeat-interval:15000}") long heartbeatInterval,
+                                   @Value("${movie.rating-updates.buffer-size:16}") int bufferSize,
+                                   @Value("${movie.rating-updates.timeout:1800000}") long timeout) {
+        this.flushInterval = Math.max(1, 1000 / maximumUpdatesPerSecond);
+        this.heartbeatInterval = heartbeatInterval;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    @PostConstruct
+    public void start() {
+        broadcaster = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("rating-updates")
+                .daemon()
+                .factory());
+        broadcaster.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        broadcaster.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatInterval, heartbeatInterval, TimeUnit.MILLISECONDS);
+        log.info(LogMessages.TASK_STARTED, "flush");
+    }
+
+    @PreDestroy
+    public void stop() {
+        broadcaster.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        senders.shutdown();
+        log.info(LogMessages.TASK_COMPLETED, "flush");
+    }
+
+    @Override
+    public SseEmitter subscribe(Collection<Integer> movieIds) {
+        SseEmitter emitter = createEmitter(timeout);
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(movieIds), new ArrayBlockingQueue<>(bufferSize), new AtomicBoolean());
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(exception -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        subscriber.movieIds().forEach(movieId -> subscribersByMovieId.compute(movieId, (key, movieSubscribers) -> {
+            Set<Subscriber> updatedSubscribers = (movieSubscribers != null) ? movieSubscribers : ConcurrentHashMap.newKeySet();
+            updatedSubscribers.add(subscriber);
+            return updatedSubscribers;
+        }));
+
+        log.info("{} updates are subscribed for {}s {}", ResourceNames.RATING, ResourceNames.MOVIE, subscriber.movieIds());
+        return emitter;
+    }
+
+    @Override
+    public void publish(Movie movie) {
+        if (!subscribersByMovieId.containsKey(movie.getId())) {
+            return;
+        }
+
+        RatingUpdate ratingUpdate = new RatingUpdate(movie.getId(), movie.getAverageRating(), movie.getRatingCount(), Instant.now());
+        publishedUpdates.incrementAndGet();
+
+        if (pendingUpdates.put(movie.getId(), ratingUpdate) != null) {
+            coalescedUpdates.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.type() == MovieChangeType.RATED) {
+            event.changes().forEach(change -> publish(change.movie()));
+        }
+    }
+
+    @Override
+    public Statistics<String, String> getStatistics() {
+        Map<String, String> statisticsMap = new HashMap<>();
+
+        statisticsMap.put("subscribers", String.valueOf(subscribers.size()));
+        statisticsMap.put("subscribedMovies", String.valueOf(subscribersByMovieId.size()));
+        statisticsMap.put("pendingUpdates", String.valueOf(pendingUpdates.size()));
+        statisticsMap.put("publishedUpdates", String.valueOf(publishedUpdates.get()));
+        statisticsMap.put("coalescedUpdates", String.valueOf(coalescedUpdates.get()));
+        statisticsMap.put("sentEvents", String.valueOf(sentEvents.get()));
+        statisticsMap.put("droppedSubscribers", String.valueOf(droppedSubscribers.get()));
+        statisticsMap.put("flushInterval", String.valueOf(flushInterval));
+        statisticsMap.put("bufferSize", String.valueOf(bufferSize));
+
+        return new Statistics<>(ResourceNames.RATING, statisticsMap);
+    }
+
+    void flush() {
+        try {
+            for (Integer movieId : pendingUpdates.keySet()) {
+                RatingUpdate ratingUpdate = pendingUpdates.remove(movieId);
+                Set<Subscriber> movieSubscribers = subscribersByMovieId.get(movieId);
+
+                if (ratingUpdate == null || movieSubscribers == null) {
+                    continue;
+                }
+
+                movieSubscribers.forEach(subscriber -> enqueue(subscriber, () -> SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .data(ratingUpdate)));
+            }
+        } catch (RuntimeException exception) {
+            log.error("{} updates could not be flushed. Exception: {}", ResourceNames.RATING, exception.getMessage());
+        }
+    }
+
+    void sendHeartbeats() {
+        subscribers.forEach(subscriber -> enqueue(subscriber, () -> SseEmitter.event().comment(HEARTBEAT)));
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    private void enqueue(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        if (!subscriber.buffer().offer(event)) {
+            droppedSubscribers.incrementAndGet();
+            log.warn("Slow {} updates subscriber is dropped", ResourceNames.RATING);
+            unsubscribe(subscriber);
+            senders.execute(() -> subscriber.emitter().complete());
+            return;
+        }
+
+        if (subscriber.sending().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                Supplier<SseEmitter.SseEventBuilder> event;
+
+                while ((event = subscriber.buffer().poll()) != null) {
+                    subscriber.emitter().send(event.get());
+                    sentEvents.incrementAndGet();
+                }
+
+                subscriber.sending().set(false);
+            } while (!subscriber.buffer().isEmpty() && subscriber.sending().compareAndSet(false, true));
+        } catch (IOException | IllegalStateException exception) {
+            log.info("{} updates subscriber is disconnected. Exception: {}", ResourceNames.RATING, exception.getMessage());
+            unsubscribe(subscriber);
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+
+        subscriber.movieIds().forEach(movieId -> subscribersByMovieId.computeIfPresent(movieId, (key, movieSubscribers) -> {
+            movieSubscribers.remove(subscriber);
+            return movieSubscribers.isEmpty() ? null : movieSubscribers;
+        }));
+        subscriber.buffer().clear();
+    }
+
+    private record Subscriber(SseEmitter emitter, Set<Integer> movieIds, BlockingQueue<Supplier<SseEmitter.SseEventBuilder>> buffer, AtomicBoolean sending) {
+
+    }
+}
@@ -0,0 +1,44 @@
+package com.ercanbeyen.movieapplication.specification;
+
+import com.ercanbeyen.movieapplication.entity.Actor;
+import com.ercanbeyen.movieapplication.option.filter.ActorFilteringOptions;
+import jakarta.persistence.criteria.Predicate;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ActorSpecification {
+    private static final String NATIONALITY = "nationality";
+    private static final String BIRTH_DATE = "birthDate";
+    private static final String MOVIES_PLAYED = "moviesPlayed";
+    private static final String ID = "id";
+
+    public static Specification<Actor> filterBy(ActorFilteringOptions filteringOptions) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filteringOptions == null) {
+                return criteriaBuilder.conjunction();
+            }
+
+            if (StringUtils.isNotBlank(filteringOptions.nationality())) {
+                predicates.add(criteriaBuilder.equal(root.get(NATIONALITY), filteringOptions.nationality()));
+            }
+
+            /* Birth year is matched as a date range, so an index on the birth date can still be used */
+            if (filteringOptions.birthYear() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get(BIRTH_DATE), LocalDate.of(filteringOptions.birthYear(), 1, 1)));
+                predicates.add(criteriaBuilder.lessThan(root.get(BIRTH_DATE), LocalDate.of(filteringOptions.birthYear() + 1, 1, 1)));
+            }
+
+            if (filteringOptions.movieId() != null) {
+                predicates.add(criteriaBuilder.equal(root.join(MOVIES_PLAYED).get(ID), filteringOptions.movieId()));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
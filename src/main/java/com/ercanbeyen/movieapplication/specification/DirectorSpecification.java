@@ -0,0 +1,37 @@
+package com.ercanbeyen.movieapplication.specification;
+
+import com.ercanbeyen.movieapplication.entity.Director;
+import com.ercanbeyen.movieapplication.option.filter.DirectorFilteringOptions;
+import jakarta.persistence.criteria.Predicate;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DirectorSpecification {
+    private static final String NATIONALITY = "nationality";
+    private static final String BIRTH_DATE = "birthDate";
+
+    public static Specification<Director> filterBy(DirectorFilteringOptions filteringOptions) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filteringOptions == null) {
+                return criteriaBuilder.conjunction();
+            }
+
+            if (StringUtils.isNotBlank(filteringOptions.nationality())) {
+                predicates.add(criteriaBuilder.equal(root.get(NATIONALITY), filteringOptions.nationality()));
+            }
+
+            if (filteringOptions.birthYear() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get(BIRTH_DATE), LocalDate.of(filteringOptions.birthYear(), 1, 1)));
+                predicates.add(criteriaBuilder.lessThan(root.get(BIRTH_DATE), LocalDate.of(filteringOptions.birthYear() + 1, 1, 1)));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
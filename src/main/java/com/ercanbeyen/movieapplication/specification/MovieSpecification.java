@@ -0,0 +1,40 @@
+package com.ercanbeyen.movieapplication.specification;
+
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
+import jakarta.persistence.criteria.Predicate;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MovieSpecification {
+    private static final String GENRE = "genre";
+    private static final String LANGUAGE = "language";
+    private static final String RELEASE_YEAR = "releaseYear";
+
+    public static Specification<Movie> filterBy(MovieFilteringOptions filteringOptions) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filteringOptions == null) {
+                return criteriaBuilder.conjunction();
+            }
+
+            if (filteringOptions.genres() != null && !filteringOptions.genres().isEmpty()) {
+                predicates.add(root.get(GENRE).in(filteringOptions.genres()));
+            }
+
+            if (StringUtils.isNotBlank(filteringOptions.language())) {
+                predicates.add(criteriaBuilder.equal(root.get(LANGUAGE), filteringOptions.language()));
+            }
+
+            if (filteringOptions.releaseYear() != null) {
+                predicates.add(criteriaBuilder.equal(root.get(RELEASE_YEAR), filteringOptions.releaseYear()));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.ercanbeyen.movieapplication.specification;
+
+import com.ercanbeyen.movieapplication.entity.Rating;
+import org.springframework.data.jpa.domain.Specification;
+
+public class RatingSpecification {
+    private static final String AUDIENCE = "audience";
+    private static final String ID = "id";
+
+    public static Specification<Rating> belongsTo(Integer audienceId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(AUDIENCE).get(ID), audienceId);
+    }
+}
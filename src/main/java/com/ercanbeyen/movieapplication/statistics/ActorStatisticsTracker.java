@@ -0,0 +1,70 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.ActorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+
+/* Movies played per actor, kept by actor writes and the cast changes of movie updates and deletes */
+@Component
+public class ActorStatisticsTracker extends StatisticsTracker<CountSummary<Integer>> {
+    private final ActorRepository actorRepository;
+
+    public ActorStatisticsTracker(ActorRepository actorRepository,
+                                  @Value("${movie.statistics.tracking.enabled:false}") boolean enabled) {
+        super(ResourceNames.ACTOR, enabled);
+        this.actorRepository = actorRepository;
+    }
+
+    public void put(Integer id) {
+        update(summary -> summary.put(id, 0));
+    }
+
+    public void changeMovieCount(Integer id, long difference) {
+        update(summary -> summary.add(id, difference));
+    }
+
+    public void remove(Integer id) {
+        update(summary -> summary.remove(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        event.changes().forEach(change -> {
+            if (change.previousFeatures() != null) {
+                change.previousFeatures().actorIds().forEach(id -> changeMovieCount(id, -1));
+            }
+
+            if (change.features() != null) {
+                change.features().actorIds().forEach(id -> changeMovieCount(id, 1));
+            }
+        });
+    }
+
+    @Override
+    protected CountSummary<Integer> load() {
+        CountSummary<Integer> summary = new CountSummary<>();
+        actorRepository.findMovieCountEntries().forEach(entry -> summary.put(entry.id(), entry.movieCount()));
+        return summary;
+    }
+
+    @Override
+    protected Map<String, String> summarize(CountSummary<Integer> summary) {
+        Map<String, String> statisticsMap = new HashMap<>();
+        DoubleSummaryStatistics summaryStatistics = summary.toSummaryStatistics();
+
+        statisticsMap.put("mostPlayedCount", String.valueOf(summaryStatistics.getMax()));
+        statisticsMap.put("leastPlayedCount", String.valueOf(summaryStatistics.getMin()));
+        statisticsMap.put("playedMovieSum", String.valueOf(summaryStatistics.getSum()));
+        statisticsMap.put("playedMovieAverage", String.valueOf(summaryStatistics.getAverage()));
+        statisticsMap.put("playerCount", String.valueOf(summaryStatistics.getCount()));
+
+        return statisticsMap;
+    }
+}
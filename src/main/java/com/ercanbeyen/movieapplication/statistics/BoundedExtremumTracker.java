@@ -0,0 +1,120 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.util.*;
+
+/*
+ * Tracks the labels of the keys holding the minimum and maximum values while retaining only the capacity highest and
+ * lowest keys instead of every key. A retained key that falls behind the last retained one is dropped, because a key
+ * that is not retained may now rank before it; a range that runs empty this way is drained and has to be refilled
+ * from the source. A range refilled with fewer keys than its capacity holds every key and is never drained.
+ * Ties are broken by the lowest key.
+ */
+public class BoundedExtremumTracker<K extends Comparable<K>> {
+    private final Range<K> highest;
+    private final Range<K> lowest;
+
+    public BoundedExtremumTracker(int capacity) {
+        Comparator<Entry<K>> byKey = Comparator.comparing(Entry::key);
+        this.highest = new Range<>(capacity, Comparator.comparingDouble((Entry<K> entry) -> entry.value()).reversed().thenComparing(byKey));
+        this.lowest = new Range<>(capacity, Comparator.comparingDouble((Entry<K> entry) -> entry.value()).thenComparing(byKey));
+    }
+
+    public void put(K key, Double value, String label) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+
+        Entry<K> entry = new Entry<>(key, value, label);
+        highest.put(entry);
+        lowest.put(entry);
+    }
+
+    public void remove(K key) {
+        highest.remove(key);
+        lowest.remove(key);
+    }
+
+    public void refill(List<Entry<K>> highestEntries, List<Entry<K>> lowestEntries) {
+        highest.refill(highestEntries);
+        lowest.refill(lowestEntries);
+    }
+
+    public boolean isDrained() {
+        return highest.isDrained() || lowest.isDrained();
+    }
+
+    public String getMaximumLabel() {
+        return highest.getFirstLabel();
+    }
+
+    public String getMinimumLabel() {
+        return lowest.getFirstLabel();
+    }
+
+    public int size() {
+        return Math.max(highest.entriesByKey.size(), lowest.entriesByKey.size());
+    }
+
+    public record Entry<K>(K key, double value, String label) {
+
+    }
+
+    private static final class Range<K> {
+        private final int capacity;
+        private final Comparator<Entry<K>> order;
+        private final TreeSet<Entry<K>> entries;
+        private final Map<K, Entry<K>> entriesByKey = new HashMap<>();
+        private boolean complete = true;
+
+        private Range(int capacity, Comparator<Entry<K>> order) {
+            this.capacity = capacity;
+            this.order = order;
+            this.entries = new TreeSet<>(order);
+        }
+
+        /* Every key that is not retained ranks behind the last retained one, so only a key ranking before it is kept */
+        private void put(Entry<K> entry) {
+            Entry<K> last = entries.isEmpty() ? null : entries.last();
+            remove(entry.key());
+
+            if (!complete && (last == null || order.compare(entry, last) > 0)) {
+                return;
+            }
+
+            entries.add(entry);
+            entriesByKey.put(entry.key(), entry);
+
+            if (entries.size() > capacity) {
+                entriesByKey.remove(entries.pollLast().key());
+                complete = false;
+            }
+        }
+
+        private void remove(K key) {
+            Entry<K> entry = entriesByKey.remove(key);
+
+            if (entry != null) {
+                entries.remove(entry);
+            }
+        }
+
+        private void refill(List<Entry<K>> newEntries) {
+            entries.clear();
+            entriesByKey.clear();
+            newEntries.forEach(entry -> {
+                entries.add(entry);
+                entriesByKey.put(entry.key(), entry);
+            });
+            complete = newEntries.size() < capacity;
+        }
+
+        private boolean isDrained() {
+            return entries.isEmpty() && !complete;
+        }
+
+        private String getFirstLabel() {
+            return entries.isEmpty() ? null : entries.first().label();
+        }
+    }
+}
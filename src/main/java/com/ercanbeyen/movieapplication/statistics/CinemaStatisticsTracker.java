@@ -0,0 +1,166 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.document.Cinema;
+import com.ercanbeyen.movieapplication.repository.CinemaRepository;
+import com.ercanbeyen.movieapplication.util.StatisticsUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Cinemas with the most and least halls together with country and city frequencies, kept by cinema writes. Countries
+ * and cities are tracked either exactly, by a count per value, or approximately, by sketches that add distinct and
+ * frequent values; only the state of the configured mode is kept. The service passes the previous location of an
+ * updated cinema, so no copy of the cinemas is held. Exact statistics are not served by an approximate tracker.
+ */
+@Component
+public class CinemaStatisticsTracker extends StatisticsTracker<CinemaStatisticsTracker.State> {
+    private final CinemaRepository cinemaRepository;
+    private final SketchFactory sketchFactory;
+    private final boolean approximate;
+
+    public CinemaStatisticsTracker(CinemaRepository cinemaRepository, SketchFactory sketchFactory,
+                                   @Value("${movie.statistics.tracking.enabled:false}") boolean enabled,
+                                   @Value("${movie.statistics.tracking.approximate:false}") boolean approximate) {
+        super(ResourceNames.CINEMA, enabled);
+        this.cinemaRepository = cinemaRepository;
+        this.sketchFactory = sketchFactory;
+        this.approximate = approximate;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void add(Cinema cinema) {
+        update(state -> state.add(cinema));
+    }
+
+    public void replace(Location previousLocation, Cinema cinema) {
+        update(state -> state.replace(previousLocation, cinema));
+    }
+
+    public void remove(Cinema cinema) {
+        update(state -> state.remove(cinema));
+    }
+
+    @Override
+    protected State load() {
+        State state = approximate ? new State(sketchFactory) : new State();
+        cinemaRepository.findAll().forEach(state::add);
+        return state;
+    }
+
+    @Override
+    protected Map<String, String> summarize(State state) {
+        Map<String, String> statisticsMap = new HashMap<>();
+
+        statisticsMap.put("mostHallsHad", StatisticsUtil.valueAssignmentToStringItem(state.halls.getMaximumLabel()));
+        statisticsMap.put("leastHallsHad", StatisticsUtil.valueAssignmentToStringItem(state.halls.getMinimumLabel()));
+
+        if (!approximate) {
+            statisticsMap.put("mostOccurredCountry", StatisticsUtil.valueAssignmentToStringItem(state.countries.getMostFrequent()));
+            statisticsMap.put("leastOccurredCountry", StatisticsUtil.valueAssignmentToStringItem(state.countries.getLeastFrequent()));
+            statisticsMap.put("mostOccurredCity", StatisticsUtil.valueAssignmentToStringItem(state.cities.getMostFrequent()));
+            statisticsMap.put("leastOccurredCity", StatisticsUtil.valueAssignmentToStringItem(state.cities.getLeastFrequent()));
+        }
+
+        return statisticsMap;
+    }
+
+    @Override
+    protected Map<String, String> summarizeApproximately(State state) {
+        Map<String, String> statisticsMap = summarize(state);
+
+        if (!approximate) {
+            return statisticsMap;
+        }
+
+        statisticsMap.put("mostOccurredCountry", StatisticsUtil.valueAssignmentToStringItem(state.countrySketch.getMostFrequent()));
+        statisticsMap.put("leastOccurredCountry", StatisticsUtil.valueAssignmentToStringItem(state.countrySketch.getLeastFrequent()));
+        statisticsMap.put("mostOccurredCity", StatisticsUtil.valueAssignmentToStringItem(state.citySketch.getMostFrequent()));
+        statisticsMap.put("leastOccurredCity", StatisticsUtil.valueAssignmentToStringItem(state.citySketch.getLeastFrequent()));
+        sketchFactory.putFrequencyErrorBound(statisticsMap, "country", state.countrySketch);
+        sketchFactory.putFrequencyErrorBound(statisticsMap, "city", state.citySketch);
+        sketchFactory.putDistinctCount(statisticsMap, "distinctCountryCount", state.countryCounter);
+        sketchFactory.putDistinctCount(statisticsMap, "distinctCityCount", state.cityCounter);
+
+        return statisticsMap;
+    }
+
+    /* Services modify and save the same document instance, so the previous location is read before the change */
+    public record Location(String country, String city) {
+        public static Location of(Cinema cinema) {
+            return new Location(cinema.getCountry(), cinema.getCity());
+        }
+    }
+
+    /* An exact state keeps the count of each country and city, an approximate one only the sketches */
+    protected static final class State {
+        private final ExtremumTracker<String> halls = new ExtremumTracker<>();
+        private final FrequencyCounter countries;
+        private final FrequencyCounter cities;
+        private final HyperLogLog countryCounter;
+        private final HyperLogLog cityCounter;
+        private final FrequencySketch countrySketch;
+        private final FrequencySketch citySketch;
+
+        private State() {
+            this.countries = new FrequencyCounter();
+            this.cities = new FrequencyCounter();
+            this.countryCounter = null;
+            this.cityCounter = null;
+            this.countrySketch = null;
+            this.citySketch = null;
+        }
+
+        private State(SketchFactory sketchFactory) {
+            this.countries = null;
+            this.cities = null;
+            this.countryCounter = sketchFactory.createDistinctCounter();
+            this.cityCounter = sketchFactory.createDistinctCounter();
+            this.countrySketch = sketchFactory.createFrequencySketch();
+            this.citySketch = sketchFactory.createFrequencySketch();
+        }
+
+        private void add(Cinema cinema) {
+            addLocation(Location.of(cinema), 1);
+            halls.put(cinema.getId(), (double) cinema.getNumberOfHalls(), cinema.getName());
+        }
+
+        private void replace(Location previousLocation, Cinema cinema) {
+            Location location = Location.of(cinema);
+
+            if (!previousLocation.equals(location)) {
+                addLocation(previousLocation, -1);
+                addLocation(location, 1);
+            }
+
+            halls.put(cinema.getId(), (double) cinema.getNumberOfHalls(), cinema.getName());
+        }
+
+        private void remove(Cinema cinema) {
+            addLocation(Location.of(cinema), -1);
+            halls.remove(cinema.getId());
+        }
+
+        private void addLocation(Location location, long count) {
+            if (countries != null) {
+                countries.add(location.country(), count);
+                cities.add(location.city(), count);
+                return;
+            }
+
+            countrySketch.add(location.country(), count);
+            citySketch.add(location.city(), count);
+
+            if (count > 0) {
+                countryCounter.add(location.country());
+                cityCounter.add(location.city());
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Running summary of a per key count such as the movies played by each actor. The sum is kept as a running total
+ * and the counts as an ordered multiset, so minimum and maximum survive decrements and deleted keys.
+ */
+public class CountSummary<K> {
+    private final Map<K, Long> countsByKey = new HashMap<>();
+    private final TreeMap<Long, Long> keysByCount = new TreeMap<>();
+    private long sum;
+
+    public void put(K key, long count) {
+        remove(key);
+        countsByKey.put(key, count);
+        keysByCount.merge(count, 1L, Long::sum);
+        sum += count;
+    }
+
+    public void add(K key, long difference) {
+        Long count = countsByKey.get(key);
+
+        if (count != null) {
+            put(key, Math.max(0, count + difference));
+        }
+    }
+
+    public void remove(K key) {
+        Long count = countsByKey.remove(key);
+
+        if (count == null) {
+            return;
+        }
+
+        keysByCount.computeIfPresent(count, (value, keys) -> (keys == 1) ? null : keys - 1);
+        sum -= count;
+    }
+
+    public DoubleSummaryStatistics toSummaryStatistics() {
+        if (countsByKey.isEmpty()) {
+            return new DoubleSummaryStatistics();
+        }
+
+        return new DoubleSummaryStatistics(countsByKey.size(), keysByCount.firstKey(), keysByCount.lastKey(), sum);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.DirectorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * Movies directed per director, kept by director writes and the director assignments of movie updates and deletes.
+ * Movies removed by a cascaded director delete are only caught up by reconciliation.
+ */
+@Component
+public class DirectorStatisticsTracker extends StatisticsTracker<CountSummary<Integer>> {
+    private final DirectorRepository directorRepository;
+
+    public DirectorStatisticsTracker(DirectorRepository directorRepository,
+                                     @Value("${movie.statistics.tracking.enabled:false}") boolean enabled) {
+        super(ResourceNames.DIRECTOR, enabled);
+        this.directorRepository = directorRepository;
+    }
+
+    public void put(Integer id) {
+        update(summary -> summary.put(id, 0));
+    }
+
+    public void changeMovieCount(Integer id, long difference) {
+        update(summary -> summary.add(id, difference));
+    }
+
+    public void remove(Integer id) {
+        update(summary -> summary.remove(id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        event.changes().forEach(change -> {
+            if (change.previousFeatures() != null && change.previousFeatures().directorId() != null) {
+                changeMovieCount(change.previousFeatures().directorId(), -1);
+            }
+
+            if (change.features() != null && change.features().directorId() != null) {
+                changeMovieCount(change.features().directorId(), 1);
+            }
+        });
+    }
+
+    @Override
+    protected CountSummary<Integer> load() {
+        CountSummary<Integer> summary = new CountSummary<>();
+        directorRepository.findMovieCountEntries().forEach(entry -> summary.put(entry.id(), entry.movieCount()));
+        return summary;
+    }
+
+    @Override
+    protected Map<String, String> summarize(CountSummary<Integer> summary) {
+        Map<String, String> statisticsMap = new HashMap<>();
+        DoubleSummaryStatistics summaryStatistics = summary.toSummaryStatistics();
+
+        statisticsMap.put("mostDirectedCount", String.valueOf(summaryStatistics.getMax()));
+        statisticsMap.put("leastDirectedCount", String.valueOf(summaryStatistics.getMin()));
+        statisticsMap.put("directedMovieSum", String.valueOf(summaryStatistics.getSum()));
+        statisticsMap.put("directedMovieAverage", String.valueOf(summaryStatistics.getAverage()));
+        statisticsMap.put("directorCount", String.valueOf(summaryStatistics.getCount()));
+
+        return statisticsMap;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/*
+ * Tracks the labels of the keys holding the minimum and maximum values. Keys are kept in a value ordered tree, so a
+ * deleted or changed extremum is replaced by the next one without a rescan. Ties are broken by the lowest key.
+ */
+public class ExtremumTracker<K extends Comparable<K>> {
+    private final Map<K, Double> valuesByKey = new HashMap<>();
+    private final TreeMap<Double, TreeMap<K, String>> labelsByValue = new TreeMap<>();
+
+    public void put(K key, Double value, String label) {
+        remove(key);
+
+        if (value == null) {
+            return;
+        }
+
+        valuesByKey.put(key, value);
+        labelsByValue.computeIfAbsent(value, newValue -> new TreeMap<>()).put(key, label);
+    }
+
+    public void remove(K key) {
+        Double value = valuesByKey.remove(key);
+
+        if (value == null) {
+            return;
+        }
+
+        TreeMap<K, String> labels = labelsByValue.get(value);
+        labels.remove(key);
+
+        if (labels.isEmpty()) {
+            labelsByValue.remove(value);
+        }
+    }
+
+    public String getMaximumLabel() {
+        return labelsByValue.isEmpty() ? null : labelsByValue.lastEntry().getValue().firstEntry().getValue();
+    }
+
+    public String getMinimumLabel() {
+        return labelsByValue.isEmpty() ? null : labelsByValue.firstEntry().getValue().firstEntry().getValue();
+    }
+
+    public int size() {
+        return valuesByKey.size();
+    }
+}
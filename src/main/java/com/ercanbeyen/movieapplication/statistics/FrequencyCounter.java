@@ -0,0 +1,70 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.util.*;
+
+/*
+ * Occurrence counter whose most and least frequent values are read from an ordered count index, so both adding and
+ * removing a value keep them current. Ties are broken by the natural order of the values, null values come last.
+ */
+public class FrequencyCounter {
+    private static final Comparator<String> VALUE_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final Map<String, Long> counts = new HashMap<>();
+    private final TreeMap<Long, TreeSet<String>> valuesByCount = new TreeMap<>();
+
+    public void add(String value) {
+        change(value, 1);
+    }
+
+    public void add(String value, long count) {
+        change(value, count);
+    }
+
+    public void remove(String value) {
+        change(value, -1);
+    }
+
+    public void replace(String previousValue, String newValue) {
+        if (!Objects.equals(previousValue, newValue)) {
+            remove(previousValue);
+            add(newValue);
+        }
+    }
+
+    public String getMostFrequent() {
+        return valuesByCount.isEmpty() ? null : valuesByCount.lastEntry().getValue().first();
+    }
+
+    public String getLeastFrequent() {
+        return valuesByCount.isEmpty() ? null : valuesByCount.firstEntry().getValue().first();
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    private void change(String value, long difference) {
+        long count = counts.getOrDefault(value, 0L);
+        long newCount = count + difference;
+
+        if (newCount < 0) {
+            return;
+        }
+
+        if (count > 0) {
+            TreeSet<String> values = valuesByCount.get(count);
+            values.remove(value);
+
+            if (values.isEmpty()) {
+                valuesByCount.remove(count);
+            }
+        }
+
+        if (newCount == 0) {
+            counts.remove(value);
+        } else {
+            counts.put(value, newCount);
+            valuesByCount.computeIfAbsent(newCount, key -> new TreeSet<>(VALUE_ORDER)).add(value);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.util.*;
+
+/*
+ * Count-Min Sketch with two bounded heaps of candidate values. Estimates never undercount, and overcount by at most
+ * errorRate * total with the configured confidence. The most frequent heap evicts its weakest candidate for a value
+ * estimated above it, the least frequent heap evicts its strongest candidate for a value estimated below it.
+ * Counts are decremented on removal; sketches of the same dimensions are merged by adding their counters.
+ */
+public class FrequencySketch {
+    private static final Comparator<String> VALUE_ORDER = Comparator.nullsLast(Comparator.naturalOrder());
+
+    private final int width;
+    private final int depth;
+    private final int candidateCount;
+    private final long[][] counters;
+    private long total;
+
+    private final Map<String, Long> mostFrequentEstimates = new HashMap<>();
+    private final PriorityQueue<String> mostFrequentHeap;
+    private final Map<String, Long> leastFrequentEstimates = new HashMap<>();
+    private final PriorityQueue<String> leastFrequentHeap;
+
+    public FrequencySketch(double errorRate, double confidence, int candidateCount) {
+        this.width = (int) Math.ceil(Math.E / errorRate);
+        this.depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        this.candidateCount = candidateCount;
+        this.counters = new long[depth][width];
+        this.mostFrequentHeap = new PriorityQueue<>(Comparator.comparingLong((String value) -> mostFrequentEstimates.get(value))
+                .thenComparing(VALUE_ORDER.reversed()));
+        this.leastFrequentHeap = new PriorityQueue<>(Comparator.comparingLong((String value) -> leastFrequentEstimates.get(value))
+                .reversed()
+                .thenComparing(VALUE_ORDER.reversed()));
+    }
+
+    public void add(String value) {
+        change(value, 1);
+    }
+
+    public void add(String value, long count) {
+        change(value, count);
+    }
+
+    public void remove(String value) {
+        change(value, -1);
+    }
+
+    public void merge(FrequencySketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Count-Min sketches with different dimensions cannot be merged");
+        }
+
+        for (int row = 0; row < depth; row++) {
+            for (int column = 0; column < width; column++) {
+                counters[row][column] += other.counters[row][column];
+            }
+        }
+
+        total += other.total;
+
+        Set<String> candidates = new HashSet<>(mostFrequentEstimates.keySet());
+        candidates.addAll(leastFrequentEstimates.keySet());
+        candidates.addAll(other.mostFrequentEstimates.keySet());
+        candidates.addAll(other.leastFrequentEstimates.keySet());
+        candidates.forEach(value -> offer(value, estimate(value)));
+    }
+
+    public long estimate(String value) {
+        if (value == null) {
+            return 0;
+        }
+
+        long hash = SketchHash.hash(value);
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row][column(hash, row)]);
+        }
+
+        return estimate;
+    }
+
+    public String getMostFrequent() {
+        return mostFrequentEstimates.keySet()
+                .stream()
+                .max(Comparator.comparingLong(this::estimate).thenComparing(VALUE_ORDER.reversed()))
+                .orElse(null);
+    }
+
+    public String getLeastFrequent() {
+        return leastFrequentEstimates.keySet()
+                .stream()
+                .min(Comparator.comparingLong(this::estimate).thenComparing(VALUE_ORDER))
+                .orElse(null);
+    }
+
+    public long getErrorBound() {
+        return (long) Math.ceil(Math.E / width * total);
+    }
+
+    public double getConfidence() {
+        return 1 - Math.exp(-depth);
+    }
+
+    private void change(String value, long difference) {
+        if (value == null) {
+            return;
+        }
+
+        long hash = SketchHash.hash(value);
+
+        for (int row = 0; row < depth; row++) {
+            int column = column(hash, row);
+            counters[row][column] = Math.max(0, counters[row][column] + difference);
+        }
+
+        total = Math.max(0, total + difference);
+        offer(value, estimate(value));
+    }
+
+    private void offer(String value, long estimate) {
+        offer(value, estimate, mostFrequentEstimates, mostFrequentHeap, 1);
+        offer(value, estimate, leastFrequentEstimates, leastFrequentHeap, -1);
+    }
+
+    /* The root of each heap is the candidate to evict, so a value replaces it only when it is strictly better */
+    private void offer(String value, long estimate, Map<String, Long> estimates, PriorityQueue<String> heap, int direction) {
+        if (estimates.containsKey(value)) {
+            heap.remove(value);
+            estimates.remove(value);
+        }
+
+        if (estimate == 0) {
+            return;
+        }
+
+        if (heap.size() == candidateCount) {
+            String root = heap.peek();
+
+            if (Long.compare(estimate, estimates.get(root)) * direction <= 0) {
+                return;
+            }
+
+            heap.poll();
+            estimates.remove(root);
+        }
+
+        estimates.put(value, estimate);
+        heap.add(value);
+    }
+
+    private int column(long hash, int row) {
+        int combinedHash = (int) hash + (row + 1) * (int) (hash >>> 32);
+        return (combinedHash & Integer.MAX_VALUE) % width;
+    }
+}
@@ -0,0 +1,72 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+/*
+ * Distinct value counter in 2^precision one byte registers. Each value sets its register to the longest run of
+ * leading zeros seen in the rest of its hash. Registers of two sketches are merged by their maximum, and removed
+ * values stay counted until the sketch is rebuilt.
+ */
+public class HyperLogLog {
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("HyperLogLog precision should be between 4 and 18");
+        }
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void add(String value) {
+        if (value == null) {
+            return;
+        }
+
+        long hash = SketchHash.hash(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("HyperLogLog sketches with different precisions cannot be merged");
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            registers[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+    }
+
+    public long estimate() {
+        int registerCount = registers.length;
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double sum = 0;
+        int emptyRegisters = 0;
+
+        for (byte register : registers) {
+            sum += 1d / (1L << register);
+
+            if (register == 0) {
+                emptyRegisters++;
+            }
+        }
+
+        double estimate = alpha * registerCount * registerCount / sum;
+
+        /* Small cardinalities are estimated by linear counting over the empty registers */
+        if (estimate <= 2.5 * registerCount && emptyRegisters > 0) {
+            estimate = registerCount * Math.log((double) registerCount / emptyRegisters);
+        }
+
+        return Math.round(estimate);
+    }
+
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+}
@@ -0,0 +1,211 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import com.ercanbeyen.movieapplication.constant.enums.MovieChangeType;
+import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.dto.MovieStatisticsEntry;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.util.StatisticsUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/*
+ * Highest and lowest rated movie titles and language frequencies, kept by movie change events. Only a bounded range of
+ * the highest and lowest rated movies is kept, loaded by aggregate queries, so neither the tracker nor its
+ * reconciliation holds a copy of the catalog. Languages are tracked either exactly, by a count per language, or
+ * approximately, by sketches that add distinct and frequent languages and quantiles of sampled average ratings; only
+ * the state of the configured mode is kept. Exact statistics are not served by an approximate tracker.
+ */
+@Component
+public class MovieStatisticsTracker extends StatisticsTracker<MovieStatisticsTracker.State> {
+    private static final int PAGE_SIZE = 1000;
+    private final MovieRepository movieRepository;
+    private final SketchFactory sketchFactory;
+    private final int extremumCapacity;
+    private final boolean approximate;
+
+    public MovieStatisticsTracker(MovieRepository movieRepository, SketchFactory sketchFactory,
+                                  @Value("${movie.statistics.tracking.enabled:false}") boolean enabled,
+                                  @Value("${movie.statistics.tracking.extremum-capacity:64}") int extremumCapacity,
+                                  @Value("${movie.statistics.tracking.approximate:false}") boolean approximate) {
+        super(ResourceNames.MOVIE, enabled);
+        this.movieRepository = movieRepository;
+        this.sketchFactory = sketchFactory;
+        this.extremumCapacity = extremumCapacity;
+        this.approximate = approximate;
+    }
+
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMovieChanged(MovieChangedEvent event) {
+        update(state -> {
+            event.changes().forEach(change -> state.apply(event.type(), change));
+
+            /* A drained range is refilled under the lock, so no change is applied between the read and the refill */
+            if (state.ratings.isDrained()) {
+                refillRatings(state.ratings);
+            }
+        });
+    }
+
+    @Override
+    protected State load() {
+        State state = approximate ? new State(extremumCapacity, sketchFactory) : new State(extremumCapacity);
+        refillRatings(state.ratings);
+        movieRepository.findLanguageCountEntries().forEach(entry -> state.addLanguage(entry.language(), entry.movieCount()));
+
+        if (!approximate) {
+            return state;
+        }
+
+        /* Rated movies are read page by page, so only the sample of them is kept */
+        List<MovieStatisticsEntry> entries = movieRepository.findRatedStatisticsEntriesAfter(0, PageRequest.of(0, PAGE_SIZE));
+
+        while (!entries.isEmpty()) {
+            entries.forEach(entry -> state.ratingSample.add(entry.id(), entry.averageRating()));
+            entries = movieRepository.findRatedStatisticsEntriesAfter(entries.get(entries.size() - 1).id(), PageRequest.of(0, PAGE_SIZE));
+        }
+
+        return state;
+    }
+
+    @Override
+    protected Map<String, String> summarize(State state) {
+        Map<String, String> statisticsMap = new HashMap<>();
+
+        statisticsMap.put("mostRatedMovie", StatisticsUtil.valueAssignmentToStringItem(state.ratings.getMaximumLabel()));
+        statisticsMap.put("leastRatedMovie", StatisticsUtil.valueAssignmentToStringItem(state.ratings.getMinimumLabel()));
+
+        if (!approximate) {
+            statisticsMap.put("mostPopularLanguage", StatisticsUtil.valueAssignmentToStringItem(state.languages.getMostFrequent()));
+            statisticsMap.put("leastPopularLanguage", StatisticsUtil.valueAssignmentToStringItem(state.languages.getLeastFrequent()));
+        }
+
+        return statisticsMap;
+    }
+
+    @Override
+    protected Map<String, String> summarizeApproximately(State state) {
+        Map<String, String> statisticsMap = summarize(state);
+
+        if (!approximate) {
+            return statisticsMap;
+        }
+
+        statisticsMap.put("mostPopularLanguage", StatisticsUtil.valueAssignmentToStringItem(state.languageSketch.getMostFrequent()));
+        statisticsMap.put("leastPopularLanguage", StatisticsUtil.valueAssignmentToStringItem(state.languageSketch.getLeastFrequent()));
+        sketchFactory.putFrequencyErrorBound(statisticsMap, "language", state.languageSketch);
+        sketchFactory.putDistinctCount(statisticsMap, "distinctLanguageCount", state.languageCounter);
+        sketchFactory.putQuantiles(statisticsMap, "averageRating", state.ratingSample);
+
+        return statisticsMap;
+    }
+
+    private void refillRatings(BoundedExtremumTracker<Integer> ratings) {
+        Pageable range = PageRequest.of(0, extremumCapacity);
+        ratings.refill(toRatingEntries(movieRepository.findStatisticsEntriesByHighestAverageRating(range)),
+                toRatingEntries(movieRepository.findStatisticsEntriesByLowestAverageRating(range)));
+    }
+
+    private static List<BoundedExtremumTracker.Entry<Integer>> toRatingEntries(List<MovieStatisticsEntry> entries) {
+        return entries.stream()
+                .map(entry -> new BoundedExtremumTracker.Entry<>(entry.id(), entry.averageRating(), entry.title()))
+                .toList();
+    }
+
+    /* An exact state keeps the count of each language, an approximate one only the sketches */
+    protected static final class State {
+        private final BoundedExtremumTracker<Integer> ratings;
+        private final FrequencyCounter languages;
+        private final HyperLogLog languageCounter;
+        private final FrequencySketch languageSketch;
+        private final ReservoirSample<Integer> ratingSample;
+
+        private State(int extremumCapacity) {
+            this.ratings = new BoundedExtremumTracker<>(extremumCapacity);
+            this.languages = new FrequencyCounter();
+            this.languageCounter = null;
+            this.languageSketch = null;
+            this.ratingSample = null;
+        }
+
+        private State(int extremumCapacity, SketchFactory sketchFactory) {
+            this.ratings = new BoundedExtremumTracker<>(extremumCapacity);
+            this.languages = null;
+            this.languageCounter = sketchFactory.createDistinctCounter();
+            this.languageSketch = sketchFactory.createFrequencySketch();
+            this.ratingSample = sketchFactory.createSample();
+        }
+
+        private void apply(MovieChangeType type, MovieChangedEvent.Change change) {
+            Movie movie = change.movie();
+
+            switch (type) {
+                case CREATED -> addLanguage(movie.getLanguage(), 1);
+                case UPDATED -> {
+                    String previousLanguage = change.previousFeatures().language();
+
+                    if (!Objects.equals(previousLanguage, movie.getLanguage())) {
+                        addLanguage(previousLanguage, -1);
+                        addLanguage(movie.getLanguage(), 1);
+                    }
+                }
+                case DELETED -> addLanguage(change.previousFeatures().language(), -1);
+            }
+
+            if (type == MovieChangeType.DELETED) {
+                ratings.remove(movie.getId());
+            } else {
+                ratings.put(movie.getId(), movie.getAverageRating(), movie.getTitle());
+            }
+
+            if (ratingSample != null) {
+                sample(type, change);
+            }
+        }
+
+        /* Movies without votes would pile up at zero, so a movie joins the sample population on its first vote only */
+        private void sample(MovieChangeType type, MovieChangedEvent.Change change) {
+            Movie movie = change.movie();
+
+            if (type == MovieChangeType.DELETED) {
+                if (change.isRated()) {
+                    ratingSample.remove(movie.getId());
+                }
+            } else if (type == MovieChangeType.RATED) {
+                if (change.isRated() && change.wasRated()) {
+                    ratingSample.update(movie.getId(), movie.getAverageRating());
+                } else if (change.isRated()) {
+                    ratingSample.add(movie.getId(), movie.getAverageRating());
+                } else if (change.wasRated()) {
+                    ratingSample.remove(movie.getId());
+                }
+            }
+        }
+
+        private void addLanguage(String language, long count) {
+            if (languages != null) {
+                languages.add(language, count);
+                return;
+            }
+
+            languageSketch.add(language, count);
+
+            if (count > 0) {
+                languageCounter.add(language);
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Uniform sample of keyed values (Algorithm R). Seen counts keys, not writes: a key enters the draw once when it is
+ * added, and a value change only updates a key that is already sampled, so frequently changing keys are not
+ * oversampled. A removed key frees its slot for the next new key. Two samples are merged by drawing from each in
+ * proportion to the number of keys it has seen. Quantiles are within the Dvoretzky-Kiefer-Wolfowitz rank error of the
+ * full distribution.
+ */
+public class ReservoirSample<K> {
+    private final int capacity;
+    private final Object[] keys;
+    private final double[] values;
+    private final Map<K, Integer> slotsByKey = new HashMap<>();
+    private int size;
+    private long seen;
+
+    public ReservoirSample(int capacity) {
+        this.capacity = capacity;
+        this.keys = new Object[capacity];
+        this.values = new double[capacity];
+    }
+
+    /* Only keys new to the population are added, value changes of known keys go through update */
+    public void add(K key, double value) {
+        if (slotsByKey.containsKey(key)) {
+            update(key, value);
+            return;
+        }
+
+        seen++;
+
+        if (size < capacity) {
+            store(size++, key, value);
+            return;
+        }
+
+        long candidateSlot = ThreadLocalRandom.current().nextLong(seen);
+
+        if (candidateSlot < capacity) {
+            slotsByKey.remove(key(candidateSlot));
+            store((int) candidateSlot, key, value);
+        }
+    }
+
+    public void update(K key, double value) {
+        Integer slot = slotsByKey.get(key);
+
+        if (slot != null) {
+            values[slot] = value;
+        }
+    }
+
+    public void remove(K key) {
+        Integer slot = slotsByKey.remove(key);
+        seen = Math.max(0, seen - 1);
+
+        if (slot == null) {
+            return;
+        }
+
+        size--;
+
+        if (slot != size) {
+            store(slot, key(size), values[size]);
+        }
+
+        keys[size] = null;
+    }
+
+    public void merge(ReservoirSample<K> other) {
+        long totalSeen = seen + other.seen;
+        ReservoirSample<K> merged = new ReservoirSample<>(capacity);
+        int[] ownSlots = shuffledSlots(size);
+        int[] otherSlots = shuffledSlots(other.size);
+        int ownIndex = 0;
+        int otherIndex = 0;
+
+        while (merged.size < capacity && (ownIndex < size || otherIndex < other.size)) {
+            boolean fromOwn = otherIndex == other.size
+                    || (ownIndex < size && ThreadLocalRandom.current().nextLong(totalSeen) < seen);
+            K key = fromOwn ? key(ownSlots[ownIndex]) : other.key(otherSlots[otherIndex]);
+            double value = fromOwn ? values[ownSlots[ownIndex++]] : other.values[otherSlots[otherIndex++]];
+
+            if (!merged.slotsByKey.containsKey(key)) {
+                merged.store(merged.size++, key, value);
+            }
+        }
+
+        slotsByKey.clear();
+        Arrays.fill(keys, null);
+
+        for (int slot = 0; slot < merged.size; slot++) {
+            store(slot, merged.key(slot), merged.values[slot]);
+        }
+
+        size = merged.size;
+        seen = totalSeen;
+    }
+
+    public double[] quantiles(double... fractions) {
+        double[] sortedValues = Arrays.copyOf(values, size);
+        Arrays.sort(sortedValues);
+        double[] quantiles = new double[fractions.length];
+
+        for (int i = 0; i < fractions.length; i++) {
+            int rank = (int) Math.ceil(fractions[i] * size) - 1;
+            quantiles[i] = (size == 0) ? Double.NaN : sortedValues[Math.min(size - 1, Math.max(0, rank))];
+        }
+
+        return quantiles;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getSeen() {
+        return seen;
+    }
+
+    public double getRankError(double confidence) {
+        return (size == 0 || size == seen) ? 0 : Math.sqrt(Math.log(2 / (1 - confidence)) / (2 * size));
+    }
+
+    private void store(int slot, K key, double value) {
+        keys[slot] = key;
+        values[slot] = value;
+        slotsByKey.put(key, slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(long slot) {
+        return (K) keys[(int) slot];
+    }
+
+    private static int[] shuffledSlots(int size) {
+        int[] slots = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            int j = ThreadLocalRandom.current().nextInt(i + 1);
+            slots[i] = slots[j];
+            slots[j] = i;
+        }
+
+        return slots;
+    }
+}
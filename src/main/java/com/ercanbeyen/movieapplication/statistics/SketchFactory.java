@@ -0,0 +1,64 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import com.ercanbeyen.movieapplication.constant.message.StatisticsMessages;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/* Creates the sketches of the approximate statistics with the configured error bounds and reports those bounds */
+@Component
+public class SketchFactory {
+    private final int distinctCountPrecision;
+    private final double frequencyErrorRate;
+    private final double confidence;
+    private final int candidateCount;
+    private final int sampleSize;
+
+    public SketchFactory(@Value("${movie.statistics.sketches.distinct-count-precision:14}") int distinctCountPrecision,
+                         @Value("${movie.statistics.sketches.frequency-error-rate:0.001}") double frequencyErrorRate,
+                         @Value("${movie.statistics.sketches.confidence:0.99}") double confidence,
+                         @Value("${movie.statistics.sketches.candidate-count:16}") int candidateCount,
+                         @Value("${movie.statistics.sketches.sample-size:1024}") int sampleSize) {
+        this.distinctCountPrecision = distinctCountPrecision;
+        this.frequencyErrorRate = frequencyErrorRate;
+        this.confidence = confidence;
+        this.candidateCount = candidateCount;
+        this.sampleSize = sampleSize;
+    }
+
+    public HyperLogLog createDistinctCounter() {
+        return new HyperLogLog(distinctCountPrecision);
+    }
+
+    public FrequencySketch createFrequencySketch() {
+        return new FrequencySketch(frequencyErrorRate, confidence, candidateCount);
+    }
+
+    public <K> ReservoirSample<K> createSample() {
+        return new ReservoirSample<>(sampleSize);
+    }
+
+    public void putDistinctCount(Map<String, String> statisticsMap, String name, HyperLogLog distinctCounter) {
+        statisticsMap.put(name, String.valueOf(distinctCounter.estimate()));
+        statisticsMap.put(name + "RelativeError", String.valueOf(distinctCounter.getRelativeError()));
+    }
+
+    public void putFrequencyErrorBound(Map<String, String> statisticsMap, String name, FrequencySketch frequencySketch) {
+        statisticsMap.put(name + "FrequencyErrorBound", String.valueOf(frequencySketch.getErrorBound()));
+        statisticsMap.put(name + "FrequencyConfidence", String.valueOf(frequencySketch.getConfidence()));
+    }
+
+    public void putQuantiles(Map<String, String> statisticsMap, String name, ReservoirSample<?> sample) {
+        String[] suffixes = {"Percentile25", "Median", "Percentile75", "Percentile90"};
+        double[] quantiles = sample.quantiles(0.25, 0.5, 0.75, 0.9);
+
+        for (int i = 0; i < suffixes.length; i++) {
+            statisticsMap.put(name + suffixes[i], (sample.size() == 0) ? StatisticsMessages.NOT_EXISTS : String.valueOf(quantiles[i]));
+        }
+
+        statisticsMap.put(name + "SampleSize", String.valueOf(sample.size()));
+        statisticsMap.put(name + "RankError", String.valueOf(sample.getRankError(confidence)));
+        statisticsMap.put(name + "RankConfidence", String.valueOf(confidence));
+    }
+}
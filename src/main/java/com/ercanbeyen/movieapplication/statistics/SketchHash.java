@@ -0,0 +1,28 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import java.nio.charset.StandardCharsets;
+
+final class SketchHash {
+    private SketchHash() {
+
+    }
+
+    /* FNV-1a followed by the MurmurHash3 finalizer, so every bit of the result depends on every input byte */
+    static long hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long hash = 0xcbf29ce484222325L;
+
+        for (byte character : bytes) {
+            hash ^= character;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import com.ercanbeyen.movieapplication.constant.message.LogMessages;
+import com.ercanbeyen.movieapplication.dto.Statistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/*
+ * Base of the running statistics of a resource. Service layer writes are applied to a mutable state under a lock and
+ * every change publishes a new immutable snapshot, so reads never compute anything. A periodic full recompute
+ * replaces the state and logs every value the running aggregates had drifted from, e.g. after cascaded deletes.
+ * The approximate snapshot is summarized from the sketches of the state on its first read after a change.
+ */
+@Slf4j
+public abstract class StatisticsTracker<S> {
+    private final String topic;
+    private final boolean enabled;
+    private final Object lock = new Object();
+
+    private S state;
+    private volatile Statistics<String, String> snapshot;
+    private volatile Statistics<String, String> approximateSnapshot;
+
+    protected StatisticsTracker(String topic, boolean enabled) {
+        this.topic = topic;
+        this.enabled = enabled;
+    }
+
+    protected abstract S load();
+
+    protected abstract Map<String, String> summarize(S state);
+
+    protected Map<String, String> summarizeApproximately(S state) {
+        return summarize(state);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("{} statistics tracker is disabled", topic);
+            return;
+        }
+
+        log.info(LogMessages.STARTED, "rebuild");
+        S newState = load();
+
+        synchronized (lock) {
+            state = newState;
+            publish();
+        }
+
+        log.info("{} statistics tracker is rebuilt", topic);
+    }
+
+    @Scheduled(fixedDelayString = "${movie.statistics.tracking.reconcile-interval:600000}", initialDelayString = "${movie.statistics.tracking.reconcile-interval:600000}")
+    public void reconcile() {
+        if (!isReady()) {
+            return;
+        }
+
+        S freshState = load();
+        Map<String, String> expected = summarize(freshState);
+
+        synchronized (lock) {
+            Map<String, String> tracked = summarize(state);
+            List<String> driftedKeys = expected.keySet()
+                    .stream()
+                    .filter(key -> !Objects.equals(expected.get(key), tracked.get(key)))
+                    .sorted()
+                    .toList();
+
+            driftedKeys.forEach(key -> log.warn("{} statistic {} has drifted. Tracked: {}, recomputed: {}", topic, key, tracked.get(key), expected.get(key)));
+
+            state = freshState;
+            publish();
+            log.info("{} statistics are reconciled with {} discrepancies", topic, driftedKeys.size());
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && snapshot != null;
+    }
+
+    public Statistics<String, String> getSnapshot() {
+        return snapshot;
+    }
+
+    public Statistics<String, String> getApproximateSnapshot() {
+        Statistics<String, String> currentSnapshot = approximateSnapshot;
+
+        if (currentSnapshot != null) {
+            return currentSnapshot;
+        }
+
+        synchronized (lock) {
+            if (approximateSnapshot == null) {
+                approximateSnapshot = toSnapshot(summarizeApproximately(state));
+            }
+
+            return approximateSnapshot;
+        }
+    }
+
+    protected void update(Consumer<S> change) {
+        if (!isReady()) {
+            return;
+        }
+
+        synchronized (lock) {
+            change.accept(state);
+            publish();
+        }
+    }
+
+    private void publish() {
+        snapshot = toSnapshot(summarize(state));
+        approximateSnapshot = null;
+    }
+
+    private Statistics<String, String> toSnapshot(Map<String, String> summary) {
+        Map<String, String> statisticsMap = new HashMap<>(summary);
+        statisticsMap.put("computedAt", Instant.now().toString());
+        return new Statistics<>(topic, Map.copyOf(statisticsMap));
+    }
+}
@@ -0,0 +1,93 @@
+package com.ercanbeyen.movieapplication.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Reads RFC 4180 records rather than physical lines, so quoted values may contain separators, escaped quotes
+ * and line breaks. Records are terminated by LF or CRLF outside of quotes.
+ */
+public class CsvRecordReader {
+    private static final int END_OF_STREAM = -1;
+    private final Reader reader;
+    private int pushedBack = END_OF_STREAM;
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /*
+     * Returns the values of the next record, or null when the stream is exhausted
+     */
+    public List<String> readRecord() throws IOException {
+        int character = read();
+
+        if (character == END_OF_STREAM) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        while (character != END_OF_STREAM) {
+            if (quoted) {
+                if (character == '"') {
+                    int next = read();
+
+                    if (next == '"') {
+                        value.append('"');
+                    } else {
+                        quoted = false;
+                        unread(next);
+                    }
+                } else {
+                    value.append((char) character);
+                }
+            } else if (character == '"') {
+                quoted = true;
+            } else if (character == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (character == '\n') {
+                break;
+            } else if (character == '\r') {
+                int next = read();
+
+                if (next == '\n') {
+                    break;
+                }
+
+                value.append('\r');
+                unread(next);
+            } else {
+                value.append((char) character);
+            }
+
+            character = read();
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("CSV record ends inside a quoted value");
+        }
+
+        values.add(value.toString());
+        return values;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != END_OF_STREAM) {
+            int character = pushedBack;
+            pushedBack = END_OF_STREAM;
+            return character;
+        }
+
+        return reader.read();
+    }
+
+    private void unread(int character) {
+        pushedBack = character;
+    }
+}
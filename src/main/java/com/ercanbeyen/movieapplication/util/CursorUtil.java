@@ -0,0 +1,100 @@
+package com.ercanbeyen.movieapplication.util;
+
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.exception.InvalidCursorException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class CursorUtil {
+    private static final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    /*
+     * Blank cursor starts keyset scrolling from the beginning, so "?after=" opts in to cursor mode
+     * while a missing parameter keeps the offset pagination. Key values only make sense for the sort
+     * that produced them, so a cursor sent with a different sort is rejected.
+     */
+    public static ScrollPosition decode(String after, Sort sort, Class<?> entityClass) {
+        if (StringUtils.isBlank(after)) {
+            return ScrollPosition.keyset();
+        }
+
+        Cursor cursor;
+
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(after);
+            cursor = objectMapper.readValue(new String(json, StandardCharsets.UTF_8), Cursor.class);
+        } catch (Exception exception) {
+            throw new InvalidCursorException(ResponseMessages.INVALID_CURSOR);
+        }
+
+        if (cursor.keys() == null || !toString(sort).equals(cursor.sort())) {
+            throw new InvalidCursorException(ResponseMessages.CURSOR_SORT_MISMATCH);
+        }
+
+        Map<String, Object> typedKeys = new LinkedHashMap<>();
+        cursor.keys().forEach((property, value) -> typedKeys.put(property, convert(entityClass, property, value)));
+
+        return ScrollPosition.forward(typedKeys);
+    }
+
+    public static String encode(Window<?> window, Sort sort) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+
+        ScrollPosition position = window.positionAt(window.size() - 1);
+
+        if (!(position instanceof KeysetScrollPosition keysetScrollPosition)) {
+            return null;
+        }
+
+        try {
+            String json = objectMapper.writeValueAsString(new Cursor(toString(sort), new LinkedHashMap<>(keysetScrollPosition.getKeys())));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception exception) {
+            throw new IllegalStateException(exception.getMessage());
+        }
+    }
+
+    private static String toString(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty() + ":" + order.getDirection())
+                .collect(Collectors.joining(","));
+    }
+
+    private static Object convert(Class<?> entityClass, String property, Object value) {
+        Class<?> propertyType = entityClass;
+
+        for (String segment : property.split("\\.")) {
+            Field field = ReflectionUtils.findField(propertyType, segment);
+
+            if (field == null) {
+                throw new InvalidCursorException(ResponseMessages.INVALID_CURSOR);
+            }
+
+            propertyType = field.getType();
+        }
+
+        try {
+            return objectMapper.convertValue(value, propertyType);
+        } catch (IllegalArgumentException exception) {
+            throw new InvalidCursorException(ResponseMessages.INVALID_CURSOR);
+        }
+    }
+
+    private record Cursor(String sort, LinkedHashMap<String, Object> keys) {
+
+    }
+}
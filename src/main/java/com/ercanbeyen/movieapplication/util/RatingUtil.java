@@ -0,0 +1,10 @@
+package com.ercanbeyen.movieapplication.util;
+
+import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
+
+public class RatingUtil {
+    public static int toBucket(double rate) {
+        long bucket = Math.round(rate);
+        return (int) Math.max(DefaultValues.MINIMUM_RATE, Math.min(DefaultValues.MAXIMUM_RATE, bucket));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ercanbeyen.movieapplication;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * Base of the tests that depend on PostgreSQL itself: native SQL, row locks and concurrent transactions.
+ * They run against the database given by the test.postgres.url system property (or TEST_POSTGRES_URL) when set,
+ * otherwise against a Testcontainers PostgreSQL, and are skipped when neither is available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public abstract class PostgresIntegrationTest {
+    private static PostgreSQLContainer<?> container;
+
+    @BeforeAll
+    public static void assumeDatabaseIsAvailable() {
+        assumeTrue(getExternalUrl() != null || DockerClientFactory.instance().isDockerAvailable(), "PostgreSQL is not available");
+    }
+
+    @DynamicPropertySource
+    public static void registerDataSource(DynamicPropertyRegistry registry) {
+        String externalUrl = getExternalUrl();
+
+        if (externalUrl != null) {
+            registry.add("spring.datasource.url", () -> externalUrl);
+            registry.add("spring.datasource.username", () -> System.getProperty("test.postgres.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("test.postgres.password", ""));
+            return;
+        }
+
+        PostgreSQLContainer<?> postgres = getContainer();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    private static String getExternalUrl() {
+        return System.getProperty("test.postgres.url", System.getenv("TEST_POSTGRES_URL"));
+    }
+
+    private static synchronized PostgreSQLContainer<?> getContainer() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+        }
+
+        return container;
+    }
+}
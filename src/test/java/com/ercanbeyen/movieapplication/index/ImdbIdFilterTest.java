@@ -0,0 +1,65 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.dto.MovieImdbIdEntry;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ImdbIdFilterTest {
+    @Mock
+    private MovieRepository movieRepository;
+    private ImdbIdFilter imdbIdFilter;
+
+    @BeforeEach
+    public void setUp() {
+        imdbIdFilter = new ImdbIdFilter(movieRepository, true, 1_000, 0.01);
+    }
+
+    @Test
+    @DisplayName("When Movie Is Written By Another Node It Should Be Present After Refresh")
+    public void whenMovieIsWrittenByAnotherNode_itShouldBePresentAfterRefresh() {
+        when(movieRepository.findMaximumId()).thenReturn(1);
+        when(movieRepository.streamImdbIds()).thenReturn(Stream.of("tt0000001"));
+        imdbIdFilter.rebuild();
+
+        assertTrue(imdbIdFilter.isDefinitelyAbsent("tt0000002"));
+
+        when(movieRepository.findImdbIdEntriesAfter(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(new MovieImdbIdEntry(1, "tt0000001"), new MovieImdbIdEntry(2, "tt0000002")));
+        imdbIdFilter.refresh();
+
+        assertFalse(imdbIdFilter.isDefinitelyAbsent("tt0000001"));
+        assertFalse(imdbIdFilter.isDefinitelyAbsent("tt0000002"));
+    }
+
+    @Test
+    @DisplayName("When Id Is Put During Rebuild It Should Survive The Swap")
+    public void whenIdIsPutDuringRebuild_itShouldSurviveTheSwap() {
+        when(movieRepository.findMaximumId()).thenReturn(0);
+        when(movieRepository.streamImdbIds()).thenReturn(Stream.<String>empty()).thenAnswer(invocation -> {
+            imdbIdFilter.put("tt0000003");
+            return Stream.of("tt0000001");
+        });
+
+        imdbIdFilter.rebuild();
+        imdbIdFilter.rebuild();
+
+        assertFalse(imdbIdFilter.isDefinitelyAbsent("tt0000001"));
+        assertFalse(imdbIdFilter.isDefinitelyAbsent("tt0000003"));
+    }
+}
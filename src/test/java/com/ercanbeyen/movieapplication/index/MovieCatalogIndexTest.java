@@ -0,0 +1,111 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.dto.MovieCatalogEntry;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieCatalogIndexTest {
+    @Mock
+    private MovieRepository movieRepository;
+    private MovieCatalogIndex movieCatalogIndex;
+
+    @BeforeEach
+    public void setUp() {
+        List<MovieCatalogEntry> entries = new ArrayList<>();
+
+        for (int id = 1; id <= 10; id++) {
+            Genre genre = (id % 2 == 0) ? Genre.DRAMA : Genre.COMEDY;
+            entries.add(new MovieCatalogEntry(id, genre, "English", 2000 + id % 3));
+        }
+
+        when(movieRepository.findCatalogEntries()).thenReturn(entries);
+        movieCatalogIndex = new MovieCatalogIndex(movieRepository, true);
+        movieCatalogIndex.rebuild();
+    }
+
+    @Test
+    @DisplayName("When findMovieIds Called It Should Return Only The Requested Page With The Total Of All Matches")
+    public void whenFindMovieIdsCalled_itShouldReturnOnlyTheRequestedPageWithTheTotalOfAllMatches() {
+        MovieFilteringOptions filteringOptions = new MovieFilteringOptions("English", List.of(Genre.DRAMA), null);
+
+        Page<Integer> firstPage = movieCatalogIndex.findMovieIds(filteringOptions, PageRequest.of(0, 2));
+        Page<Integer> lastPage = movieCatalogIndex.findMovieIds(filteringOptions, PageRequest.of(2, 2));
+
+        assertEquals(List.of(2, 4), firstPage.getContent());
+        assertEquals(5L, firstPage.getTotalElements());
+        assertEquals(List.of(10), lastPage.getContent());
+        assertEquals(5L, lastPage.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("When findMovieIds Called With Offset Beyond Matches It Should Return Empty Page")
+    public void whenFindMovieIdsCalledWithOffsetBeyondMatches_itShouldReturnEmptyPage() {
+        MovieFilteringOptions filteringOptions = new MovieFilteringOptions(null, null, 2001);
+
+        Page<Integer> page = movieCatalogIndex.findMovieIds(filteringOptions, PageRequest.of(5, 3));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(4L, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("When Movie Removed It Should Not Be Counted Or Returned")
+    public void whenMovieRemoved_itShouldNotBeCountedOrReturned() {
+        movieCatalogIndex.remove(2);
+
+        Page<Integer> page = movieCatalogIndex.findMovieIds(new MovieFilteringOptions(null, Collections.singletonList(Genre.DRAMA), null), PageRequest.of(0, 2));
+
+        assertEquals(List.of(4, 6), page.getContent());
+        assertEquals(4L, page.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("When Movie Is Written By Another Node It Should Be Found After Refresh")
+    public void whenMovieIsWrittenByAnotherNode_itShouldBeFoundAfterRefresh() {
+        when(movieRepository.findCatalogEntriesAfter(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(new MovieCatalogEntry(10, Genre.COMEDY, "English", 2001), new MovieCatalogEntry(11, Genre.DRAMA, "Turkish", 2001)));
+        movieCatalogIndex.refresh();
+
+        Page<Integer> page = movieCatalogIndex.findMovieIds(new MovieFilteringOptions(null, List.of(Genre.DRAMA), null), PageRequest.of(0, 10));
+
+        assertEquals(List.of(2, 4, 6, 8, 10, 11), page.getContent());
+    }
+
+    @Test
+    @DisplayName("When Movie Changes During Rebuild It Should Survive The Swap")
+    public void whenMovieChangesDuringRebuild_itShouldSurviveTheSwap() {
+        when(movieRepository.findCatalogEntries()).thenAnswer(invocation -> {
+            movieCatalogIndex.put(Movie.builder().id(12).genre(Genre.DRAMA).language("English").releaseYear(2001).build());
+            movieCatalogIndex.remove(2);
+            return List.of(new MovieCatalogEntry(1, Genre.COMEDY, "English", 2001), new MovieCatalogEntry(2, Genre.DRAMA, "English", 2001));
+        });
+
+        movieCatalogIndex.rebuild();
+
+        Page<Integer> page = movieCatalogIndex.findMovieIds(new MovieFilteringOptions("English", null, 2001), PageRequest.of(0, 10));
+
+        assertEquals(List.of(1, 12), page.getContent());
+    }
+}
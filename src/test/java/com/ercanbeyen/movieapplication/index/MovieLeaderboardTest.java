@@ -0,0 +1,95 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.dto.MovieRatingEntry;
+import com.ercanbeyen.movieapplication.dto.RatingAggregate;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieLeaderboardTest {
+    private static final String GLOBAL_KEY = "movies:top:all";
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    private MovieLeaderboard movieLeaderboard;
+
+    @BeforeEach
+    public void setUp() {
+        movieLeaderboard = new MovieLeaderboard(movieRepository, redisTemplate, true, 10);
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    @DisplayName("When Leaderboard Key Is Missing It Should Fall Back To The Database")
+    public void whenLeaderboardKeyIsMissing_itShouldFallBackToTheDatabase() {
+        when(valueOperations.get("movies:top:prior-rating")).thenReturn("7.5");
+        when(zSetOperations.reverseRange(GLOBAL_KEY, 0, 9)).thenReturn(Set.of());
+        when(redisTemplate.hasKey(GLOBAL_KEY)).thenReturn(false, true);
+        movieLeaderboard.initialize();
+
+        assertEquals(Optional.empty(), movieLeaderboard.getTopMovieIds(null, 10));
+        assertEquals(Optional.of(List.of()), movieLeaderboard.getTopMovieIds(null, 10));
+    }
+
+    @Test
+    @DisplayName("When Movie Changes During Rebuild It Should Replay The Change Before Renaming")
+    public void whenMovieChangesDuringRebuild_itShouldReplayTheChangeBeforeRenaming() {
+        Movie movie = Movie.builder()
+                .id(1)
+                .genre(Genre.ACTION)
+                .ratingSum(50)
+                .ratingCount(5)
+                .build();
+
+        when(movieRepository.findRatingTotals()).thenReturn(new RatingAggregate(80d, 10L, 8d));
+        when(movieRepository.findRatedMovieEntries()).thenAnswer(invocation -> {
+            /* The vote commits after the scan has read the movie */
+            movieLeaderboard.put(movie);
+            return List.of(new MovieRatingEntry(1, Genre.ACTION, 20d, 4L));
+        });
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<?>>getArgument(0).execute(redisTemplate);
+            return List.of();
+        });
+        when(redisTemplate.hasKey(GLOBAL_KEY + ":rebuild")).thenReturn(true);
+        when(redisTemplate.hasKey("movies:top:action:rebuild")).thenReturn(true);
+
+        movieLeaderboard.rebuild();
+
+        InOrder inOrder = inOrder(zSetOperations, redisTemplate);
+        inOrder.verify(zSetOperations).add(eq(GLOBAL_KEY + ":rebuild"), anySet());
+        inOrder.verify(zSetOperations).add(GLOBAL_KEY + ":rebuild", "1", 130 / 15d);
+        inOrder.verify(redisTemplate).rename(GLOBAL_KEY + ":rebuild", GLOBAL_KEY);
+        verify(zSetOperations).add("movies:top:action:rebuild", "1", 130 / 15d);
+        verify(zSetOperations).remove("movies:top:drama:rebuild", "1");
+        verify(redisTemplate).rename("movies:top:action:rebuild", "movies:top:action");
+        verify(redisTemplate).delete("movies:top:drama");
+        verify(valueOperations).set("movies:top:prior-rating", "8.0");
+    }
+}
@@ -0,0 +1,89 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.dto.MovieActorEntry;
+import com.ercanbeyen.movieapplication.dto.MovieFeatureEntry;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieSimilarityIndexTest {
+    @Mock
+    private MovieRepository movieRepository;
+    private MovieSimilarityIndex movieSimilarityIndex;
+
+    /*
+     * Weights are 3 per shared actor, 2 for the director and 1 for the genre. Compared to movie 1, movie 2 and
+     * movie 3 score 6, movie 5 scores 2, movie 4 scores 1 and movie 6 shares nothing.
+     */
+    @BeforeEach
+    public void setUp() {
+        movieSimilarityIndex = new MovieSimilarityIndex(movieRepository, true, 3, 2, 1);
+
+        movieSimilarityIndex.put(1, 5, Genre.DRAMA, List.of(10, 11));
+        movieSimilarityIndex.put(3, null, Genre.ACTION, List.of(11, 10));
+        movieSimilarityIndex.put(2, 5, Genre.DRAMA, List.of(10));
+        movieSimilarityIndex.put(4, null, Genre.DRAMA, List.of());
+        movieSimilarityIndex.put(5, 5, Genre.COMEDY, List.of(12));
+        movieSimilarityIndex.put(6, 7, Genre.COMEDY, List.of(13));
+    }
+
+    @Test
+    @DisplayName("When Movies Share Features It Should Order Them By Weighted Score And Then By Id")
+    public void whenMoviesShareFeatures_itShouldOrderThemByWeightedScoreAndThenById() {
+        assertEquals(List.of(2, 3, 5, 4), movieSimilarityIndex.findSimilarMovieIds(1, 10));
+        assertEquals(List.of(2, 3), movieSimilarityIndex.findSimilarMovieIds(1, 2));
+        assertEquals(List.of(), movieSimilarityIndex.findSimilarMovieIds(99, 10));
+    }
+
+    @Test
+    @DisplayName("When Movie Is Updated Or Removed It Should Rescore Only From The Current Postings")
+    public void whenMovieIsUpdatedOrRemoved_itShouldRescoreOnlyFromTheCurrentPostings() {
+        movieSimilarityIndex.put(3, 5, Genre.DRAMA, List.of(11));
+        movieSimilarityIndex.remove(2);
+
+        assertEquals(List.of(3, 5, 4), movieSimilarityIndex.findSimilarMovieIds(1, 10));
+        assertEquals(List.of(1), movieSimilarityIndex.findSimilarMovieIds(3, 1));
+    }
+
+    @Test
+    @DisplayName("When Slots Are Left After Shared People It Should Fill Them With Genre Only Movies By Id")
+    public void whenSlotsAreLeftAfterSharedPeople_itShouldFillThemWithGenreOnlyMoviesById() {
+        movieSimilarityIndex.put(8, null, Genre.DRAMA, List.of());
+        movieSimilarityIndex.put(7, null, Genre.DRAMA, List.of());
+        movieSimilarityIndex.put(4, null, Genre.COMEDY, List.of());
+
+        assertEquals(List.of(2, 3, 5, 7), movieSimilarityIndex.findSimilarMovieIds(1, 4));
+        assertEquals(List.of(1, 2, 7), movieSimilarityIndex.findSimilarMovieIds(8, 10));
+    }
+
+    @Test
+    @DisplayName("When Index Is Rebuilt It Should Score The Same As Incremental Updates")
+    public void whenIndexIsRebuilt_itShouldScoreTheSameAsIncrementalUpdates() {
+        when(movieRepository.findFeatureEntries()).thenReturn(List.of(
+                new MovieFeatureEntry(1, 5, Genre.DRAMA),
+                new MovieFeatureEntry(2, 5, Genre.DRAMA),
+                new MovieFeatureEntry(3, null, Genre.ACTION),
+                new MovieFeatureEntry(4, null, Genre.DRAMA),
+                new MovieFeatureEntry(5, 5, Genre.COMEDY),
+                new MovieFeatureEntry(6, 7, Genre.COMEDY)));
+        when(movieRepository.findActorEntries()).thenReturn(List.of(
+                new MovieActorEntry(1, 10), new MovieActorEntry(1, 11), new MovieActorEntry(2, 10),
+                new MovieActorEntry(3, 11), new MovieActorEntry(3, 10), new MovieActorEntry(5, 12), new MovieActorEntry(6, 13)));
+
+        movieSimilarityIndex.rebuild();
+
+        assertEquals(List.of(2, 3, 5, 4), movieSimilarityIndex.findSimilarMovieIds(1, 10));
+        assertEquals(List.of(5), movieSimilarityIndex.findSimilarMovieIds(6, 10));
+    }
+}
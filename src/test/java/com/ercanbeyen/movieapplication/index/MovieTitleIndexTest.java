@@ -0,0 +1,104 @@
+package com.ercanbeyen.movieapplication.index;
+
+import com.ercanbeyen.movieapplication.dto.MovieTitleEntry;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieTitleIndexTest {
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Test
+    @DisplayName("When search Called With Short Prefix It Should Rank Every Title In The Prefix Range")
+    public void whenSearchCalledWithShortPrefix_itShouldRankEveryTitleInThePrefixRange() {
+        List<MovieTitleEntry> titleEntries = new ArrayList<>();
+
+        for (int id = 1; id <= 5_000; id++) {
+            titleEntries.add(new MovieTitleEntry(id, String.format("A movie %05d", id), 1.0));
+        }
+
+        titleEntries.add(new MovieTitleEntry(5_001, "Azure", 9.5));
+        titleEntries.add(new MovieTitleEntry(5_002, "Aztec", 9.0));
+
+        MovieTitleIndex movieTitleIndex = rebuild(titleEntries, 10_000);
+
+        assertEquals(Optional.of(List.of(5_001, 5_002)), movieTitleIndex.search("a", 2));
+    }
+
+    @Test
+    @DisplayName("When search Called After Eviction It Should Answer Only If No Evicted Title Could Outrank The Result")
+    public void whenSearchCalledAfterEviction_itShouldAnswerOnlyIfNoEvictedTitleCouldOutrankTheResult() {
+        MovieTitleIndex movieTitleIndex = rebuild(List.of(
+                new MovieTitleEntry(1, "Matrix", 8.0),
+                new MovieTitleEntry(2, "Memento", 7.0),
+                new MovieTitleEntry(3, "Mother", 2.0)), 2);
+
+        assertEquals(Optional.of(List.of(1)), movieTitleIndex.search("ma", 1));
+        assertEquals(Optional.of(List.of(1, 2)), movieTitleIndex.search("m", 2));
+        assertTrue(movieTitleIndex.search("m", 3).isEmpty());
+        assertTrue(movieTitleIndex.search("mo", 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("When search Called With One Typo It Should Rank Exact Matches First")
+    public void whenSearchCalledWithOneTypo_itShouldRankExactMatchesFirst() {
+        MovieTitleIndex movieTitleIndex = rebuild(List.of(
+                new MovieTitleEntry(1, "Inception", 8.8),
+                new MovieTitleEntry(2, "Insomnia", 7.2)), 10);
+
+        assertEquals(Optional.of(List.of(2, 1)), movieTitleIndex.search("Ins", 2));
+        assertEquals(Optional.of(List.of(1)), movieTitleIndex.search("Incpetion", 2));
+    }
+
+    @Test
+    @DisplayName("When Title Is Written By Another Node It Should Be Searchable After Refresh")
+    public void whenTitleIsWrittenByAnotherNode_itShouldBeSearchableAfterRefresh() {
+        when(movieRepository.findMaximumId()).thenReturn(1);
+        MovieTitleIndex movieTitleIndex = rebuild(List.of(new MovieTitleEntry(1, "Matrix", 8.0)), 10);
+
+        when(movieRepository.findTitleEntriesAfter(eq(0), any(Pageable.class)))
+                .thenReturn(List.of(new MovieTitleEntry(1, "Matrix", 9.5), new MovieTitleEntry(2, "Mad Max", 9.0)));
+        movieTitleIndex.refresh();
+
+        assertEquals(Optional.of(List.of(2, 1)), movieTitleIndex.search("ma", 10));
+    }
+
+    @Test
+    @DisplayName("When Movie Changes During Rebuild It Should Survive The Swap")
+    public void whenMovieChangesDuringRebuild_itShouldSurviveTheSwap() {
+        MovieTitleIndex movieTitleIndex = new MovieTitleIndex(movieRepository, true, 10);
+        when(movieRepository.findTitleEntries()).thenAnswer(invocation -> {
+            movieTitleIndex.put(Movie.builder().id(3).title("Memento").averageRating(7.0).build());
+            movieTitleIndex.remove(2);
+            return List.of(new MovieTitleEntry(1, "Matrix", 8.0), new MovieTitleEntry(2, "Mother", 2.0));
+        });
+
+        movieTitleIndex.rebuild();
+
+        assertEquals(Optional.of(List.of(1, 3)), movieTitleIndex.search("m", 10));
+    }
+
+    private MovieTitleIndex rebuild(List<MovieTitleEntry> titleEntries, int capacity) {
+        when(movieRepository.findTitleEntries()).thenReturn(titleEntries);
+        MovieTitleIndex movieTitleIndex = new MovieTitleIndex(movieRepository, true, capacity);
+        movieTitleIndex.rebuild();
+        return movieTitleIndex;
+    }
+}
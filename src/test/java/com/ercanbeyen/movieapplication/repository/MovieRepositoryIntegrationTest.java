@@ -0,0 +1,91 @@
+package com.ercanbeyen.movieapplication.repository;
+
+import com.ercanbeyen.movieapplication.PostgresIntegrationTest;
+import com.ercanbeyen.movieapplication.dto.RatingAggregate;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MovieRepositoryIntegrationTest extends PostgresIntegrationTest {
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("TRUNCATE movies RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    @DisplayName("When applyRatingDifference Called Concurrently It Should Keep The Rating Aggregates Exact")
+    public void whenApplyRatingDifferenceCalledConcurrently_itShouldKeepTheRatingAggregatesExact() throws Exception {
+        Integer id = movieRepository.save(createMovie("tt0000001", "English")).getId();
+        int voters = 64;
+        double expectedSum = 0;
+        long expectedCount = 0;
+        ExecutorService executorService = Executors.newFixedThreadPool(voters);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<RatingAggregate>> futures = new ArrayList<>();
+
+        try {
+            for (int voter = 1; voter <= voters; voter++) {
+                /* Every fourth voter changes a previous vote, so only the sum moves */
+                double rateDifference = voter % 5 + 1;
+                long countDifference = (voter % 4 == 0) ? 0 : 1;
+                expectedSum += rateDifference;
+                expectedCount += countDifference;
+
+                futures.add(executorService.submit(() -> {
+                    startSignal.await();
+                    return transactionTemplate.execute(status -> {
+                        movieRepository.applyRatingDifference(id, rateDifference, countDifference);
+                        return movieRepository.findRatingAggregate(id);
+                    });
+                }));
+            }
+
+            startSignal.countDown();
+
+            for (Future<RatingAggregate> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        RatingAggregate actual = movieRepository.findRatingAggregate(id);
+
+        assertEquals(expectedSum, actual.ratingSum());
+        assertEquals(expectedCount, actual.ratingCount());
+        assertEquals(expectedSum / expectedCount, actual.averageRating(), 1e-9);
+    }
+
+    private static Movie createMovie(String imdbId, String language) {
+        return Movie.builder()
+                .imdbId(imdbId)
+                .title("Movie " + imdbId)
+                .language(language)
+                .releaseYear(2000)
+                .averageRating(0d)
+                .build();
+    }
+}
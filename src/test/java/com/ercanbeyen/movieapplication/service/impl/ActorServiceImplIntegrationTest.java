@@ -0,0 +1,122 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.PostgresIntegrationTest;
+import com.ercanbeyen.movieapplication.dto.ActorDto;
+import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.converter.ActorDtoConverter;
+import com.ercanbeyen.movieapplication.entity.Actor;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.option.filter.ActorFilteringOptions;
+import com.ercanbeyen.movieapplication.repository.ActorRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.statistics.ActorStatisticsTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ActorServiceImplIntegrationTest extends PostgresIntegrationTest {
+    @Autowired
+    private ActorRepository actorRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    private ActorServiceImpl actorService;
+
+    @BeforeEach
+    public void setUp() {
+        actorService = new ActorServiceImpl(actorRepository, new ActorDtoConverter(), mock(ActorStatisticsTracker.class));
+
+        Actor leadActor = actorRepository.save(Actor.builder().name("Lead").build());
+        Actor supportingActor = actorRepository.save(Actor.builder().name("Supporting").build());
+        actorRepository.save(Actor.builder().name("Unknown").build());
+
+        movieRepository.save(createMovie("tt0000001", Set.of(leadActor, supportingActor)));
+        movieRepository.save(createMovie("tt0000002", Set.of(leadActor)));
+        movieRepository.save(createMovie("tt0000003", Set.of()));
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    @DisplayName("When Statistics Are Calculated It Should Count Movies Per Actor Including Actors Without Movies")
+    public void whenStatisticsAreCalculated_itShouldCountMoviesPerActorIncludingActorsWithoutMovies() {
+        Map<String, String> actual = actorService.calculateStatistics().result();
+
+        assertEquals("2.0", actual.get("mostPlayedCount"));
+        assertEquals("0.0", actual.get("leastPlayedCount"));
+        assertEquals("3.0", actual.get("playedMovieSum"));
+        assertEquals("1.0", actual.get("playedMovieAverage"));
+        assertEquals("3", actual.get("playerCount"));
+    }
+
+    @Test
+    @DisplayName("When Tracker Is Seeded It Should Report The Same Statistics As The Grouped Query")
+    public void whenTrackerIsSeeded_itShouldReportTheSameStatisticsAsTheGroupedQuery() {
+        ActorStatisticsTracker actorStatisticsTracker = new ActorStatisticsTracker(actorRepository, true);
+        actorStatisticsTracker.rebuild();
+        Map<String, String> tracked = new HashMap<>(actorStatisticsTracker.getSnapshot().result());
+        tracked.remove("computedAt");
+
+        assertEquals(actorService.calculateStatistics().result(), tracked);
+    }
+
+    @Test
+    @DisplayName("When Cursor Pages Are Walked With A Filter It Should Return Every Matching Actor Once")
+    public void whenCursorPagesAreWalkedWithAFilter_itShouldReturnEveryMatchingActorOnce() {
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 25; i++) {
+            Actor actor = actorRepository.save(Actor.builder()
+                    .name("Actor " + i)
+                    .nationality(i % 3 == 0 ? "German" : "Turkish")
+                    .birthDate(LocalDate.of(i % 4 == 0 ? 1990 : 1980, 6, 15))
+                    .build());
+
+            if (i % 3 != 0 && i % 4 != 0) {
+                expected.add(actor.getId());
+            }
+        }
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        ActorFilteringOptions filteringOptions = new ActorFilteringOptions("Turkish", 1980, null);
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("id"));
+        List<Integer> actual = new ArrayList<>();
+        String after = "";
+
+        do {
+            PageDto<Actor, ActorDto> page = actorService.getActors(filteringOptions, null, "4", pageable, after);
+            assertTrue(page.getContent().size() <= 4);
+            page.getContent().forEach(actorDto -> actual.add(actorDto.id()));
+            after = page.getNext();
+        } while (after != null);
+
+        assertEquals(expected, actual);
+    }
+
+    private static Movie createMovie(String imdbId, Set<Actor> actors) {
+        return Movie.builder()
+                .imdbId(imdbId)
+                .title("Movie " + imdbId)
+                .averageRating(0d)
+                .actors(actors)
+                .build();
+    }
+}
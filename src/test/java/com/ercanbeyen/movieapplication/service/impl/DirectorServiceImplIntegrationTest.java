@@ -0,0 +1,121 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.PostgresIntegrationTest;
+import com.ercanbeyen.movieapplication.dto.DirectorDto;
+import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.converter.DirectorDtoConverter;
+import com.ercanbeyen.movieapplication.entity.Director;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.option.filter.DirectorFilteringOptions;
+import com.ercanbeyen.movieapplication.repository.DirectorRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.statistics.DirectorStatisticsTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class DirectorServiceImplIntegrationTest extends PostgresIntegrationTest {
+    @Autowired
+    private DirectorRepository directorRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    private DirectorServiceImpl directorService;
+
+    @BeforeEach
+    public void setUp() {
+        directorService = new DirectorServiceImpl(directorRepository, new DirectorDtoConverter(), mock(DirectorStatisticsTracker.class));
+
+        Director prolificDirector = directorRepository.save(Director.builder().name("Prolific").build());
+        directorRepository.save(Director.builder().name("Debutant").build());
+
+        movieRepository.save(createMovie("tt0000001", prolificDirector));
+        movieRepository.save(createMovie("tt0000002", prolificDirector));
+        movieRepository.save(createMovie("tt0000003", null));
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    @DisplayName("When Statistics Are Calculated It Should Count Movies Per Director Including Directors Without Movies")
+    public void whenStatisticsAreCalculated_itShouldCountMoviesPerDirectorIncludingDirectorsWithoutMovies() {
+        Map<String, String> actual = directorService.calculateStatistics().result();
+
+        assertEquals("2.0", actual.get("mostDirectedCount"));
+        assertEquals("0.0", actual.get("leastDirectedCount"));
+        assertEquals("2.0", actual.get("directedMovieSum"));
+        assertEquals("1.0", actual.get("directedMovieAverage"));
+        assertEquals("2", actual.get("directorCount"));
+    }
+
+    @Test
+    @DisplayName("When Tracker Is Seeded It Should Report The Same Statistics As The Grouped Query")
+    public void whenTrackerIsSeeded_itShouldReportTheSameStatisticsAsTheGroupedQuery() {
+        DirectorStatisticsTracker directorStatisticsTracker = new DirectorStatisticsTracker(directorRepository, true);
+        directorStatisticsTracker.rebuild();
+        Map<String, String> tracked = new HashMap<>(directorStatisticsTracker.getSnapshot().result());
+        tracked.remove("computedAt");
+
+        assertEquals(directorService.calculateStatistics().result(), tracked);
+    }
+
+    @Test
+    @DisplayName("When Cursor Pages Are Walked With A Filter It Should Return Every Matching Director Once")
+    public void whenCursorPagesAreWalkedWithAFilter_itShouldReturnEveryMatchingDirectorOnce() {
+        List<Integer> expected = new ArrayList<>();
+
+        for (int i = 0; i < 25; i++) {
+            Director director = directorRepository.save(Director.builder()
+                    .name("Director " + i)
+                    .nationality(i % 3 == 0 ? "German" : "Turkish")
+                    .birthDate(LocalDate.of(i % 4 == 0 ? 1990 : 1980, 6, 15))
+                    .build());
+
+            if (i % 3 != 0 && i % 4 != 0) {
+                expected.add(director.getId());
+            }
+        }
+
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        DirectorFilteringOptions filteringOptions = new DirectorFilteringOptions("Turkish", 1980);
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("id"));
+        List<Integer> actual = new ArrayList<>();
+        String after = "";
+
+        do {
+            PageDto<Director, DirectorDto> page = directorService.getDirectors(filteringOptions, null, "4", pageable, after);
+            assertTrue(page.getContent().size() <= 4);
+            page.getContent().forEach(directorDto -> actual.add(directorDto.id()));
+            after = page.getNext();
+        } while (after != null);
+
+        assertEquals(expected, actual);
+    }
+
+    private static Movie createMovie(String imdbId, Director director) {
+        return Movie.builder()
+                .imdbId(imdbId)
+                .title("Movie " + imdbId)
+                .averageRating(0d)
+                .director(director)
+                .build();
+    }
+}
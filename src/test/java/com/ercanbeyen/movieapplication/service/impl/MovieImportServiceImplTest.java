@@ -0,0 +1,173 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.enums.DataFormat;
+import com.ercanbeyen.movieapplication.constant.enums.ImportStatus;
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.dto.MovieImportReport;
+import com.ercanbeyen.movieapplication.dto.MovieImportResult;
+import com.ercanbeyen.movieapplication.exception.InvalidImportException;
+import com.ercanbeyen.movieapplication.index.ImdbIdFilter;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.service.MovieSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieImportServiceImplTest {
+    private static final String CSV_HEADER = "imdbId,title,language,releaseYear,genre,summary\n";
+
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private ImdbIdFilter imdbIdFilter;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    private MovieSearchService movieSearchService;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    private MovieImportServiceImpl movieImportService;
+    private final List<String> insertedImdbIds = new ArrayList<>();
+    private final List<Integer> insertedChunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        movieImportService = new MovieImportServiceImpl(movieRepository, imdbIdFilter, applicationEventPublisher, movieSearchService, jdbcTemplate, transactionTemplate, new ObjectMapper(), validator);
+        ReflectionTestUtils.setField(movieImportService, "chunkSize", 2);
+
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        lenient().when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            List<Object> rows = invocation.getArgument(1);
+            ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+            PreparedStatement preparedStatement = mock(PreparedStatement.class);
+
+            for (Object row : rows) {
+                setter.setValues(preparedStatement, row);
+            }
+
+            ArgumentCaptor<String> values = ArgumentCaptor.forClass(String.class);
+            verify(preparedStatement, atLeastOnce()).setString(eq(1), values.capture());
+            insertedImdbIds.addAll(values.getAllValues());
+            insertedChunkSizes.add(rows.size());
+            return new int[0][0];
+        });
+    }
+
+    @Test
+    @DisplayName("When importMovies Called With Multi Line CSV Values It Should Import Each Record Once")
+    public void whenImportMoviesCalledWithMultiLineCsvValues_itShouldImportEachRecordOnce() throws IOException {
+        String csv = CSV_HEADER
+                + "tt0000001,First,English,2001,DRAMA,\"Line one\nline two, with comma\"\n"
+                + "tt0000002,\"Second \"\"quoted\"\"\",English,2002,,\n";
+
+        when(movieRepository.findExistingImdbIds(anyCollection())).thenReturn(Set.of());
+
+        MovieImportReport report = movieImportService.importMovies(toInputStream(csv), DataFormat.CSV);
+
+        assertEquals(2L, report.total());
+        assertEquals(2L, report.imported());
+        assertEquals(List.of("tt0000001", "tt0000002"), insertedImdbIds);
+    }
+
+    @Test
+    @DisplayName("When importMovies Called With Missing Or Incomplete CSV Header It Should Throw InvalidImportException")
+    public void whenImportMoviesCalledWithMissingOrIncompleteCsvHeader_itShouldThrowInvalidImportException() {
+        InvalidImportException missingHeader = assertThrows(InvalidImportException.class, () -> movieImportService.importMovies(toInputStream(""), DataFormat.CSV));
+        InvalidImportException incompleteHeader = assertThrows(InvalidImportException.class,
+                () -> movieImportService.importMovies(toInputStream("imdbId,title\ntt0000001,First\n"), DataFormat.CSV));
+
+        assertEquals(ResponseMessages.CSV_HEADER_MISSING, missingHeader.getMessage());
+        assertTrue(incompleteHeader.getMessage().startsWith("CSV header should contain"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("When importMovies Called With More Rows Than Chunk Size It Should Import Chunk By Chunk And Skip Duplicates Across Chunks")
+    public void whenImportMoviesCalledWithMoreRowsThanChunkSize_itShouldImportChunkByChunkAndSkipDuplicatesAcrossChunks() throws IOException {
+        String csv = CSV_HEADER
+                + "tt0000001,First,English,2001,DRAMA,\n"
+                + "tt0000002,Second,English,2002,DRAMA,\n"
+                + "\n"
+                + "tt0000001,First again,English,2001,DRAMA,\n"
+                + "invalid,Invalid,English,2003,DRAMA,\n"
+                + "tt0000003,Third,English,2003,HORROR,\n";
+
+        when(movieRepository.findExistingImdbIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> imdbIds = invocation.getArgument(0);
+            Set<String> existingImdbIds = new HashSet<>(insertedImdbIds);
+            existingImdbIds.retainAll(imdbIds);
+            return existingImdbIds;
+        });
+
+        MovieImportReport report = movieImportService.importMovies(toInputStream(csv), DataFormat.CSV);
+
+        List<ImportStatus> statuses = report.results()
+                .stream()
+                .map(MovieImportResult::status)
+                .toList();
+
+        assertEquals(List.of(ImportStatus.IMPORTED, ImportStatus.IMPORTED, ImportStatus.DUPLICATE, ImportStatus.INVALID, ImportStatus.IMPORTED), statuses);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), report.results().stream().map(MovieImportResult::row).toList());
+        assertEquals(3L, report.imported());
+        assertEquals(2L, report.skipped());
+        assertEquals(List.of(2, 1), insertedChunkSizes);
+        assertEquals(List.of("tt0000001", "tt0000002", "tt0000003"), insertedImdbIds);
+        verify(movieRepository, times(3)).findExistingImdbIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("When importMovies Called With Unterminated Quote It Should Report The Last Row As Invalid")
+    public void whenImportMoviesCalledWithUnterminatedQuote_itShouldReportTheLastRowAsInvalid() throws IOException {
+        String csv = CSV_HEADER
+                + "tt0000001,First,English,2001,DRAMA,\n"
+                + "tt0000002,Second,English,2002,DRAMA,\"never closed\n";
+
+        when(movieRepository.findExistingImdbIds(anyCollection())).thenReturn(Set.of());
+
+        MovieImportReport report = movieImportService.importMovies(toInputStream(csv), DataFormat.CSV);
+
+        assertEquals(ImportStatus.IMPORTED, report.results().get(0).status());
+        assertEquals(ImportStatus.INVALID, report.results().get(1).status());
+        assertEquals(List.of("tt0000001"), insertedImdbIds);
+    }
+
+    private static InputStream toInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,106 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.PostgresIntegrationTest;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.statistics.MovieStatisticsTracker;
+import com.ercanbeyen.movieapplication.statistics.SketchFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+public class MovieServiceImplIntegrationTest extends PostgresIntegrationTest {
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+    @Mock
+    private MovieStatisticsTracker movieStatisticsTracker;
+    @InjectMocks
+    private MovieServiceImpl movieService;
+
+    /*
+     * Ratings tie at the top and at the bottom, and languages tie on count in different cases, which the default
+     * collation of the database would order differently from the in-memory path
+     */
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(movieService, "movieRepository", movieRepository);
+
+        movieRepository.save(createMovie("tt0000001", "Test-title-1", 4d, "spanish"));
+        movieRepository.save(createMovie("tt0000002", "Test-title-2", 4d, "Spanish"));
+        movieRepository.save(createMovie("tt0000003", "Test-title-3", null, "French"));
+        movieRepository.save(createMovie("tt0000004", "Test-title-4", 1d, "French"));
+        movieRepository.save(createMovie("tt0000005", "Test-title-5", 1d, null));
+        movieRepository.save(createMovie("tt0000006", "Test-title-6", 2d, null));
+        movieRepository.save(createMovie("tt0000007", "Test-title-7", 3d, "english"));
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    @DisplayName("When calculateStatistics Called With Pushdown It Should Return The Same Statistics As The In-Memory Path")
+    public void whenCalculateStatisticsCalledWithPushdown_itShouldReturnTheSameStatisticsAsTheInMemoryPath() {
+        ReflectionTestUtils.setField(movieService, "statisticsPushdown", true);
+        Map<String, String> pushedDown = movieService.calculateStatistics().result();
+
+        ReflectionTestUtils.setField(movieService, "statisticsPushdown", false);
+        Map<String, String> inMemory = movieService.calculateStatistics().result();
+
+        assertEquals("Test-title-1", pushedDown.get("mostRatedMovie"));
+        assertEquals("Test-title-4", pushedDown.get("leastRatedMovie"));
+        assertEquals("French", pushedDown.get("mostPopularLanguage"));
+        assertEquals("Spanish", pushedDown.get("leastPopularLanguage"));
+        assertEquals(pushedDown, inMemory);
+    }
+
+    @Test
+    @DisplayName("When Tracked Extremes Are Drained It Should Refill Them And Keep The Statistics Of The Pushed Down Queries")
+    public void whenTrackedExtremesAreDrained_itShouldRefillThemAndKeepTheStatisticsOfThePushedDownQueries() {
+        ReflectionTestUtils.setField(movieService, "statisticsPushdown", true);
+        MovieStatisticsTracker tracker = new MovieStatisticsTracker(movieRepository, new SketchFactory(14, 0.001, 0.99, 16, 1024), true, 1, false);
+        tracker.rebuild();
+
+        assertEquals(movieService.calculateStatistics().result(), withoutComputedAt(tracker));
+
+        Movie mostRatedMovie = movieRepository.findByImdbId("tt0000001").orElseThrow();
+        MovieChangedEvent movieChangedEvent = MovieChangedEvent.deleted(mostRatedMovie);
+        movieRepository.delete(mostRatedMovie);
+        testEntityManager.flush();
+        tracker.onMovieChanged(movieChangedEvent);
+
+        Map<String, String> expected = movieService.calculateStatistics().result();
+
+        assertEquals("Test-title-2", expected.get("mostRatedMovie"));
+        assertEquals(expected, withoutComputedAt(tracker));
+    }
+
+    private static Map<String, String> withoutComputedAt(MovieStatisticsTracker tracker) {
+        Map<String, String> statisticsMap = new HashMap<>(tracker.getSnapshot().result());
+        statisticsMap.remove("computedAt");
+        return statisticsMap;
+    }
+
+    private static Movie createMovie(String imdbId, String title, Double averageRating, String language) {
+        return Movie.builder()
+                .imdbId(imdbId)
+                .title(title)
+                .averageRating(averageRating)
+                .language(language)
+                .build();
+    }
+}
@@ -1,11 +1,17 @@
 package com.ercanbeyen.movieapplication.service.impl;
 
+import com.ercanbeyen.movieapplication.cache.BatchCacheOperations;
 import com.ercanbeyen.movieapplication.constant.defaults.DefaultValues;
 import com.ercanbeyen.movieapplication.constant.enums.Genre;
+import com.ercanbeyen.movieapplication.constant.enums.MovieChangeType;
 import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
 import com.ercanbeyen.movieapplication.constant.names.ResourceNames;
+import com.ercanbeyen.movieapplication.dto.AudienceDto;
+import com.ercanbeyen.movieapplication.dto.RatingEntry;
 import com.ercanbeyen.movieapplication.dto.MovieDto;
 import com.ercanbeyen.movieapplication.dto.PageDto;
+import com.ercanbeyen.movieapplication.dto.RatingAggregate;
+import com.ercanbeyen.movieapplication.dto.RatingUpsertResult;
 import com.ercanbeyen.movieapplication.dto.Statistics;
 import com.ercanbeyen.movieapplication.dto.converter.MovieDtoConverter;
 import com.ercanbeyen.movieapplication.dto.request.create.CreateMovieRequest;
@@ -13,27 +19,52 @@ import com.ercanbeyen.movieapplication.dto.request.update.UpdateMovieRequest;
 import com.ercanbeyen.movieapplication.entity.Actor;
 import com.ercanbeyen.movieapplication.entity.Director;
 import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.event.MovieChangedEvent;
 import com.ercanbeyen.movieapplication.exception.ResourceConflictException;
 import com.ercanbeyen.movieapplication.exception.ResourceNotFoundException;
+import com.ercanbeyen.movieapplication.index.ImdbIdFilter;
+import com.ercanbeyen.movieapplication.index.MovieCatalogIndex;
+import com.ercanbeyen.movieapplication.index.MovieLeaderboard;
+import com.ercanbeyen.movieapplication.index.MovieRecommendationIndex;
+import com.ercanbeyen.movieapplication.index.MovieSimilarityIndex;
+import com.ercanbeyen.movieapplication.index.MovieTrendingIndex;
+import com.ercanbeyen.movieapplication.index.MovieTitleIndex;
 import com.ercanbeyen.movieapplication.option.filter.MovieFilteringOptions;
 import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.service.MovieSearchService;
+import com.ercanbeyen.movieapplication.service.RatingIngestionService;
+import com.ercanbeyen.movieapplication.statistics.MovieStatisticsTracker;
+import com.ercanbeyen.movieapplication.util.CursorUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -49,6 +80,34 @@ public class MovieServiceImplTest {
     private DirectorServiceImpl directorService;
     @Mock
     private ActorServiceImpl actorService;
+    @Mock
+    private AudienceServiceImpl audienceService;
+    @Mock
+    private RatingServiceImpl ratingService;
+    @Mock
+    private MovieCatalogIndex movieCatalogIndex;
+    @Mock
+    private MovieTitleIndex movieTitleIndex;
+    @Mock
+    private MovieSearchService movieSearchService;
+    @Mock
+    private BatchCacheOperations batchCacheOperations;
+    @Mock
+    private ImdbIdFilter imdbIdFilter;
+    @Mock
+    private RatingIngestionService ratingIngestionService;
+    @Mock
+    private MovieLeaderboard movieLeaderboard;
+    @Mock
+    private MovieTrendingIndex movieTrendingIndex;
+    @Mock
+    private MovieRecommendationIndex movieRecommendationIndex;
+    @Mock
+    private MovieSimilarityIndex movieSimilarityIndex;
+    @Mock
+    private MovieStatisticsTracker movieStatisticsTracker;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
     private List<Movie> movieList;
     private List<MovieDto> movieDtoList;
 
@@ -78,6 +137,16 @@ public class MovieServiceImplTest {
         return Collections.singletonList(actor);
     }
 
+    private MovieChangedEvent.Change captureMovieChangedEvent(MovieChangeType expectedType) {
+        ArgumentCaptor<MovieChangedEvent> movieChangedEvent = ArgumentCaptor.forClass(MovieChangedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(movieChangedEvent.capture());
+
+        assertEquals(expectedType, movieChangedEvent.getValue().type());
+        assertEquals(1, movieChangedEvent.getValue().changes().size());
+
+        return movieChangedEvent.getValue().changes().get(0);
+    }
+
     private Set<Integer> getMockActorIds() {
         List<Actor> actorList = getMockActors();
 
@@ -159,6 +228,30 @@ public class MovieServiceImplTest {
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
+    @Test
+    @DisplayName("When createMovie Called With Imdb Id Missing From The Filter But Taken It Should Throw ResourceConflictException")
+    public void whenCreateMovieCalledWithImdbIdMissingFromTheFilterButTaken_itShouldThrowResourceConflictException() {
+        Movie movie = movieList.get(0);
+
+        CreateMovieRequest request = new CreateMovieRequest();
+        request.setImdbId(movie.getImdbId());
+        request.setTitle(movie.getTitle());
+        request.setReleaseYear(movie.getReleaseYear());
+        request.setLanguage(movie.getLanguage());
+
+        String expected = String.format(ResponseMessages.ALREADY_EXISTS, ResourceNames.MOVIE);
+
+        when(imdbIdFilter.isDefinitelyAbsent(movie.getImdbId())).thenReturn(true);
+        when(movieRepository.save(any(Movie.class))).thenThrow(new DataIntegrityViolationException("uk_movies_imdb_id"));
+
+        RuntimeException exception = assertThrows(ResourceConflictException.class, () -> movieService.createMovie(request));
+
+        assertEquals(expected, exception.getMessage());
+
+        verify(movieRepository, never()).existsByImdbId(any());
+        verifyNoInteractions(movieDtoConverter);
+    }
+
 
     @Test
     @DisplayName("When getMovie Called With Existed Id It Should Return MovieDto")
@@ -180,6 +273,27 @@ public class MovieServiceImplTest {
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
+    @Test
+    @DisplayName("When getMovies Called With Ids It Should Load Only Cache Misses And Keep Request Order")
+    public void whenGetMoviesCalledWithIds_itShouldLoadOnlyCacheMissesAndKeepRequestOrder() {
+        Movie cachedMovie = movieList.get(0);
+        Movie missingMovie = movieList.get(1);
+        List<Integer> ids = List.of(missingMovie.getId(), cachedMovie.getId());
+        List<MovieDto> expected = List.of(movieDtoList.get(1), movieDtoList.get(0));
+
+        when(batchCacheOperations.getAll("movies", ids, MovieDto.class)).thenReturn(Map.of(cachedMovie.getId(), movieDtoList.get(0)));
+        when(movieRepository.findByIdIn(List.of(missingMovie.getId()))).thenReturn(List.of(missingMovie));
+        when(movieDtoConverter.convert(missingMovie)).thenReturn(movieDtoList.get(1));
+
+        List<MovieDto> actual = movieService.getMovies(ids);
+
+        assertEquals(expected, actual);
+
+        verify(movieRepository, times(1)).findByIdIn(List.of(missingMovie.getId()));
+        verify(movieRepository, never()).findById(anyInt());
+        verify(batchCacheOperations, times(1)).putAll("movies", Map.of());
+    }
+
     @Test
     @DisplayName("When getMovie Called With Not Existed Id It Should Throw ResourceNotFoundException")
     public void whenGetMovieCalledWithNotExistedId_itShouldThrowResourceNotFoundException() {
@@ -220,6 +334,22 @@ public class MovieServiceImplTest {
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
+    @Test
+    @DisplayName("When getMovie Called With Imdb Id Absent In Filter It Should Throw ResourceNotFoundException Without Query")
+    public void whenGetMovieCalledWithImdbIdAbsentInFilter_itShouldThrowResourceNotFoundExceptionWithoutQuery() {
+        String imdbId = "tt0000001";
+        String expected = String.format(ResponseMessages.NOT_FOUND, ResourceNames.MOVIE);
+
+        when(imdbIdFilter.isDefinitelyAbsent(imdbId)).thenReturn(true);
+
+        RuntimeException exception = assertThrows(ResourceNotFoundException.class, () -> movieService.getMovie(imdbId));
+
+        assertEquals(expected, exception.getMessage());
+
+        verifyNoInteractions(movieRepository);
+        verifyNoInteractions(movieDtoConverter);
+    }
+
     @Test
     @DisplayName("When getMovies Called With Parameters It Should Return MovieDto List")
     public void whenGetMoviesCalledWithParameters_itShouldReturnMovieDto() {
@@ -231,19 +361,66 @@ public class MovieServiceImplTest {
         Page<Movie> moviePage = new PageImpl<>(fetchedMovieList, pageable, fetchedMovieList.size());
         PageDto<Movie, MovieDto> expected = new PageDto<>(moviePage, fetchedMovieDtoList);
 
-        when(movieRepository.findAll(pageable)).thenReturn(moviePage);
+        when(movieRepository.findAll(ArgumentMatchers.<Specification<Movie>>any(), eq(pageable))).thenReturn(moviePage);
         when(movieDtoConverter.convert(movieList.get(0))).thenReturn(movieDtoList.get(0));
 
         MovieFilteringOptions movieFilteringOptions = new MovieFilteringOptions(movieList.get(0).getLanguage(), null, null);
 
-        PageDto<Movie, MovieDto> actual = movieService.getMovies(movieFilteringOptions, DefaultValues.DEFAULT_LIMIT_VALUE, pageable);
+        PageDto<Movie, MovieDto> actual = movieService.getMovies(movieFilteringOptions, DefaultValues.DEFAULT_LIMIT_VALUE, pageable, null);
 
         assertEquals(expected, actual);
 
-        verify(movieRepository, times(1)).findAll(pageable);
+        verify(movieRepository, times(1)).findAll(ArgumentMatchers.<Specification<Movie>>any(), eq(pageable));
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
+    @Test
+    @DisplayName("When getMovies Called With Cursor It Should Return MovieDto List And Next Cursor")
+    public void whenGetMoviesCalledWithCursor_itShouldReturnMovieDtoListAndNextCursor() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by(Sort.Order.asc("id")));
+        Movie movie = movieList.get(0);
+
+        Window<Movie> movieWindow = Window.from(
+                Collections.singletonList(movie),
+                index -> ScrollPosition.forward(Map.of("id", movie.getId())),
+                true);
+
+        when(movieRepository.findBy(ArgumentMatchers.<Specification<Movie>>any(), any())).thenReturn(movieWindow);
+        when(movieDtoConverter.convert(movie)).thenReturn(movieDtoList.get(0));
+
+        MovieFilteringOptions movieFilteringOptions = new MovieFilteringOptions(null, null, null);
+
+        PageDto<Movie, MovieDto> actual = movieService.getMovies(movieFilteringOptions, DefaultValues.DEFAULT_LIMIT_VALUE, pageable, "");
+
+        assertEquals(Collections.singletonList(movieDtoList.get(0)), actual.getContent());
+        assertEquals(ScrollPosition.forward(Map.of("id", movie.getId())), CursorUtil.decode(actual.getNext(), pageable.getSort(), Movie.class));
+        assertNull(actual.getTotalElements());
+
+        verify(movieRepository, times(1)).findBy(ArgumentMatchers.<Specification<Movie>>any(), any());
+        verify(movieRepository, never()).findAll(ArgumentMatchers.<Specification<Movie>>any(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("When getMovies Called With Ready Catalog Index It Should Return MovieDto List Without Filtering In Database")
+    public void whenGetMoviesCalledWithReadyCatalogIndex_itShouldReturnMovieDtoListWithoutFilteringInDatabase() {
+        Pageable pageable = PageRequest.of(0, 1);
+        Movie movie = movieList.get(0);
+        MovieFilteringOptions movieFilteringOptions = new MovieFilteringOptions(movie.getLanguage(), null, null);
+
+        when(movieCatalogIndex.isReady()).thenReturn(true);
+        when(movieCatalogIndex.findMovieIds(movieFilteringOptions, pageable)).thenReturn(new PageImpl<>(Collections.singletonList(movie.getId()), pageable, 2));
+        when(movieRepository.findAllById(Collections.singletonList(movie.getId()))).thenReturn(Collections.singletonList(movie));
+        when(movieDtoConverter.convert(movie)).thenReturn(movieDtoList.get(0));
+
+        PageDto<Movie, MovieDto> actual = movieService.getMovies(movieFilteringOptions, DefaultValues.DEFAULT_LIMIT_VALUE, pageable, null);
+
+        assertEquals(Collections.singletonList(movieDtoList.get(0)), actual.getContent());
+        assertEquals(2L, actual.getTotalElements());
+        assertEquals(2, actual.getTotalPage());
+
+        verify(movieRepository, never()).findAll(ArgumentMatchers.<Specification<Movie>>any(), any(Pageable.class));
+    }
+
     @Test
     @DisplayName("When updateMovie Called With Existed Id And Valid Request With Null Director Id and Null Actor Id Set It Should Return MovieDto")
     public void whenUpdateMovieCalledWithExistedIdAndValidRequestWithNullDirectorIdAndNullActorIdSet_itShouldReturnMovieDto() {
@@ -266,7 +443,7 @@ public class MovieServiceImplTest {
         request.setActorIds(null);
 
         when(movieRepository.findById(id)).thenReturn(Optional.of(movie));
-        when(movieRepository.save(any(Movie.class))).thenReturn(movie);
+        when(movieRepository.saveAndFlush(any(Movie.class))).thenReturn(movie);
         when(movieDtoConverter.convert(movie)).thenReturn(expected);
 
         MovieDto actual = movieService.updateMovie(id, request);
@@ -274,7 +451,7 @@ public class MovieServiceImplTest {
         assertEquals(expected, actual);
 
         verify(movieRepository, times(1)).findById(id);
-        verify(movieRepository, times(1)).save(any(Movie.class));
+        verify(movieRepository, times(1)).saveAndFlush(any(Movie.class));
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
@@ -302,15 +479,18 @@ public class MovieServiceImplTest {
         when(movieRepository.findById(id)).thenReturn(Optional.of(movie));
         when(directorService.findDirector(director.getId())).thenReturn(director);
         when(actorService.findActor(actor.getId())).thenReturn(actor);
-        when(movieRepository.save(any(Movie.class))).thenReturn(updatedMovie);
+        when(movieRepository.saveAndFlush(any(Movie.class))).thenReturn(updatedMovie);
         when(movieDtoConverter.convert(updatedMovie)).thenReturn(expected);
 
         MovieDto actual = movieService.updateMovie(id, request);
+        MovieChangedEvent.Change change = captureMovieChangedEvent(MovieChangeType.UPDATED);
 
         assertEquals(expected, actual);
+        assertEquals(director.getId(), change.features().directorId());
+        assertEquals(getMockActorIds(), change.features().actorIds());
 
         verify(movieRepository, times(1)).findById(id);
-        verify(movieRepository, times(1)).save(any(Movie.class));
+        verify(movieRepository, times(1)).saveAndFlush(any(Movie.class));
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
@@ -384,8 +564,10 @@ public class MovieServiceImplTest {
         when(movieRepository.findById(id)).thenReturn(optionalMovie);
 
         String actual = movieService.deleteMovie(id);
+        MovieChangedEvent.Change change = captureMovieChangedEvent(MovieChangeType.DELETED);
 
         assertEquals(expected, actual);
+        assertEquals(movie.getLanguage(), change.previousFeatures().language());
 
         verify(movieRepository, times(1)).findById(id);
         verify(movieRepository, times(1)).delete(any(Movie.class));
@@ -409,19 +591,119 @@ public class MovieServiceImplTest {
         verifyNoMoreInteractions(movieRepository);
     }
 
+    @Test
+    @DisplayName("When rateMovie Called With New Rating It Should Update Rating Aggregates Without Loading Ratings")
+    public void whenRateMovieCalledWithNewRating_itShouldUpdateRatingAggregatesWithoutLoadingRatings() {
+        Movie movie = movieList.get(0);
+        movie.setRatings(new ArrayList<>());
+        movie.setRatingSum(7);
+        movie.setRatingCount(2);
+        int id = movie.getId();
+        double rate = 5;
+
+        AudienceDto audience = AudienceDto.builder()
+                .id(1)
+                .build();
+        UserDetails userDetails = new User("Test-username", "Test-password", List.of());
+
+        when(movieRepository.findById(id)).thenReturn(Optional.of(movie));
+        when(audienceService.getAudience(userDetails.getUsername())).thenReturn(audience);
+        when(ratingService.upsertRating(id, audience.id(), rate)).thenReturn(new RatingUpsertResult(1, null));
+        when(movieRepository.findRatingAggregate(id)).thenReturn(new RatingAggregate(12d, 3L, 4d));
+
+        MovieDto actual = movieService.rateMovie(id, rate, userDetails);
+        MovieChangedEvent.Change change = captureMovieChangedEvent(MovieChangeType.RATED);
+
+        assertEquals(4d, actual.rating());
+        assertEquals(12d, movie.getRatingSum());
+        assertEquals(3, movie.getRatingCount());
+        assertEquals(1, change.votes());
+        assertTrue(change.wasRated());
+
+        verify(ratingService, times(1)).upsertRating(id, audience.id(), rate);
+        verify(movieRepository, times(1)).applyRatingDifference(id, rate, 1);
+        verify(movieRepository, never()).save(movie);
+    }
+
+    @Test
+    @DisplayName("When deleteRatingOfMovie Called It Should Subtract Deleted Rate From Rating Aggregates")
+    public void whenDeleteRatingOfMovieCalled_itShouldSubtractDeletedRateFromRatingAggregates() {
+        Movie movie = movieList.get(0);
+        movie.setRatingSum(12);
+        movie.setRatingCount(3);
+        int id = movie.getId();
+        int audienceId = 1;
+
+        when(movieRepository.findById(id)).thenReturn(Optional.of(movie));
+        when(ratingService.deleteRating(id, audienceId)).thenReturn(2d);
+        when(movieRepository.findRatingAggregate(id)).thenReturn(new RatingAggregate(10d, 2L, 5d));
+
+        MovieDto actual = movieService.deleteRatingOfMovie(id, audienceId);
+        MovieChangedEvent.Change change = captureMovieChangedEvent(MovieChangeType.RATED);
+
+        assertEquals(5d, actual.rating());
+        assertEquals(10d, movie.getRatingSum());
+        assertEquals(2, movie.getRatingCount());
+        assertEquals(0, change.votes());
+
+        verify(ratingService, times(1)).deleteRating(id, audienceId);
+        verify(movieRepository, times(1)).applyRatingDifference(id, -2d, -1);
+    }
+
+    @Test
+    @DisplayName("When getTopMovies Called With Ready Leaderboard It Should Return The MovieDto List In Rank Order")
+    public void whenGetTopMoviesCalledWithReadyLeaderboard_itShouldReturnTheMovieDtoListInRankOrder() {
+        List<Integer> ids = List.of(movieList.get(1).getId(), movieList.get(0).getId());
+        List<MovieDto> expected = List.of(movieDtoList.get(1), movieDtoList.get(0));
+
+        when(movieLeaderboard.getTopMovieIds(Genre.DRAMA, 2)).thenReturn(Optional.of(ids));
+        when(batchCacheOperations.getAll("movies", ids, MovieDto.class)).thenReturn(Map.of(
+                ids.get(0), movieDtoList.get(1),
+                ids.get(1), movieDtoList.get(0)));
+
+        List<MovieDto> actual = movieService.getTopMovies(Genre.DRAMA, 2);
+
+        assertEquals(expected, actual);
+
+        verify(movieRepository, never()).findTopRated(any(), anyDouble(), anyDouble(), any(Pageable.class));
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("When getRecommendedMovies Called With Ready Index It Should Return The Recommended MovieDto List")
+    public void whenGetRecommendedMoviesCalledWithReadyIndex_itShouldReturnTheRecommendedMovieDtoList() {
+        Integer audienceId = 1;
+        List<RatingEntry> ratingEntries = List.of(new RatingEntry(1, movieList.get(0).getId(), audienceId, 5D));
+        List<Integer> ids = List.of(movieList.get(1).getId());
+        List<MovieDto> expected = List.of(movieDtoList.get(1));
+
+        when(ratingService.getRatingEntriesOfAudience(audienceId)).thenReturn(ratingEntries);
+        when(movieRecommendationIndex.recommend(ratingEntries, 2)).thenReturn(ids);
+        when(batchCacheOperations.getAll("movies", ids, MovieDto.class)).thenReturn(Map.of(ids.get(0), movieDtoList.get(1)));
+
+        List<MovieDto> actual = movieService.getRecommendedMovies(audienceId, 2);
+
+        assertEquals(expected, actual);
+
+        verify(audienceService, times(1)).getAudience(audienceId);
+        verify(movieLeaderboard, never()).getTopMovieIds(any(), anyInt());
+    }
+
     @Test
     @DisplayName("When getLatestMovies Called It Should Return The MovieDto List")
     public void whenGetLatestMoviesCalled_itShouldReturnTheMovieDtoList() {
+        Pageable pageable = PageRequest.of(0, 10);
         List<MovieDto> expected = Collections.singletonList(movieDtoList.get(0));
 
-        when(movieRepository.findAll()).thenReturn(movieList);
+        when(movieRepository.findByReleaseYearGreaterThanEqual(anyInt(), any(Pageable.class))).thenReturn(Collections.singletonList(movieList.get(0)));
         when(movieDtoConverter.convert(movieList.get(0))).thenReturn(expected.get(0));
 
-        List<MovieDto> actual = movieService.getLatestMovies();
+        List<MovieDto> actual = movieService.getLatestMovies(pageable);
 
         assertEquals(expected, actual);
 
-        verify(movieRepository, times(1)).findAll();
+        verify(movieRepository, times(1)).findByReleaseYearGreaterThanEqual(anyInt(), any(Pageable.class));
+        verify(movieRepository, never()).findAll();
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
@@ -434,17 +716,34 @@ public class MovieServiceImplTest {
 
         String title = movie.getTitle();
 
-        when(movieRepository.findByTitleStartingWith(title)).thenReturn(moviesList);
+        when(movieRepository.findTop10ByTitleStartingWithIgnoreCaseOrderByAverageRatingDesc(title)).thenReturn(moviesList);
         when(movieDtoConverter.convert(movie)).thenReturn(expected.get(0));
 
         List<MovieDto> actual = movieService.searchMovies(title);
 
         assertEquals(expected, actual);
 
-        verify(movieRepository, times(1)).findByTitleStartingWith(title);
+        verify(movieRepository, times(1)).findTop10ByTitleStartingWithIgnoreCaseOrderByAverageRatingDesc(title);
         verify(movieDtoConverter, times(1)).convert(any(Movie.class));
     }
 
+    @Test
+    @DisplayName("When searchMovies Called With Ready Title Index It Should Return The MovieDto List In Index Order")
+    public void whenSearchMoviesCalledWithReadyTitleIndex_itShouldReturnTheMovieDtoListInIndexOrder() {
+        String title = "Tset-title";
+        List<Integer> movieIds = Arrays.asList(movieList.get(1).getId(), movieList.get(0).getId());
+        List<MovieDto> expected = Arrays.asList(movieDtoList.get(1), movieDtoList.get(0));
+
+        when(movieTitleIndex.search(title, Integer.parseInt(DefaultValues.DEFAULT_LIMIT_VALUE))).thenReturn(Optional.of(movieIds));
+        when(movieRepository.findAllById(movieIds)).thenReturn(movieList);
+
+        List<MovieDto> actual = movieService.searchMovies(title);
+
+        assertEquals(expected, actual);
+
+        verify(movieRepository, never()).findTop10ByTitleStartingWithIgnoreCaseOrderByAverageRatingDesc(any());
+    }
+
     @Test
     @DisplayName("When calculateStatistics Called It Should Return Statistics")
     public void whenCalculateStatisticsCalled_itShouldReturnStatistics() {
@@ -463,4 +762,89 @@ public class MovieServiceImplTest {
 
         verify(movieRepository, times(1)).findAll();
     }
+
+    @Test
+    @DisplayName("When calculateStatistics Called In Memory With Ties It Should Break Them Like The Pushed Down Queries")
+    public void whenCalculateStatisticsCalledInMemoryWithTies_itShouldBreakThemLikeThePushedDownQueries() {
+        ReflectionTestUtils.setField(movieService, "statisticsPushdown", false);
+        List<Movie> movies = List.of(
+                createStatisticsMovie(5, "Test-title-5", 4d, "spanish"),
+                createStatisticsMovie(2, "Test-title-2", 4d, "Spanish"),
+                createStatisticsMovie(3, "Test-title-3", null, "French"),
+                createStatisticsMovie(4, "Test-title-4", 1d, "French"),
+                createStatisticsMovie(1, "Test-title-1", 1d, null),
+                createStatisticsMovie(6, "Test-title-6", 2d, null));
+
+        when(movieRepository.findAll()).thenReturn(movies);
+
+        Map<String, String> actual = movieService.calculateStatistics().result();
+
+        assertEquals("Test-title-2", actual.get("mostRatedMovie"));
+        assertEquals("Test-title-1", actual.get("leastRatedMovie"));
+        assertEquals("French", actual.get("mostPopularLanguage"));
+        assertEquals("Spanish", actual.get("leastPopularLanguage"));
+
+        verify(movieRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("When calculateStatistics Called With Ready Tracker It Should Return The Snapshot")
+    public void whenCalculateStatisticsCalledWithReadyTracker_itShouldReturnTheSnapshot() {
+        Statistics<String, String> expected = new Statistics<>(ResourceNames.MOVIE, Map.of(
+                "mostRatedMovie", movieList.get(0).getTitle(),
+                "computedAt", "2023-10-01T00:00:00Z"));
+
+        when(movieStatisticsTracker.isReady()).thenReturn(true);
+        when(movieStatisticsTracker.getSnapshot()).thenReturn(expected);
+
+        Statistics<String, String> actual = movieService.calculateStatistics();
+
+        assertEquals(expected, actual);
+
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    @DisplayName("When calculateStatistics Called With Ready Approximate Tracker It Should Calculate The Exact Statistics")
+    public void whenCalculateStatisticsCalledWithReadyApproximateTracker_itShouldCalculateTheExactStatistics() {
+        when(movieStatisticsTracker.isReady()).thenReturn(true);
+        when(movieStatisticsTracker.isApproximate()).thenReturn(true);
+        when(movieRepository.findAll()).thenReturn(List.of(createStatisticsMovie(1, "Test-title-1", 3d, "English")));
+
+        Map<String, String> actual = movieService.calculateStatistics().result();
+
+        assertEquals("Test-title-1", actual.get("mostRatedMovie"));
+        assertEquals("English", actual.get("mostPopularLanguage"));
+
+        verify(movieStatisticsTracker, never()).getSnapshot();
+        verify(movieRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("When calculateApproximateStatistics Called With Ready Tracker It Should Return The Approximate Snapshot")
+    public void whenCalculateApproximateStatisticsCalledWithReadyTracker_itShouldReturnTheApproximateSnapshot() {
+        Statistics<String, String> expected = new Statistics<>(ResourceNames.MOVIE, Map.of(
+                "distinctLanguageCount", "2",
+                "distinctLanguageCountRelativeError", "0.008125",
+                "computedAt", "2023-10-01T00:00:00Z"));
+
+        when(movieStatisticsTracker.isReady()).thenReturn(true);
+        when(movieStatisticsTracker.getApproximateSnapshot()).thenReturn(expected);
+
+        Statistics<String, String> actual = movieService.calculateApproximateStatistics();
+
+        assertEquals(expected, actual);
+
+        verify(movieStatisticsTracker, never()).getSnapshot();
+        verifyNoInteractions(movieRepository);
+    }
+
+    private static Movie createStatisticsMovie(Integer id, String title, Double averageRating, String language) {
+        return Movie.builder()
+                .id(id)
+                .title(title)
+                .averageRating(averageRating)
+                .language(language)
+                .build();
+    }
 }
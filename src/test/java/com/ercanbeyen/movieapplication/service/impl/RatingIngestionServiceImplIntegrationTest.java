@@ -0,0 +1,182 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.PostgresIntegrationTest;
+import com.ercanbeyen.movieapplication.dto.RatingVote;
+import com.ercanbeyen.movieapplication.entity.Audience;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.entity.PendingRating;
+import com.ercanbeyen.movieapplication.repository.AudienceRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.repository.PendingRatingRepository;
+import com.ercanbeyen.movieapplication.service.AudienceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RatingIngestionServiceImplIntegrationTest extends PostgresIntegrationTest {
+    private static final int AUDIENCES = 20;
+    private static final int VOTES_PER_AUDIENCE = 10;
+
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private AudienceRepository audienceRepository;
+    @Autowired
+    private PendingRatingRepository pendingRatingRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private Integer movieId;
+    private List<Integer> audienceIds;
+
+    @BeforeEach
+    public void setUp() {
+        movieId = movieRepository.save(Movie.builder()
+                        .imdbId("tt0000001")
+                        .title("Movie")
+                        .language("English")
+                        .releaseYear(2000)
+                        .averageRating(0d)
+                        .build())
+                .getId();
+        audienceIds = new ArrayList<>();
+
+        for (int i = 0; i < AUDIENCES; i++) {
+            audienceIds.add(audienceRepository.save(Audience.builder().username("audience" + i).build()).getId());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("TRUNCATE ratings, rating_histograms, pending_ratings, movies, audiences RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    @DisplayName("When Queued Vote Is Older Than The Stored Rating It Should Not Overwrite It")
+    public void whenQueuedVoteIsOlderThanTheStoredRating_itShouldNotOverwriteIt() {
+        RatingIngestionServiceImpl ratingIngestionService = createService(10);
+        Integer audienceId = audienceIds.get(0);
+        Instant acceptedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        ratingIngestionService.flush(List.of(new RatingVote(null, movieId, audienceId, 9d, acceptedAt)), acceptedAt);
+        ratingIngestionService.flush(List.of(new RatingVote(null, movieId, audienceId, 2d, acceptedAt.minusSeconds(1))), acceptedAt);
+
+        assertEquals(9d, jdbcTemplate.queryForObject("SELECT rate FROM ratings WHERE movie_id = ? AND audience_id = ?", Double.class, movieId, audienceId));
+        assertEquals(9d, jdbcTemplate.queryForObject("SELECT rating_sum FROM movies WHERE id = ?", Double.class, movieId));
+        assertEquals("1", ratingIngestionService.getStatistics().result().get("supersededVotes"));
+
+        ratingIngestionService.flush(List.of(new RatingVote(null, movieId, audienceId, 4d, acceptedAt.plusSeconds(1))), acceptedAt);
+
+        assertEquals(4d, jdbcTemplate.queryForObject("SELECT rating_sum FROM movies WHERE id = ?", Double.class, movieId));
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT rating_count FROM movies WHERE id = ?", Long.class, movieId));
+    }
+
+    @Test
+    @DisplayName("When Collected Vote Is Discarded Before It Is Written It Should Not Bring The Rating Back")
+    public void whenCollectedVoteIsDiscardedBeforeItIsWritten_itShouldNotBringTheRatingBack() {
+        RatingIngestionServiceImpl ratingIngestionService = createService(10);
+        Integer audienceId = audienceIds.get(0);
+        Instant collectedAt = Instant.now();
+        List<RatingVote> collectedVotes = List.of(new RatingVote(null, movieId, audienceId, 7d, collectedAt.minusMillis(1)));
+
+        transactionTemplate.executeWithoutResult(status -> ratingIngestionService.discardPendingRatings(movieId, audienceId));
+        ratingIngestionService.flush(collectedVotes, collectedAt);
+
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings", Long.class));
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT rating_count FROM movies WHERE id = ?", Long.class, movieId));
+
+        Instant laterVote = Instant.now().plusMillis(1);
+        ratingIngestionService.flush(List.of(new RatingVote(null, movieId, audienceId, 7d, laterVote)), laterVote);
+
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings", Long.class));
+    }
+
+    @Test
+    @DisplayName("When Nodes Drain Pending Ratings Concurrently It Should Apply Each Audience's Latest Vote Exactly Once")
+    public void whenNodesDrainPendingRatingsConcurrently_itShouldApplyEachAudiencesLatestVoteExactlyOnce() throws Exception {
+        Instant start = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Random random = new Random(42);
+        Map<Integer, Double> latestRates = new HashMap<>();
+        List<PendingRating> pendingRatings = new ArrayList<>();
+
+        for (int vote = 0; vote < VOTES_PER_AUDIENCE; vote++) {
+            for (Integer audienceId : audienceIds) {
+                double rate = 1 + random.nextInt(10);
+                latestRates.put(audienceId, rate);
+                pendingRatings.add(PendingRating.builder()
+                        .movieId(movieId)
+                        .audienceId(audienceId)
+                        .rate(rate)
+                        .acceptedAt(start.plusMillis(pendingRatings.size()))
+                        .build());
+            }
+        }
+
+        pendingRatingRepository.saveAll(pendingRatings);
+
+        List<RatingIngestionServiceImpl> nodes = List.of(createService(7), createService(7), createService(7));
+        ExecutorService executorService = Executors.newFixedThreadPool(nodes.size());
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (RatingIngestionServiceImpl node : nodes) {
+                futures.add(executorService.submit(() -> {
+                    while (pendingRatingRepository.count() > 0) {
+                        try {
+                            node.flushPendingVotes();
+                        } catch (RuntimeException exception) {
+                            // A batch that lost a race rolls back and is claimed again, as the batcher does
+                        }
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        double expectedSum = latestRates.values().stream().mapToDouble(Double::doubleValue).sum();
+
+        assertEquals(0L, pendingRatingRepository.count());
+        assertEquals((long) AUDIENCES, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ratings", Long.class));
+        assertEquals(expectedSum, jdbcTemplate.queryForObject("SELECT SUM(rate) FROM ratings", Double.class));
+        assertEquals(expectedSum, jdbcTemplate.queryForObject("SELECT rating_sum FROM movies WHERE id = ?", Double.class, movieId));
+        assertEquals((long) AUDIENCES, jdbcTemplate.queryForObject("SELECT rating_count FROM movies WHERE id = ?", Long.class, movieId));
+        assertEquals((long) AUDIENCES, jdbcTemplate.queryForObject("SELECT SUM(rating_count) FROM rating_histograms WHERE movie_id = ?", Long.class, movieId));
+        assertTrue(jdbcTemplate.queryForList("SELECT rated_at FROM ratings", Timestamp.class)
+                .stream()
+                .allMatch(ratedAt -> !ratedAt.toInstant().isBefore(start)));
+    }
+
+    private RatingIngestionServiceImpl createService(int batchSize) {
+        return new RatingIngestionServiceImpl(movieRepository, audienceRepository, pendingRatingRepository,
+                mock(AudienceService.class), mock(ApplicationEventPublisher.class), mock(CacheManager.class), jdbcTemplate, transactionTemplate,
+                true, 100, batchSize, 10);
+    }
+}
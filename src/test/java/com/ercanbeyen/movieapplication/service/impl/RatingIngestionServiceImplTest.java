@@ -0,0 +1,124 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.dto.AudienceDto;
+import com.ercanbeyen.movieapplication.dto.RatingVote;
+import com.ercanbeyen.movieapplication.entity.PendingRating;
+import com.ercanbeyen.movieapplication.repository.AudienceRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.repository.PendingRatingRepository;
+import com.ercanbeyen.movieapplication.service.AudienceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RatingIngestionServiceImplTest {
+    private static final int CAPACITY = 2;
+    private static final Integer AUDIENCE_ID = 7;
+
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private AudienceRepository audienceRepository;
+    @Mock
+    private PendingRatingRepository pendingRatingRepository;
+    @Mock
+    private AudienceService audienceService;
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private RatingIngestionServiceImpl ratingIngestionService;
+    private final UserDetails userDetails = User.withUsername("audience").password("password").authorities(List.of()).build();
+
+    @BeforeEach
+    public void setUp() {
+        ratingIngestionService = new RatingIngestionServiceImpl(movieRepository, audienceRepository, pendingRatingRepository,
+                audienceService, applicationEventPublisher,
+                cacheManager, jdbcTemplate, transactionTemplate, true, CAPACITY, 10, 10);
+
+        lenient().when(movieRepository.existsById(anyInt())).thenReturn(true);
+        lenient().when(audienceService.getAudience(userDetails.getUsername())).thenReturn(new AudienceDto(AUDIENCE_ID, null, null, null, null));
+    }
+
+    @Test
+    @DisplayName("When Votes Are Coalesced It Should Keep The Latest Vote Of Each Movie And Audience In First Seen Order")
+    public void whenVotesAreCoalesced_itShouldKeepTheLatestVoteOfEachMovieAndAudienceInFirstSeenOrder() {
+        Instant now = Instant.now();
+        RatingVote latestVote = new RatingVote(null, 1, AUDIENCE_ID, 8d, now.plusSeconds(3));
+        RatingVote otherMovieVote = new RatingVote(null, 2, AUDIENCE_ID, 3d, now.plusSeconds(2));
+
+        List<RatingVote> votes = List.of(
+                new RatingVote(null, 1, AUDIENCE_ID, 5d, now.plusSeconds(1)),
+                otherMovieVote,
+                latestVote,
+                new RatingVote(null, 1, AUDIENCE_ID, 6d, now.plusSeconds(2)));
+
+        assertEquals(List.of(latestVote, otherMovieVote), new ArrayList<>(RatingIngestionServiceImpl.coalesce(votes)));
+    }
+
+    @Test
+    @DisplayName("When Queue Is Full It Should Spill The Vote And Every Later Vote Into Pending Ratings")
+    public void whenQueueIsFull_itShouldSpillTheVoteAndEveryLaterVoteIntoPendingRatings() {
+        for (int movieId = 1; movieId <= CAPACITY + 1; movieId++) {
+            assertEquals(ResponseMessages.ACCEPTED, ratingIngestionService.submitRating(movieId, 5d, userDetails));
+        }
+
+        ratingIngestionService.discardPendingRatings(1, AUDIENCE_ID);
+        ratingIngestionService.submitRating(4, 6d, userDetails);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<PendingRating>> spilledRatings = ArgumentCaptor.forClass(List.class);
+        verify(pendingRatingRepository, times(2)).saveAll(spilledRatings.capture());
+
+        List<Integer> spilledMovieIds = spilledRatings.getAllValues()
+                .stream()
+                .flatMap(List::stream)
+                .map(PendingRating::getMovieId)
+                .toList();
+        Map<String, String> statistics = ratingIngestionService.getStatistics().result();
+
+        assertEquals(List.of(3, 4), spilledMovieIds);
+        assertEquals("1", statistics.get("queueDepth"));
+        assertEquals("true", statistics.get("spilling"));
+        assertEquals("2", statistics.get("spilledVotes"));
+    }
+
+    @Test
+    @DisplayName("When discardPendingRatings Called It Should Remove Queued And Spilled Votes Of The Audience Only")
+    public void whenDiscardPendingRatingsCalled_itShouldRemoveQueuedAndSpilledVotesOfTheAudienceOnly() {
+        ratingIngestionService.submitRating(1, 5d, userDetails);
+        ratingIngestionService.submitRating(2, 5d, userDetails);
+        when(pendingRatingRepository.deleteByMovieIdAndAudienceId(1, AUDIENCE_ID)).thenReturn(1);
+
+        ratingIngestionService.discardPendingRatings(1, AUDIENCE_ID);
+
+        assertEquals("1", ratingIngestionService.getStatistics().result().get("queueDepth"));
+        verify(pendingRatingRepository, times(1)).deleteByMovieIdAndAudienceId(1, AUDIENCE_ID);
+        verify(pendingRatingRepository, never()).deleteByMovieIdAndAudienceId(2, AUDIENCE_ID);
+    }
+}
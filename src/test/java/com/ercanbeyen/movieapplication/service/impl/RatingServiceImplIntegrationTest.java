@@ -0,0 +1,141 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.PostgresIntegrationTest;
+import com.ercanbeyen.movieapplication.dto.RatingUpsertResult;
+import com.ercanbeyen.movieapplication.dto.converter.RatingDtoConverter;
+import com.ercanbeyen.movieapplication.entity.Audience;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.repository.AudienceRepository;
+import com.ercanbeyen.movieapplication.repository.MovieRepository;
+import com.ercanbeyen.movieapplication.repository.RatingHistogramRepository;
+import com.ercanbeyen.movieapplication.repository.RatingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class RatingServiceImplIntegrationTest extends PostgresIntegrationTest {
+    private static final int AUDIENCES = 32;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+    @Autowired
+    private RatingHistogramRepository ratingHistogramRepository;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private AudienceRepository audienceRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    private RatingServiceImpl ratingService;
+    private Integer movieId;
+    private List<Integer> audienceIds;
+
+    @BeforeEach
+    public void setUp() {
+        ratingService = new RatingServiceImpl(ratingRepository, new RatingDtoConverter(), ratingHistogramRepository, jdbcTemplate);
+        movieId = movieRepository.save(Movie.builder()
+                        .imdbId("tt0000001")
+                        .title("Movie")
+                        .language("English")
+                        .releaseYear(2000)
+                        .averageRating(0d)
+                        .build())
+                .getId();
+        audienceIds = new ArrayList<>();
+
+        for (int i = 0; i < AUDIENCES; i++) {
+            Integer audienceId = audienceRepository.save(Audience.builder().username("audience" + i).build()).getId();
+            audienceIds.add(audienceId);
+            rate(audienceId, 1d);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("TRUNCATE ratings, rating_histograms, movies, audiences RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    @DisplayName("When Rating Is Deleted And Re-rated Concurrently It Should Keep The Aggregates And Histogram Exact")
+    public void whenRatingIsDeletedAndReRatedConcurrently_itShouldKeepTheAggregatesAndHistogramExact() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(2 * AUDIENCES);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < AUDIENCES; i++) {
+                Integer audienceId = audienceIds.get(i);
+                double rate = i % 4 + 2;
+
+                futures.add(executorService.submit(() -> {
+                    startSignal.await();
+                    rate(audienceId, rate);
+                    return null;
+                }));
+                futures.add(executorService.submit(() -> {
+                    startSignal.await();
+                    delete(audienceId);
+                    return null;
+                }));
+            }
+
+            startSignal.countDown();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        Map<String, Object> expected = jdbcTemplate.queryForMap("SELECT COALESCE(SUM(rate), 0) AS rating_sum, COUNT(*) AS rating_count FROM ratings WHERE movie_id = ?", movieId);
+        Map<String, Object> actual = jdbcTemplate.queryForMap("SELECT rating_sum, rating_count FROM movies WHERE id = ?", movieId);
+
+        assertEquals(((Number) expected.get("rating_sum")).doubleValue(), ((Number) actual.get("rating_sum")).doubleValue());
+        assertEquals(((Number) expected.get("rating_count")).longValue(), ((Number) actual.get("rating_count")).longValue());
+        assertEquals(countByBucket("SELECT CAST(rate AS INTEGER) AS bucket, COUNT(*) AS rating_count FROM ratings WHERE movie_id = ? GROUP BY rate"),
+                countByBucket("SELECT bucket, rating_count FROM rating_histograms WHERE movie_id = ? AND rating_count <> 0"));
+    }
+
+    /* Both operations apply the rate they observed to the movie in the same transaction, as MovieServiceImpl does */
+    private void rate(Integer audienceId, double rate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            RatingUpsertResult result = ratingService.upsertRating(movieId, audienceId, rate);
+            double previousRate = result.isCreated() ? 0 : result.previousRate();
+            movieRepository.applyRatingDifference(movieId, rate - previousRate, result.isCreated() ? 1 : 0);
+        });
+    }
+
+    private void delete(Integer audienceId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Double deletedRate = ratingService.deleteRating(movieId, audienceId);
+            movieRepository.applyRatingDifference(movieId, -deletedRate, -1);
+        });
+    }
+
+    private Map<Integer, Long> countByBucket(String sql) {
+        Map<Integer, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, resultSet -> {
+            counts.put(resultSet.getInt("bucket"), resultSet.getLong("rating_count"));
+        }, movieId);
+
+        return counts;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ercanbeyen.movieapplication.service.impl;
+
+import com.ercanbeyen.movieapplication.dto.RatingUpdate;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class RatingUpdateServiceImplTest {
+    private static final int BUFFER_SIZE = 2;
+
+    @Test
+    @DisplayName("When Movie Is Rated Several Times Between Flushes It Should Send Only The Latest Update")
+    public void whenMovieIsRatedSeveralTimesBetweenFlushes_itShouldSendOnlyTheLatestUpdate() throws InterruptedException {
+        BlockingQueue<RatingUpdate> sentData = new LinkedBlockingQueue<>();
+        RatingUpdateServiceImpl ratingUpdateService = createService(new CountDownLatch(0), sentData);
+        ratingUpdateService.subscribe(List.of(1));
+
+        for (int ratingCount = 1; ratingCount <= 3; ratingCount++) {
+            ratingUpdateService.publish(createMovie(ratingCount));
+        }
+
+        /* Movies without subscribers are neither queued nor counted */
+        Movie unsubscribedMovie = createMovie(1);
+        unsubscribedMovie.setId(2);
+        ratingUpdateService.publish(unsubscribedMovie);
+
+        ratingUpdateService.flush();
+
+        RatingUpdate ratingUpdate = sentData.poll(5, TimeUnit.SECONDS);
+        assertNotNull(ratingUpdate);
+        assertEquals(3L, ratingUpdate.ratingCount());
+        assertNull(sentData.poll(100, TimeUnit.MILLISECONDS));
+
+        Map<String, String> statistics = ratingUpdateService.getStatistics().result();
+        assertEquals("3", statistics.get("publishedUpdates"));
+        assertEquals("2", statistics.get("coalescedUpdates"));
+        assertEquals("0", statistics.get("pendingUpdates"));
+    }
+
+    @Test
+    @DisplayName("When Subscriber Does Not Keep Up It Should Be Dropped Without Blocking The Broadcaster")
+    public void whenSubscriberDoesNotKeepUp_itShouldBeDroppedWithoutBlockingTheBroadcaster() {
+        CountDownLatch release = new CountDownLatch(1);
+        RatingUpdateServiceImpl ratingUpdateService = createService(release, new LinkedBlockingQueue<>());
+        ratingUpdateService.subscribe(List.of(1));
+
+        try {
+            /* One event is held by the blocked sender and the buffer takes two more, so one of these overflows */
+            for (int heartbeat = 0; heartbeat < BUFFER_SIZE + 2; heartbeat++) {
+                ratingUpdateService.sendHeartbeats();
+            }
+
+            Map<String, String> statistics = ratingUpdateService.getStatistics().result();
+            assertEquals("1", statistics.get("droppedSubscribers"));
+            assertEquals("0", statistics.get("subscribers"));
+            assertEquals("0", statistics.get("subscribedMovies"));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static RatingUpdateServiceImpl createService(CountDownLatch release, BlockingQueue<RatingUpdate> sentData) {
+        return new RatingUpdateServiceImpl(2, 15_000, BUFFER_SIZE, 60_000) {
+            @Override
+            SseEmitter createEmitter(long timeout) {
+                return new SseEmitter(timeout) {
+                    @Override
+                    public void send(SseEventBuilder builder) throws IOException {
+                        try {
+                            release.await();
+                        } catch (InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                            throw new IOException(exception);
+                        }
+
+                        Set<ResponseBodyEmitter.DataWithMediaType> data = builder.build();
+                        data.stream()
+                                .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                                .filter(RatingUpdate.class::isInstance)
+                                .forEach(ratingUpdate -> sentData.add((RatingUpdate) ratingUpdate));
+                    }
+                };
+            }
+        };
+    }
+
+    private static Movie createMovie(long ratingCount) {
+        return Movie.builder()
+                .id(1)
+                .averageRating(5d)
+                .ratingCount(ratingCount)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BoundedExtremumTrackerTest {
+    @Test
+    @DisplayName("When More Keys Than The Capacity Are Put It Should Retain Only The Extremes And Break Ties By Key")
+    public void whenMoreKeysThanTheCapacityArePut_itShouldRetainOnlyTheExtremesAndBreakTiesByKey() {
+        BoundedExtremumTracker<Integer> tracker = new BoundedExtremumTracker<>(2);
+
+        tracker.put(3, 4d, "Test-title-3");
+        tracker.put(1, 4d, "Test-title-1");
+        tracker.put(2, 1d, "Test-title-2");
+        tracker.put(4, 1d, "Test-title-4");
+        tracker.put(5, 3d, "Test-title-5");
+        tracker.put(6, null, "Test-title-6");
+
+        assertEquals("Test-title-1", tracker.getMaximumLabel());
+        assertEquals("Test-title-2", tracker.getMinimumLabel());
+        assertEquals(2, tracker.size());
+        assertFalse(tracker.isDrained());
+    }
+
+    @Test
+    @DisplayName("When Retained Keys Fall Behind It Should Drain Instead Of Guessing And Be Refilled")
+    public void whenRetainedKeysFallBehind_itShouldDrainInsteadOfGuessingAndBeRefilled() {
+        BoundedExtremumTracker<Integer> tracker = new BoundedExtremumTracker<>(2);
+        tracker.refill(List.of(entry(1, 5d), entry(2, 4d)), List.of(entry(3, 1d), entry(4, 2d)));
+
+        /* Key 5 ranks behind the last retained key and key 1 falls behind it, so only key 2 is left of the highest */
+        tracker.put(5, 3d, "Test-title-5");
+        tracker.put(1, 2.5d, "Test-title-1");
+
+        assertEquals("Test-title-2", tracker.getMaximumLabel());
+        assertFalse(tracker.isDrained());
+
+        tracker.remove(2);
+
+        assertTrue(tracker.isDrained());
+
+        tracker.refill(List.of(entry(5, 3d), entry(1, 2.5d)), List.of(entry(3, 1d), entry(4, 2d)));
+
+        assertEquals("Test-title-5", tracker.getMaximumLabel());
+        assertEquals("Test-title-3", tracker.getMinimumLabel());
+    }
+
+    @Test
+    @DisplayName("When Refilled With Fewer Keys Than The Capacity It Should Hold Every Key And Never Drain")
+    public void whenRefilledWithFewerKeysThanTheCapacity_itShouldHoldEveryKeyAndNeverDrain() {
+        BoundedExtremumTracker<Integer> tracker = new BoundedExtremumTracker<>(3);
+        tracker.refill(List.of(entry(1, 5d)), List.of(entry(1, 5d)));
+
+        tracker.put(2, 1d, "Test-title-2");
+        tracker.remove(1);
+
+        assertEquals("Test-title-2", tracker.getMaximumLabel());
+        assertEquals("Test-title-2", tracker.getMinimumLabel());
+
+        tracker.remove(2);
+
+        assertFalse(tracker.isDrained());
+        assertNull(tracker.getMaximumLabel());
+    }
+
+    private static BoundedExtremumTracker.Entry<Integer> entry(Integer key, double value) {
+        return new BoundedExtremumTracker.Entry<>(key, value, "Test-title-" + key);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FrequencySketchTest {
+    private static final Map<String, Long> COUNTS = Map.of(
+            "English", 100L,
+            "French", 50L,
+            "Spanish", 10L,
+            "German", 3L);
+
+    private FrequencySketch frequencySketch;
+
+    @BeforeEach
+    public void setUp() {
+        frequencySketch = new FrequencySketch(0.01, 0.99, 4);
+        COUNTS.forEach(frequencySketch::add);
+    }
+
+    @Test
+    @DisplayName("When Values Are Added It Should Never Undercount And Overcount At Most By The Error Bound")
+    public void whenValuesAreAdded_itShouldNeverUndercountAndOvercountAtMostByTheErrorBound() {
+        COUNTS.forEach((value, count) -> {
+            long estimate = frequencySketch.estimate(value);
+            assertTrue(estimate >= count && estimate <= count + frequencySketch.getErrorBound(), value + ": " + estimate);
+        });
+
+        assertEquals(0, frequencySketch.estimate(null));
+        assertEquals("English", frequencySketch.getMostFrequent());
+        assertEquals("German", frequencySketch.getLeastFrequent());
+    }
+
+    @Test
+    @DisplayName("When Values Are Removed It Should Replace The Most And Least Frequent Candidates")
+    public void whenValuesAreRemoved_itShouldReplaceTheMostAndLeastFrequentCandidates() {
+        frequencySketch.add("English", -100);
+        frequencySketch.remove("German");
+        frequencySketch.remove("German");
+        frequencySketch.remove("German");
+
+        assertEquals(0, frequencySketch.estimate("English"));
+        assertEquals("French", frequencySketch.getMostFrequent());
+        assertEquals("Spanish", frequencySketch.getLeastFrequent());
+    }
+
+    @Test
+    @DisplayName("When Sketches Are Merged It Should Add Their Counts")
+    public void whenSketchesAreMerged_itShouldAddTheirCounts() {
+        FrequencySketch other = new FrequencySketch(0.01, 0.99, 4);
+        other.add("German", 200);
+
+        frequencySketch.merge(other);
+
+        assertTrue(frequencySketch.estimate("German") >= 203);
+        assertEquals("German", frequencySketch.getMostFrequent());
+        assertEquals("Spanish", frequencySketch.getLeastFrequent());
+        assertThrows(IllegalArgumentException.class, () -> frequencySketch.merge(new FrequencySketch(0.001, 0.99, 4)));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HyperLogLogTest {
+    @Test
+    @DisplayName("When Values Are Added It Should Estimate Distinct Values Within Three Relative Errors")
+    public void whenValuesAreAdded_itShouldEstimateDistinctValuesWithinThreeRelativeErrors() {
+        HyperLogLog hyperLogLog = new HyperLogLog(14);
+
+        for (int i = 0; i < 100_000; i++) {
+            hyperLogLog.add("Test-language-" + i);
+            hyperLogLog.add("Test-language-" + i);
+        }
+
+        hyperLogLog.add(null);
+
+        assertWithinRelativeError(100_000, hyperLogLog);
+    }
+
+    @Test
+    @DisplayName("When Few Values Are Added It Should Count Them Exactly By Linear Counting")
+    public void whenFewValuesAreAdded_itShouldCountThemExactlyByLinearCounting() {
+        HyperLogLog hyperLogLog = new HyperLogLog(14);
+
+        for (int i = 0; i < 10; i++) {
+            hyperLogLog.add("Test-language-" + (i % 5));
+        }
+
+        assertEquals(5, hyperLogLog.estimate());
+        assertEquals(0, new HyperLogLog(14).estimate());
+    }
+
+    @Test
+    @DisplayName("When Sketches Are Merged It Should Estimate The Union")
+    public void whenSketchesAreMerged_itShouldEstimateTheUnion() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+
+        for (int i = 0; i < 30_000; i++) {
+            first.add("Test-language-" + i);
+            second.add("Test-language-" + (i + 20_000));
+        }
+
+        first.merge(second);
+
+        assertWithinRelativeError(50_000, first);
+        assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(14)));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+    }
+
+    private static void assertWithinRelativeError(long expected, HyperLogLog hyperLogLog) {
+        double relativeError = Math.abs(hyperLogLog.estimate() - expected) / (double) expected;
+        assertTrue(relativeError <= 3 * hyperLogLog.getRelativeError(), "Relative error: " + relativeError);
+    }
+}
@@ -0,0 +1,77 @@
+package com.ercanbeyen.movieapplication.statistics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReservoirSampleTest {
+    @Test
+    @DisplayName("When Keys Are Updated Many Times It Should Count Keys Instead Of Updates")
+    public void whenKeysAreUpdatedManyTimes_itShouldCountKeysInsteadOfUpdates() {
+        ReservoirSample<Integer> sample = new ReservoirSample<>(1000);
+
+        for (int key = 0; key < 10_000; key++) {
+            sample.add(key, key);
+        }
+
+        /* Without keyed counting every update of the first thousand keys would be another draw for them */
+        for (int update = 0; update < 50; update++) {
+            for (int key = 0; key < 1000; key++) {
+                sample.update(key, key);
+            }
+        }
+
+        assertEquals(10_000, sample.getSeen());
+        assertEquals(1000, sample.size());
+        assertTrue(sample.quantiles(0.2)[0] > 1000, "The first thousand keys are oversampled");
+
+        /* The rank error at this confidence bounds the median of a uniform sample */
+        double rankError = sample.getRankError(1 - 1e-6);
+        double median = sample.quantiles(0.5)[0];
+        assertTrue(Math.abs(median - 5000) <= 10_000 * rankError, "Median: " + median);
+    }
+
+    @Test
+    @DisplayName("When Sampled Keys Change Or Are Removed It Should Update Their Values And Free Their Slots")
+    public void whenSampledKeysChangeOrAreRemoved_itShouldUpdateTheirValuesAndFreeTheirSlots() {
+        ReservoirSample<Integer> sample = new ReservoirSample<>(3);
+
+        sample.add(1, 1d);
+        sample.add(2, 2d);
+        sample.add(3, 3d);
+        sample.update(2, 5d);
+        sample.add(3, 4d);
+        sample.remove(1);
+
+        assertEquals(2, sample.size());
+        assertEquals(2, sample.getSeen());
+        assertArrayEquals(new double[]{4d, 5d}, sample.quantiles(0.5, 1));
+
+        sample.add(6, 6d);
+
+        assertEquals(3, sample.size());
+        assertEquals(0, sample.getRankError(0.99));
+        assertArrayEquals(new double[]{4d, 5d, 6d}, sample.quantiles(0.1, 0.5, 1));
+    }
+
+    @Test
+    @DisplayName("When Samples Are Merged It Should Keep Every Key Up To The Capacity And Add Their Seen Keys")
+    public void whenSamplesAreMerged_itShouldKeepEveryKeyUpToTheCapacityAndAddTheirSeenKeys() {
+        ReservoirSample<Integer> first = new ReservoirSample<>(10);
+        ReservoirSample<Integer> second = new ReservoirSample<>(10);
+
+        for (int key = 0; key < 5; key++) {
+            first.add(key, key);
+            second.add(key + 5, key + 5);
+        }
+
+        first.merge(second);
+
+        assertEquals(10, first.size());
+        assertEquals(10, first.getSeen());
+        assertArrayEquals(new double[]{0d, 4d, 9d}, first.quantiles(0.1, 0.5, 1));
+    }
+}
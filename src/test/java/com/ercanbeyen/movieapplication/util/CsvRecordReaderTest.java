@@ -0,0 +1,43 @@
+package com.ercanbeyen.movieapplication.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvRecordReaderTest {
+    @Test
+    @DisplayName("When Quoted Value Contains Separators, Quotes And Line Breaks It Should Be Read As One Value")
+    public void whenQuotedValueContainsSeparatorsQuotesAndLineBreaks_itShouldBeReadAsOneValue() throws IOException {
+        CsvRecordReader csvRecordReader = new CsvRecordReader(new StringReader("""
+                tt0000001,"First line, with comma
+                second ""quoted"" line",English\r
+                tt0000002,Plain,Turkish
+                """));
+
+        assertEquals(List.of("tt0000001", "First line, with comma\nsecond \"quoted\" line", "English"), csvRecordReader.readRecord());
+        assertEquals(List.of("tt0000002", "Plain", "Turkish"), csvRecordReader.readRecord());
+        assertNull(csvRecordReader.readRecord());
+    }
+
+    @Test
+    @DisplayName("When Record Has Empty Values It Should Keep Their Positions")
+    public void whenRecordHasEmptyValues_itShouldKeepTheirPositions() throws IOException {
+        CsvRecordReader csvRecordReader = new CsvRecordReader(new StringReader(",a,,\"\""));
+
+        assertEquals(List.of("", "a", "", ""), csvRecordReader.readRecord());
+        assertNull(csvRecordReader.readRecord());
+    }
+
+    @Test
+    @DisplayName("When Quoted Value Is Not Closed It Should Throw IllegalArgumentException")
+    public void whenQuotedValueIsNotClosed_itShouldThrowIllegalArgumentException() {
+        CsvRecordReader csvRecordReader = new CsvRecordReader(new StringReader("tt0000001,\"never closed\n"));
+
+        assertThrows(IllegalArgumentException.class, csvRecordReader::readRecord);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ercanbeyen.movieapplication.util;
+
+import com.ercanbeyen.movieapplication.constant.message.ResponseMessages;
+import com.ercanbeyen.movieapplication.entity.Movie;
+import com.ercanbeyen.movieapplication.exception.InvalidCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CursorUtilTest {
+    private static final Sort SORT = Sort.by(Sort.Order.desc("releaseYear"), Sort.Order.asc("id"));
+
+    @Test
+    @DisplayName("When Cursor Decoded With The Same Sort It Should Return The Encoded Position")
+    public void whenCursorDecodedWithTheSameSort_itShouldReturnTheEncodedPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("releaseYear", 2020);
+        keys.put("id", 7);
+
+        String cursor = CursorUtil.encode(windowEndingAt(keys), SORT);
+
+        assertEquals(ScrollPosition.forward(keys), CursorUtil.decode(cursor, SORT, Movie.class));
+    }
+
+    @Test
+    @DisplayName("When Cursor Decoded With A Different Sort It Should Throw InvalidCursorException")
+    public void whenCursorDecodedWithADifferentSort_itShouldThrowInvalidCursorException() {
+        String cursor = CursorUtil.encode(windowEndingAt(Map.of("releaseYear", 2020, "id", 7)), SORT);
+
+        InvalidCursorException reversedDirection = assertThrows(InvalidCursorException.class,
+                () -> CursorUtil.decode(cursor, Sort.by(Sort.Order.asc("releaseYear"), Sort.Order.asc("id")), Movie.class));
+        InvalidCursorException otherProperty = assertThrows(InvalidCursorException.class,
+                () -> CursorUtil.decode(cursor, Sort.by(Sort.Order.asc("id")), Movie.class));
+
+        assertEquals(ResponseMessages.CURSOR_SORT_MISMATCH, reversedDirection.getMessage());
+        assertEquals(ResponseMessages.CURSOR_SORT_MISMATCH, otherProperty.getMessage());
+    }
+
+    @Test
+    @DisplayName("When Cursor Is Malformed It Should Throw InvalidCursorException")
+    public void whenCursorIsMalformed_itShouldThrowInvalidCursorException() {
+        InvalidCursorException exception = assertThrows(InvalidCursorException.class,
+                () -> CursorUtil.decode("not-a-cursor", SORT, Movie.class));
+
+        assertEquals(ResponseMessages.INVALID_CURSOR, exception.getMessage());
+    }
+
+    private static Window<Movie> windowEndingAt(Map<String, Object> keys) {
+        return Window.from(List.of(new Movie()), index -> ScrollPosition.forward(keys), true);
+    }
+}